@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.event.NoLogging
+import pekko.http.CommonBenchmark
+import pekko.http.InMemoryHttpMetrics
+import pekko.http.impl.engine.server.{ AdmissionControl, HttpServerBluePrint }
+import pekko.http.scaladsl.Http
+import pekko.http.scaladsl.model.{ HttpRequest, HttpResponse }
+import pekko.http.scaladsl.settings.ServerSettings
+import pekko.pattern.after
+import pekko.stream.scaladsl.{ Flow, Sink, Source, TLSPlacebo }
+import pekko.util.ByteString
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.{ Await, Future }
+import scala.concurrent.duration._
+
+/**
+ * Sends bursts of pipelined requests over many connections to a handler whose latency grows with the number of
+ * requests it handles concurrently, like a saturated thread pool, with and without `load-shedding`. With load
+ * shedding, the requests exceeding the concurrency limit are answered with `503` right away, so a burst completes
+ * sooner. The `InMemoryHttpMetrics` of the server count the shed requests.
+ */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class LoadSheddingBenchmark extends CommonBenchmark {
+  val request = ByteString("GET / HTTP/1.1\r\nHost: localhost\r\nUser-Agent: test\r\n\r\n")
+  val response = HttpResponse()
+
+  @Param(Array("off", "on"))
+  var loadShedding: String = _
+
+  @Param(Array("32"))
+  var connections: String = _
+
+  // the number of requests the handler can take concurrently before its latency grows
+  val handlerCapacity = 64
+  val handlerBaseLatency = 1.millis
+  val requestsPerConnection = 100
+
+  var httpFlow: Flow[ByteString, ByteString, Any] = _
+  val metrics = new InMemoryHttpMetrics
+  implicit var system: ActorSystem = _
+
+  @Benchmark
+  def benchBurst(): Unit = {
+    val burst = Future.sequence(Seq.fill(connections.toInt) {
+      Source.repeat(request)
+        .take(requestsPerConnection)
+        .via(httpFlow)
+        .runWith(Sink.ignore)
+    })(implicitly, system.dispatcher)
+    Await.result(burst, 1.minute)
+  }
+
+  @Setup
+  def setup(): Unit = {
+    val config =
+      ConfigFactory.parseString(
+        s"""
+           pekko.http.server.pipelining-limit = 16
+           pekko.http.server.load-shedding {
+             enabled = $loadShedding
+             initial-limit = $handlerCapacity
+             latency-threshold = ${handlerBaseLatency.toMillis * 4} ms
+           }
+        """)
+        .withFallback(ConfigFactory.load())
+    system = ActorSystem("LoadSheddingBenchmark", config)
+    val settings = ServerSettings(system)
+
+    val inFlight = new AtomicInteger
+    val handler = Flow[HttpRequest].mapAsync(settings.pipeliningLimit) { _ =>
+      val concurrent = inFlight.incrementAndGet()
+      val latency = handlerBaseLatency * (1 + concurrent / handlerCapacity).toLong
+      after(latency, system.scheduler)(Future.successful { inFlight.decrementAndGet(); response })(system.dispatcher)
+    }
+
+    // created once, so that all connections share the limiter like the connections of a binding
+    val serverLayer =
+      HttpServerBluePrint(settings, NoLogging, false, Http().dateHeaderRendering, metrics,
+        AdmissionControl.limiter(settings, metrics)).atop(TLSPlacebo())
+    httpFlow = handler.join(serverLayer)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    system.terminate()
+  }
+}
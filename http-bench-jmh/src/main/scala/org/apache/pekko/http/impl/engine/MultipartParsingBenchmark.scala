@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.http.impl.engine.parsing.BodyPartParser
+import pekko.http.scaladsl.model.ContentTypes
+import pekko.http.scaladsl.settings.ParserSettings
+import pekko.stream.{ ActorMaterializer, Materializer }
+import pekko.stream.scaladsl.{ Sink, Source }
+import pekko.util.ByteString
+import com.typesafe.config.ConfigFactory
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+/**
+ * Measures parsing of a multipart entity with one big part (as for big file uploads) that is received in
+ * network-sized chunks.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.AverageTime))
+class MultipartParsingBenchmark {
+  @Param(Array("1000000", "100000000"))
+  var partSize = 0
+
+  @Param(Array("8192", "65536"))
+  var chunkSize = 0
+
+  implicit var system: ActorSystem = _
+  implicit var mat: Materializer = _
+
+  var settings: ParserSettings = _
+  var chunks: Vector[ByteString] = _
+
+  val boundary = "Pekko-HTTP-Boundary-0123456789"
+
+  @Setup
+  def setup(): Unit = {
+    val config =
+      ConfigFactory.parseString(
+        """
+           pekko.actor.default-dispatcher.fork-join-executor.parallelism-max = 1
+        """)
+        .withFallback(ConfigFactory.load())
+    system = ActorSystem("MultipartParsingBenchmark", config)
+    mat = ActorMaterializer()
+    settings = ParserSettings(system)
+
+    val entity =
+      ByteString(
+        s"--$boundary\r\n" +
+        "Content-Disposition: form-data; name=\"file\"; filename=\"data.bin\"\r\n" +
+        "Content-Type: application/octet-stream\r\n\r\n") ++
+      ByteString(Array.tabulate[Byte](partSize)(i => ('a' + i % 26).toByte)) ++
+      ByteString(s"\r\n--$boundary--\r\n")
+
+    chunks = entity.grouped(chunkSize).map(_.compact).toVector
+  }
+
+  @Benchmark
+  def parseBigPart(): Long = {
+    val parser = new BodyPartParser(ContentTypes.`application/octet-stream`, boundary, system.log, settings)
+    val result =
+      Source(chunks)
+        .via(parser)
+        .runWith(Sink.fold(0L) {
+          case (sum, BodyPartParser.EntityPart(data)) => sum + data.size
+          case (sum, _)                               => sum
+        })
+    Await.result(result, 1.minute)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+}
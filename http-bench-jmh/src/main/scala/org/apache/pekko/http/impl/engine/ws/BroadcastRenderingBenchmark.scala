@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.ws
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.http.scaladsl.model.ws.TextMessage
+import pekko.stream.Materializer
+import pekko.stream.scaladsl.{ Sink, Source }
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+/**
+ * Measures rendering one text message for many server-side connections, either as the same message instance shared
+ * up front (as done by a `WebSocketBroadcastHub`), which is only encoded once, or as a new message instance per
+ * connection.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.AverageTime))
+class BroadcastRenderingBenchmark {
+  @Param(Array("10000"))
+  var subscribers = 0
+
+  @Param(Array("100", "10000"))
+  var messageSize = 0
+
+  implicit var system: ActorSystem = _
+  implicit var mat: Materializer = _
+
+  var text: String = _
+
+  @Setup
+  def setup(): Unit = {
+    system = ActorSystem("BroadcastRenderingBenchmark")
+    mat = Materializer(system)
+    text = "ä" * (messageSize / 2)
+  }
+
+  @Benchmark
+  def renderShared(): Long = {
+    val message = TextMessage(text)
+    MessageToFrameRenderer.share(message)
+    render(Source.repeat(message).take(subscribers))
+  }
+
+  @Benchmark
+  def renderPerConnection(): Long =
+    render(Source(1 to subscribers).map(_ => TextMessage(text)))
+
+  private def render(messages: Source[TextMessage, _]): Long = {
+    val result =
+      messages
+        .via(MessageToFrameRenderer.create(serverSide = true))
+        .via(new FrameEventRenderer)
+        .runWith(Sink.fold(0L)(_ + _.size))
+    Await.result(result, 1.minute)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+}
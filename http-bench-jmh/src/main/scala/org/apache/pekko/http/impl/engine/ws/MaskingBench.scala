@@ -13,16 +13,24 @@
 
 package org.apache.pekko.http.impl.engine.ws
 
-import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.{ Benchmark, Param, Setup }
 
 import org.apache.pekko
 import pekko.util.ByteString
 import pekko.http.CommonBenchmark
 
 class MaskingBench extends CommonBenchmark {
-  val data = ByteString(new Array[Byte](10000))
+  @Param(Array("1024", "10000", "65536", "1048576"))
+  var frameSize = 0
+
+  var data: ByteString = _
   val mask = 0xFEDCBA09
 
+  @Setup
+  def setup(): Unit = {
+    data = ByteString(new Array[Byte](frameSize))
+  }
+
   @Benchmark
   def benchRequestProcessing(): (ByteString, Int) =
     FrameEventParser.mask(data, mask)
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.ws
+
+import org.openjdk.jmh.annotations.{ Benchmark, Param, Setup }
+
+import org.apache.pekko
+import pekko.util.ByteString
+import pekko.http.CommonBenchmark
+
+class Utf8DecoderBench extends CommonBenchmark {
+  @Param(Array("ascii", "mostly-ascii", "non-ascii"))
+  var content = ""
+
+  @Param(Array("100", "10000"))
+  var frameSize = 0
+
+  var data: ByteString = _
+
+  @Setup
+  def setup(): Unit = {
+    val text = content match {
+      case "ascii"        => "a" * frameSize
+      case "mostly-ascii" => ("abcdefghijklmnopqrstuvwxyz0123456789 ä" * frameSize).take(frameSize)
+      case "non-ascii"    => "ä" * (frameSize / 2)
+    }
+    data = ByteString(text, "UTF-8").compact
+  }
+
+  @Benchmark
+  def decode(): String =
+    Utf8Decoder.create().decode(data, endOfInput = true).get
+}
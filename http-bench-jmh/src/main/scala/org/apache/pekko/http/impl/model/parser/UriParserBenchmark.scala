@@ -16,7 +16,9 @@ package org.apache.pekko.http.impl.model.parser
 import java.util.concurrent.TimeUnit
 
 import org.apache.pekko
+import pekko.http.impl.util.ByteStringParserInput
 import pekko.http.scaladsl.model.Uri
+import pekko.util.ByteString
 import org.parboiled2.UTF8
 import org.openjdk.jmh.annotations._
 import org.openjdk.jmh.infra.Blackhole
@@ -36,4 +38,27 @@ class UriParserBenchmark {
     bh.consume(Uri(url).query(UTF8, Uri.ParsingMode.Relaxed))
   }
 
+  @Benchmark
+  def bench_parse_request_target(target: UriParserBenchmark.RequestTarget, bh: Blackhole): Unit = {
+    val parser = new UriParser(new ByteStringParserInput(target.bytes), UTF8, Uri.ParsingMode.Strict)
+    bh.consume(parser.parseHttpRequestTarget())
+  }
+
+}
+
+object UriParserBenchmark {
+  @State(Scope.Benchmark)
+  class RequestTarget {
+    @Param(Array(
+      "/",
+      "/api/v1/users/12345/orders",
+      "/api/v1/users/12345/orders?status=open&sort=date&limit=50&offset=100",
+      "/api/v1/users/%7Bid%7D/orders?status=open"))
+    var target = ""
+
+    var bytes: ByteString = _
+
+    @Setup
+    def setup(): Unit = bytes = ByteString(target)
+  }
 }
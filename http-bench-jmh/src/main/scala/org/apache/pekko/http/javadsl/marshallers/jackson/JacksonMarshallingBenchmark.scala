@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.javadsl.marshallers.jackson
+
+import java.util
+import java.util.concurrent.TimeUnit
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.http.javadsl.marshalling.Marshaller
+import pekko.http.javadsl.model.{ ContentTypes, HttpEntities, HttpEntity, MediaTypes, RequestEntity }
+import pekko.http.javadsl.unmarshalling.Unmarshaller
+import pekko.http.scaladsl.marshalling.Marshal
+import pekko.http.scaladsl.model
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+/**
+ * Compares the byte-oriented Jackson marshallers with marshalling to and unmarshalling from an intermediate String.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+class JacksonMarshallingBenchmark {
+  @Param(Array("10", "10000"))
+  var elements = 0
+
+  implicit var system: ActorSystem = _
+
+  val mapper = new ObjectMapper()
+
+  var value: util.List[util.Map[String, AnyRef]] = _
+  var entity: RequestEntity = _
+
+  val viaStringMarshaller: Marshaller[AnyRef, RequestEntity] =
+    Marshaller.wrapEntity[String, AnyRef, RequestEntity](
+      (v: AnyRef) => mapper.writeValueAsString(v), Marshaller.stringToEntity, MediaTypes.APPLICATION_JSON)
+  val viaStringUnmarshaller: Unmarshaller[HttpEntity, util.List[_]] =
+    Unmarshaller.forMediaType(MediaTypes.APPLICATION_JSON, Unmarshaller.entityToString)
+      .thenApply((s: String) => mapper.readerFor(classOf[util.List[_]]).readValue[util.List[_]](s))
+
+  val bytesMarshaller: Marshaller[AnyRef, RequestEntity] = Jackson.marshaller(mapper)
+  val bytesUnmarshaller: Unmarshaller[HttpEntity, util.List[_]] =
+    Jackson.unmarshaller(mapper, classOf[util.List[_]])
+
+  @Setup
+  def setup(): Unit = {
+    system = ActorSystem("JacksonMarshallingBenchmark")
+    value = new util.ArrayList[util.Map[String, AnyRef]]()
+    (0 until elements).foreach { i =>
+      val element = new util.HashMap[String, AnyRef]()
+      element.put("id", Integer.valueOf(i))
+      element.put("name", s"element number $i with non-ASCII content: grüße")
+      value.add(element)
+    }
+    entity = HttpEntities.create(ContentTypes.APPLICATION_JSON, mapper.writeValueAsBytes(value))
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+
+  @Benchmark
+  def marshal_via_string(): model.RequestEntity = marshal(viaStringMarshaller)
+
+  @Benchmark
+  def marshal_via_bytes(): model.RequestEntity = marshal(bytesMarshaller)
+
+  @Benchmark
+  def unmarshal_via_string(): util.List[_] = unmarshal(viaStringUnmarshaller)
+
+  @Benchmark
+  def unmarshal_via_bytes(): util.List[_] = unmarshal(bytesUnmarshaller)
+
+  private def marshal(marshaller: Marshaller[AnyRef, RequestEntity]): model.RequestEntity = {
+    import system.dispatcher
+    implicit val scalaMarshaller: pekko.http.scaladsl.marshalling.Marshaller[AnyRef, model.RequestEntity] =
+      Marshaller.asScalaEntityMarshaller(marshaller)
+    Await.result(Marshal(value: AnyRef).to[model.RequestEntity], 1.second)
+  }
+
+  private def unmarshal(unmarshaller: Unmarshaller[HttpEntity, util.List[_]]): util.List[_] =
+    unmarshaller.unmarshal(entity, system).toCompletableFuture.get(1, TimeUnit.SECONDS)
+}
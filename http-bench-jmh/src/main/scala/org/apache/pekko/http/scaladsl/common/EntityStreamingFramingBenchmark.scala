@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.common
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.actor.ActorSystem
+import pekko.stream.scaladsl.{ Flow, Sink, Source }
+import pekko.util.ByteString
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+/**
+ * Measures the throughput of framing a newline-delimited JSON entity of about 16MB with the default JSON object
+ * scanner and with parallel line framing.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+class EntityStreamingFramingBenchmark {
+  @Param(Array("objectScanner", "parallel-1", "parallel-4"))
+  var framing = ""
+
+  implicit var system: ActorSystem = _
+
+  var decoder: Flow[ByteString, ByteString, NotUsed] = _
+  var chunks: Vector[ByteString] = _
+
+  @Setup
+  def setup(): Unit = {
+    system = ActorSystem("EntityStreamingFramingBenchmark")
+    val support = EntityStreamingSupport.json()
+    decoder = framing match {
+      case "objectScanner" => support.framingDecoder
+      case parallel        => support.withParallelFraming(parallel.stripPrefix("parallel-").toInt).framingDecoder
+    }
+
+    val line = ByteString("""{"id":12345,"name":"some element","tags":["a","b","c"],"nested":{"value":3.14}}""" + "\n")
+    val entity = Iterator.fill(16 * 1024 * 1024 / line.size)(line).foldLeft(ByteString.newBuilder)(_ ++= _).result()
+    chunks = entity.grouped(64 * 1024).map(_.compact).toVector
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    Await.result(system.terminate(), 5.seconds)
+  }
+
+  @Benchmark
+  def frame_ndjson(): Int =
+    Await.result(Source(chunks).via(decoder).runWith(Sink.fold(0)((count, _) => count + 1)), 1.minute)
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.server
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.pekko
+import pekko.http.scaladsl.model.Uri
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Compares looking up a number of parameters in a wide query string by scanning the parsed [[Uri.Query]] for every
+ * parameter with looking them up in an [[IndexedQuery]].
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Array(Mode.Throughput))
+class ParameterLookupBenchmark {
+  @Param(Array("10", "40"))
+  var pairs = 0
+
+  @Param(Array("15"))
+  var lookups = 0
+
+  var uri: Uri = _
+  var keys: Array[String] = _
+
+  @Setup
+  def setup(): Unit = {
+    uri = Uri((0 until pairs).map(i => s"parameter$i=value%20$i").mkString("/search?", "&", ""))
+    // look up the parameters at the end of the query which are the most expensive ones to find by scanning
+    keys = Array.tabulate(lookups)(i => s"parameter${pairs - 1 - i % pairs}")
+  }
+
+  @Benchmark
+  def scan_query(bh: Blackhole): Unit = {
+    var i = 0
+    while (i < keys.length) {
+      bh.consume(uri.query().get(keys(i)))
+      i += 1
+    }
+  }
+
+  @Benchmark
+  def indexed_query(bh: Blackhole): Unit = {
+    val query = IndexedQuery.parse(uri).get
+    var i = 0
+    while (i < keys.length) {
+      bh.consume(query.get(keys(i)))
+      i += 1
+    }
+  }
+}
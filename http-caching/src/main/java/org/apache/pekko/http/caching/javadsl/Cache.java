@@ -74,4 +74,10 @@ public interface Cache<K, V> {
    * (or by being thrown out by a capacity constraint).
    */
   int size();
+
+  /**
+   * Returns the statistics recorded for this cache so far.
+   * All counts are zero unless recording statistics is enabled with the `record-stats` setting.
+   */
+  CacheStats getStats();
 }
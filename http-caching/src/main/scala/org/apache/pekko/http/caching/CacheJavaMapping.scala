@@ -35,5 +35,7 @@ private[pekko] object CacheJavaMapping {
 
     implicit object CachingSettings extends JavaMapping.Inherited[javadsl.CachingSettings, scaladsl.CachingSettings]
     implicit object LfuCacheSettings extends JavaMapping.Inherited[javadsl.LfuCacheSettings, scaladsl.LfuCacheSettings]
+    implicit object OffHeapCacheSettings
+        extends JavaMapping.Inherited[javadsl.OffHeapCacheSettings, scaladsl.OffHeapCacheSettings]
   }
 }
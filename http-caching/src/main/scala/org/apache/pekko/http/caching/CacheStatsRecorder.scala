@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching
+
+import java.util.concurrent.atomic.LongAdder
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.caching.scaladsl.CacheStats
+import com.github.benmanes.caffeine.cache.{ AsyncCache, Caffeine, RemovalCause, RemovalListener }
+
+/**
+ * INTERNAL API
+ *
+ * Completes the statistics Caffeine records with the causes of evictions, which it only counts in total, and with
+ * the values that caches regenerate without going through Caffeine.
+ */
+@InternalApi
+private[caching] final class CacheStatsRecorder extends RemovalListener[Any, Any] {
+  private val sizeEvictions = new LongAdder
+  private val expirationEvictions = new LongAdder
+  private val regenerationSuccesses = new LongAdder
+  private val regenerationFailures = new LongAdder
+  private val regenerationTime = new LongAdder
+
+  // called asynchronously after the removal, so the counts may lag behind the ones of Caffeine
+  def onRemoval(key: Any, value: Any, cause: RemovalCause): Unit = cause match {
+    case RemovalCause.SIZE    => sizeEvictions.increment()
+    case RemovalCause.EXPIRED => expirationEvictions.increment()
+    case _                    =>
+  }
+
+  /** Records a value that was regenerated in the given time in nanoseconds, counted as a load */
+  def recordRegeneration(success: Boolean, time: Long): Unit = {
+    if (success) regenerationSuccesses.increment() else regenerationFailures.increment()
+    regenerationTime.add(time)
+  }
+
+  def stats(store: AsyncCache[_, _]): CacheStats =
+    if (!store.synchronous().policy().isRecordingStats) CacheStats.Empty
+    else {
+      val stats = store.synchronous().stats()
+      new CacheStats(
+        stats.hitCount,
+        stats.missCount,
+        stats.loadSuccessCount + regenerationSuccesses.sum(),
+        stats.loadFailureCount + regenerationFailures.sum(),
+        stats.totalLoadTime + regenerationTime.sum(),
+        stats.evictionCount,
+        sizeEvictions.sum(),
+        expirationEvictions.sum())
+    }
+}
+
+/** INTERNAL API */
+@InternalApi
+private[caching] object CacheStatsRecorder {
+
+  /** Makes the cache record statistics with the recorder if enabled */
+  def configure[K, V](builder: Caffeine[K, V], recorder: CacheStatsRecorder, recordStats: Boolean)
+      : Caffeine[K, V] =
+    if (recordStats) builder.recordStats().removalListener[K, V](recorder)
+    else builder
+}
@@ -25,7 +25,7 @@ import scala.concurrent.duration.Duration
 import scala.concurrent.{ ExecutionContext, Future }
 import com.github.benmanes.caffeine.cache.{ AsyncCache, Caffeine }
 import pekko.http.caching.LfuCache.toJavaMappingFunction
-import pekko.http.caching.scaladsl.Cache
+import pekko.http.caching.scaladsl.{ Cache, CacheStats }
 import pekko.http.impl.util.JavaMapping.Implicits._
 import pekko.http.caching.CacheJavaMapping.Implicits._
 
@@ -41,6 +41,8 @@ object LfuCache {
   /**
    * Creates a new [[pekko.http.caching.LfuCache]], with optional expiration depending
    * on whether a non-zero and finite timeToLive and/or timeToIdle is set or not.
+   * Entries are regenerated ahead of their expiration or served stale while being regenerated
+   * if a finite refreshAfterWrite or a non-zero staleWhileRevalidate and/or staleIfError is set.
    */
   def apply[K, V](cachingSettings: scaladsl.CachingSettings): pekko.http.caching.scaladsl.Cache[K, V] = {
     val settings = cachingSettings.lfuCacheSettings
@@ -48,9 +50,13 @@ object LfuCache {
     require(settings.maxCapacity >= 0, "maxCapacity must not be negative")
     require(settings.initialCapacity <= settings.maxCapacity, "initialCapacity must be <= maxCapacity")
 
-    if (settings.timeToLive.isFinite || settings.timeToIdle.isFinite)
-      expiringLfuCache(settings.maxCapacity, settings.initialCapacity, settings.timeToLive, settings.timeToIdle)
-    else simpleLfuCache(settings.maxCapacity, settings.initialCapacity)
+    if (settings.refreshAfterWrite.isFinite || settings.staleWhileRevalidate > Duration.Zero ||
+      settings.staleIfError > Duration.Zero)
+      refreshingLfuCache(settings, cachingSettings.recordStats)
+    else if (settings.timeToLive.isFinite || settings.timeToIdle.isFinite)
+      expiringLfuCache(settings.maxCapacity, settings.initialCapacity, settings.timeToLive, settings.timeToIdle,
+        cachingSettings.recordStats)
+    else simpleLfuCache(settings.maxCapacity, settings.initialCapacity, cachingSettings.recordStats)
   }
 
   /**
@@ -69,16 +75,17 @@ object LfuCache {
   def create[K, V](settings: javadsl.CachingSettings): pekko.http.caching.javadsl.Cache[K, V] =
     apply(settings.asScala)
 
-  private def simpleLfuCache[K, V](maxCapacity: Int, initialCapacity: Int): LfuCache[K, V] = {
-    val store = Caffeine.newBuilder().asInstanceOf[Caffeine[K, V]]
+  private def simpleLfuCache[K, V](maxCapacity: Int, initialCapacity: Int, recordStats: Boolean): LfuCache[K, V] = {
+    val statsRecorder = new CacheStatsRecorder
+    val builder = Caffeine.newBuilder().asInstanceOf[Caffeine[K, V]]
       .initialCapacity(initialCapacity)
       .maximumSize(maxCapacity)
-      .buildAsync[K, V]
-    new LfuCache[K, V](store)
+    val store = CacheStatsRecorder.configure(builder, statsRecorder, recordStats).buildAsync[K, V]
+    new LfuCache[K, V](store, statsRecorder)
   }
 
   private def expiringLfuCache[K, V](maxCapacity: Long, initialCapacity: Int,
-      timeToLive: Duration, timeToIdle: Duration): LfuCache[K, V] = {
+      timeToLive: Duration, timeToIdle: Duration, recordStats: Boolean): LfuCache[K, V] = {
     require(
       !timeToLive.isFinite || !timeToIdle.isFinite || timeToLive >= timeToIdle,
       s"timeToLive($timeToLive) must be >= than timeToIdle($timeToIdle)")
@@ -97,8 +104,49 @@ object LfuCache {
       .initialCapacity(initialCapacity)
       .maximumSize(maxCapacity)
 
-    val store = ttl.andThen(tti)(builder).buildAsync[K, V]
-    new LfuCache[K, V](store)
+    val statsRecorder = new CacheStatsRecorder
+    val store = CacheStatsRecorder.configure(ttl.andThen(tti)(builder), statsRecorder, recordStats).buildAsync[K, V]
+    new LfuCache[K, V](store, statsRecorder)
+  }
+
+  private def refreshingLfuCache[K, V](settings: scaladsl.LfuCacheSettings, recordStats: Boolean)
+      : RefreshingLfuCache[K, V] = {
+    import settings._
+    require(
+      !timeToLive.isFinite || !timeToIdle.isFinite || timeToLive >= timeToIdle,
+      s"timeToLive($timeToLive) must be >= than timeToIdle($timeToIdle)")
+    require(
+      timeToLive.isFinite || (staleWhileRevalidate == Duration.Zero && staleIfError == Duration.Zero),
+      "staleWhileRevalidate and staleIfError require a finite timeToLive")
+
+    // entries are kept for as long as they may be returned stale
+    val expireAfterWrite = timeToLive + (staleWhileRevalidate.max(staleIfError))
+    // in nanoseconds like the thresholds of the cache, so that entries are not expired before they are stale
+    def ttl: Caffeine[K, RefreshingLfuCache.Entry[V]] => Caffeine[K, RefreshingLfuCache.Entry[V]] = { builder =>
+      if (expireAfterWrite.isFinite) builder.expireAfterWrite(expireAfterWrite.toNanos, TimeUnit.NANOSECONDS)
+      else builder
+    }
+
+    def tti: Caffeine[K, RefreshingLfuCache.Entry[V]] => Caffeine[K, RefreshingLfuCache.Entry[V]] = { builder =>
+      if (timeToIdle.isFinite) builder.expireAfterAccess(timeToIdle.toMillis, TimeUnit.MILLISECONDS)
+      else builder
+    }
+
+    val builder = Caffeine.newBuilder().asInstanceOf[Caffeine[K, RefreshingLfuCache.Entry[V]]]
+      .initialCapacity(initialCapacity)
+      .maximumSize(maxCapacity)
+
+    val statsRecorder = new CacheStatsRecorder
+    val store = CacheStatsRecorder.configure(ttl.andThen(tti)(builder), statsRecorder, recordStats)
+      .buildAsync[K, RefreshingLfuCache.Entry[V]]
+
+    def nanos(duration: Duration): Long = if (duration.isFinite) duration.toNanos else Long.MaxValue
+    new RefreshingLfuCache[K, V](
+      store,
+      statsRecorder,
+      refreshAfter = nanos(refreshAfterWrite.min(timeToLive)),
+      staleUntil = nanos(timeToLive + staleWhileRevalidate),
+      staleIfErrorUntil = nanos(timeToLive + staleIfError))
   }
 
   def toJavaMappingFunction[K, V](genValue: () => Future[V]): BiFunction[K, Executor, CompletableFuture[V]] =
@@ -110,7 +158,8 @@ object LfuCache {
 
 /** INTERNAL API */
 @InternalApi
-private[caching] class LfuCache[K, V](val store: AsyncCache[K, V]) extends Cache[K, V] {
+private[caching] class LfuCache[K, V](val store: AsyncCache[K, V], statsRecorder: CacheStatsRecorder)
+    extends Cache[K, V] {
 
   def get(key: K): Option[Future[V]] = Option(store.getIfPresent(key)).map(_.toScala)
 
@@ -145,4 +194,6 @@ private[caching] class LfuCache[K, V](val store: AsyncCache[K, V]) extends Cache
   def keys: Set[K] = store.synchronous().asMap().keySet().asScala.toSet
 
   override def size: Int = store.synchronous().asMap().size()
+
+  override def stats: CacheStats = statsRecorder.stats(store)
 }
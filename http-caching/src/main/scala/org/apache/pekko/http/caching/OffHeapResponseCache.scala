@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching
+
+import java.nio.ByteBuffer
+import java.util.concurrent.{ CompletableFuture, TimeUnit }
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.annotation.{ ApiMayChange, InternalApi }
+import pekko.dispatch.ExecutionContexts
+import pekko.http.caching.scaladsl.{ Cache, CacheStats, CachedResponse }
+import pekko.http.impl.util.JavaMapping.Implicits._
+import pekko.http.caching.CacheJavaMapping.Implicits._
+import pekko.http.scaladsl.model.{ ContentType, HttpEntity }
+import pekko.http.scaladsl.util.FastFuture
+import pekko.io.DirectByteBufferPool
+import pekko.util.ByteString
+
+import scala.annotation.tailrec
+import scala.collection.JavaConverters._
+import scala.compat.java8.FutureConverters._
+import scala.concurrent.{ ExecutionContext, Future }
+import com.github.benmanes.caffeine.cache.{ AsyncCache, Caffeine, RemovalCause, RemovalListener, Weigher }
+
+/**
+ * A cache for responses with strict entities that keeps the entity bytes outside of the heap and is bounded
+ * by their total size instead of the number of entries. Only the keys and the other parts of the responses
+ * stay on the heap.
+ *
+ * Every access copies the entity bytes of the stored response back to the heap, as a `ByteString` cannot refer to
+ * memory outside of it, so that an access allocates as much as the entity is large for as long as the returned
+ * response is in use. The memory outside of the heap is freed as soon as an entry is removed, instead of when the
+ * garbage collector finds its buffer unreachable.
+ *
+ * Useful with the `cacheResponses` directive if the cached entities are large or vary a lot in size.
+ */
+@ApiMayChange
+object OffHeapResponseCache {
+
+  def apply[K](implicit system: ActorSystem): Cache[K, CachedResponse] =
+    apply(scaladsl.CachingSettings(system))
+
+  /**
+   * Creates a new [[OffHeapResponseCache]] using the `off-heap-cache` settings.
+   */
+  def apply[K](cachingSettings: scaladsl.CachingSettings): Cache[K, CachedResponse] = {
+    val settings = cachingSettings.offHeapCacheSettings
+
+    require(settings.maxSize >= 0, "maxSize must not be negative")
+    require(
+      !settings.timeToLive.isFinite || !settings.timeToIdle.isFinite || settings.timeToLive >= settings.timeToIdle,
+      s"timeToLive(${settings.timeToLive}) must be >= than timeToIdle(${settings.timeToIdle})")
+
+    val statsRecorder = new CacheStatsRecorder
+    def ttl: Caffeine[K, OffHeapResponseCache.Entry] => Caffeine[K, OffHeapResponseCache.Entry] = { builder =>
+      if (settings.timeToLive.isFinite) builder.expireAfterWrite(settings.timeToLive.toMillis, TimeUnit.MILLISECONDS)
+      else builder
+    }
+
+    def tti: Caffeine[K, OffHeapResponseCache.Entry] => Caffeine[K, OffHeapResponseCache.Entry] = { builder =>
+      if (settings.timeToIdle.isFinite) builder.expireAfterAccess(settings.timeToIdle.toMillis, TimeUnit.MILLISECONDS)
+      else builder
+    }
+
+    val builder = Caffeine.newBuilder().asInstanceOf[Caffeine[K, OffHeapResponseCache.Entry]]
+      .initialCapacity(settings.initialCapacity)
+      .maximumWeight(settings.maxSize)
+      .weigher(OffHeapResponseCache.weigher[K])
+    val recordStats = cachingSettings.recordStats
+    val store = (if (recordStats) ttl.andThen(tti)(builder).recordStats() else ttl.andThen(tti)(builder))
+      .removalListener(OffHeapResponseCache.releasingListener[K](if (recordStats) Some(statsRecorder) else None))
+      .buildAsync[K, OffHeapResponseCache.Entry]
+
+    new OffHeapResponseCache[K](store, statsRecorder)
+  }
+
+  /**
+   * Java API
+   * Creates a new [[OffHeapResponseCache]] using configuration of the system.
+   */
+  def create[K](system: ActorSystem): pekko.http.caching.javadsl.Cache[K, CachedResponse] =
+    apply(system)
+
+  /**
+   * Java API
+   * Creates a new [[OffHeapResponseCache]] using the `off-heap-cache` settings.
+   */
+  def create[K](settings: javadsl.CachingSettings): pekko.http.caching.javadsl.Cache[K, CachedResponse] =
+    apply(settings.asScala)
+
+  /** INTERNAL API */
+  @InternalApi
+  private[caching] final class Entry(
+      val cachedResponse: CachedResponse,
+      val contentType: ContentType,
+      val data: ByteBuffer) {
+    // the store holds one reference until it removes the entry, accesses hold one while copying the entity
+    private val references = new AtomicInteger(1)
+
+    def size: Int = data.capacity
+
+    /** Keeps the entity bytes from being freed, fails if the entry was removed and its bytes were freed already */
+    @tailrec def retain(): Boolean = {
+      val count = references.get
+      count > 0 && (references.compareAndSet(count, count + 1) || retain())
+    }
+
+    /** Frees the entity bytes if this was the last reference */
+    def release(): Unit =
+      if (references.decrementAndGet() == 0) DirectByteBufferPool.tryCleanDirectByteBuffer(data)
+
+    def isReleased: Boolean = references.get == 0
+
+    /** The size of the entity plus the approximate size of the parts of the response that stay on the heap */
+    def weight: Int = {
+      val heapSize = EntryOverhead.toLong +
+        cachedResponse.response.headers.foldLeft(0L)((sum, h) => sum + h.name.length + h.value.length) +
+        cachedResponse.varyHeaderNames.foldLeft(0L)(_ + _.length) +
+        cachedResponse.selectingHeaderValues.foldLeft(0L)(_ + _.fold(0)(_.length))
+      math.min(Int.MaxValue.toLong, math.max(1L, size + heapSize)).toInt
+    }
+  }
+
+  /** The approximate size of the objects of an entry on the heap apart from its headers, in bytes */
+  private final val EntryOverhead = 64
+
+  private def weigher[K]: Weigher[K, Entry] = new Weigher[K, Entry] {
+    def weigh(key: K, entry: Entry): Int = entry.weight
+  }
+
+  /** Releases the reference of the store to removed entries and records evictions if statistics are recorded */
+  private def releasingListener[K](statsRecorder: Option[CacheStatsRecorder]): RemovalListener[K, Entry] =
+    new RemovalListener[K, Entry] {
+      def onRemoval(key: K, entry: Entry, cause: RemovalCause): Unit = {
+        statsRecorder.foreach(_.onRemoval(key, entry, cause))
+        // null if the entry was removed before its value was generated
+        if (entry ne null) entry.release()
+      }
+    }
+
+  /** Moves the entity bytes out of the heap, the entity of the response must be strict */
+  private def toEntry(cachedResponse: CachedResponse): Entry = cachedResponse.response.entity match {
+    case HttpEntity.Strict(contentType, bytes) =>
+      val data = ByteBuffer.allocateDirect(bytes.length)
+      bytes.copyToBuffer(data)
+      data.flip()
+      new Entry(cachedResponse.copyWith(cachedResponse.response.withEntity(HttpEntity.Empty)), contentType, data)
+    case entity =>
+      throw new IllegalArgumentException(s"Only responses with strict entities can be cached off-heap, got $entity")
+  }
+
+  /** Copies the entity bytes back to the heap, `None` if the entry was removed and its bytes were freed already */
+  private def fromEntry(entry: Entry): Option[CachedResponse] =
+    if (!entry.retain()) None
+    else
+      try {
+        val bytes = new Array[Byte](entry.size)
+        entry.data.duplicate().get(bytes)
+        val response = entry.cachedResponse.response
+        Some(entry.cachedResponse.copyWith(
+          response.withEntity(HttpEntity(entry.contentType, ByteString.fromArrayUnsafe(bytes)))))
+      } finally entry.release()
+}
+
+/** INTERNAL API */
+@InternalApi
+private[caching] final class OffHeapResponseCache[K](
+    val store: AsyncCache[K, OffHeapResponseCache.Entry],
+    statsRecorder: CacheStatsRecorder) extends Cache[K, CachedResponse] {
+  import OffHeapResponseCache._
+
+  def apply(key: K, genValue: () => Future[CachedResponse]): Future[CachedResponse] =
+    fromStored(store.get(key, LfuCache.toJavaMappingFunction[K, Entry](() => toStored(genValue()))),
+      // the removed entry is not in the store anymore
+      apply(key, genValue))
+
+  def get(key: K): Option[Future[CachedResponse]] =
+    Option(store.getIfPresent(key)).map(fromStored(_,
+      get(key).getOrElse(FastFuture.failed(new NoSuchElementException(s"The entry for $key was removed")))))
+
+  def put(key: K, mayBeValue: Future[CachedResponse])(implicit ex: ExecutionContext): Future[CachedResponse] =
+    mayBeValue.map { value =>
+      store.put(key, CompletableFuture.completedFuture(toEntry(value)))
+      value
+    }
+
+  def getOrLoad(key: K, loadValue: K => Future[CachedResponse]): Future[CachedResponse] =
+    apply(key, () => loadValue(key))
+
+  def remove(key: K): Unit = store.synchronous().invalidate(key)
+
+  def clear(): Unit = store.synchronous().invalidateAll()
+
+  def keys: Set[K] = store.synchronous().asMap().keySet().asScala.toSet
+
+  override def size: Int = store.synchronous().asMap().size()
+
+  override def stats: CacheStats = statsRecorder.stats(store)
+
+  /** The total size of the entity bytes stored outside of the heap */
+  def weightedSize: Long = store.synchronous().policy().eviction().get().weightedSize().orElse(0L)
+
+  private def toStored(value: Future[CachedResponse]): Future[Entry] =
+    value.map(toEntry)(ExecutionContexts.parasitic)
+
+  private def fromStored(stored: CompletableFuture[Entry], ifRemoved: => Future[CachedResponse])
+      : Future[CachedResponse] =
+    stored.toScala.flatMap { entry =>
+      fromEntry(entry) match {
+        case Some(cachedResponse) => FastFuture.successful(cachedResponse)
+        case None                 => ifRemoved
+      }
+    }(ExecutionContexts.parasitic)
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicReference
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.dispatch.ExecutionContexts
+import pekko.http.caching.LfuCache.toJavaMappingFunction
+import pekko.http.caching.scaladsl.{ Cache, CacheStats }
+import pekko.http.scaladsl.util.FastFuture
+
+import scala.annotation.tailrec
+import scala.collection.JavaConverters._
+import scala.compat.java8.FutureConverters._
+import scala.concurrent.{ ExecutionContext, Future, Promise }
+import scala.util.{ Failure, Success }
+import scala.util.control.NonFatal
+import com.github.benmanes.caffeine.cache.AsyncCache
+
+/**
+ * INTERNAL API
+ *
+ * An [[LfuCache]] that regenerates entries in the background instead of letting accesses wait for it.
+ *
+ * Values are returned as they are for `refreshAfter` nanoseconds after they were written. After that, accesses
+ * through `apply` trigger a single background regeneration while the current value is still returned, until
+ * `staleUntil` nanoseconds after the write. Independently of that, the value is returned if regenerating it fails
+ * until `staleIfErrorUntil` nanoseconds after the write, so past `staleUntil` accesses wait for the regeneration.
+ * The underlying store must expire entries after the later of `staleUntil` and `staleIfErrorUntil`.
+ */
+@InternalApi
+private[caching] final class RefreshingLfuCache[K, V](
+    val store: AsyncCache[K, RefreshingLfuCache.Entry[V]],
+    statsRecorder: CacheStatsRecorder,
+    refreshAfter: Long,
+    staleUntil: Long,
+    staleIfErrorUntil: Long) extends Cache[K, V] {
+  import RefreshingLfuCache._
+
+  def apply(key: K, genValue: () => Future[V]): Future[V] = {
+    val stored = store.get(key, toJavaMappingFunction[K, Entry[V]](() => generate(genValue)))
+    stored.toScala.value match {
+      case Some(Success(entry)) => answer(key, stored, entry, genValue)
+      case _                    => stored.toScala.map(_.value)(ExecutionContexts.parasitic)
+    }
+  }
+
+  private def answer(key: K, stored: CompletableFuture[Entry[V]], entry: Entry[V], genValue: () => Future[V])
+      : Future[V] = {
+    val age = System.nanoTime() - entry.writtenAt
+    if (age < refreshAfter) FastFuture.successful(entry.value)
+    else if (age < staleUntil) {
+      regenerate(key, stored, entry, genValue)
+      FastFuture.successful(entry.value)
+    } else if (age < staleIfErrorUntil)
+      regenerate(key, stored, entry, genValue).recover { case _ => entry.value }(ExecutionContexts.parasitic)
+    else {
+      // not yet evicted by the store
+      store.asMap().remove(key, stored)
+      apply(key, genValue)
+    }
+  }
+
+  /** Starts regenerating the entry unless that is already in progress and returns the new value */
+  @tailrec private def regenerate(key: K, stored: CompletableFuture[Entry[V]], entry: Entry[V],
+      genValue: () => Future[V]): Future[V] =
+    entry.regeneration.get match {
+      case null =>
+        val promise = Promise[V]()
+        if (entry.regeneration.compareAndSet(null, promise.future)) {
+          val start = System.nanoTime()
+          generate(genValue).onComplete {
+            case Success(newEntry) =>
+              statsRecorder.recordRegeneration(success = true, newEntry.writtenAt - start)
+              val regenerated = CompletableFuture.completedFuture(newEntry)
+              // keeps a value put meanwhile, but stores the new one if the entry was evicted while regenerating it
+              if (!store.asMap().replace(key, stored, regenerated)) store.asMap().putIfAbsent(key, regenerated)
+              promise.success(newEntry.value)
+            case Failure(ex) =>
+              statsRecorder.recordRegeneration(success = false, System.nanoTime() - start)
+              // allow a later access to try again
+              entry.regeneration.set(null)
+              promise.failure(ex)
+          }(ExecutionContexts.parasitic)
+          promise.future
+        } else regenerate(key, stored, entry, genValue)
+      case inProgress => inProgress
+    }
+
+  private def generate(genValue: () => Future[V]): Future[Entry[V]] = {
+    val value = try genValue()
+    catch { case NonFatal(ex) => FastFuture.failed(ex) }
+    value.map(new Entry(_, System.nanoTime()))(ExecutionContexts.parasitic)
+  }
+
+  def get(key: K): Option[Future[V]] =
+    Option(store.getIfPresent(key)).map(_.toScala.map(_.value)(ExecutionContexts.parasitic))
+
+  def put(key: K, mayBeValue: Future[V])(implicit ex: ExecutionContext): Future[V] =
+    mayBeValue.map { value =>
+      store.put(key, CompletableFuture.completedFuture(new Entry(value, System.nanoTime())))
+      value
+    }
+
+  def getOrLoad(key: K, loadValue: K => Future[V]): Future[V] =
+    apply(key, () => loadValue(key))
+
+  def remove(key: K): Unit = store.synchronous().invalidate(key)
+
+  def clear(): Unit = store.synchronous().invalidateAll()
+
+  def keys: Set[K] = store.synchronous().asMap().keySet().asScala.toSet
+
+  override def size: Int = store.synchronous().asMap().size()
+
+  override def stats: CacheStats = statsRecorder.stats(store)
+}
+
+/** INTERNAL API */
+@InternalApi
+private[caching] object RefreshingLfuCache {
+  final class Entry[V](val value: V, val writtenAt: Long) {
+    val regeneration = new AtomicReference[Future[V]]()
+
+    override def toString: String = String.valueOf(value)
+  }
+}
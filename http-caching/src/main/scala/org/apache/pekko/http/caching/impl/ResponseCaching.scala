@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.impl
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.caching.scaladsl.CachedResponse
+import pekko.http.impl.util._
+import pekko.http.scaladsl.model.{ HttpEntity, HttpHeader, HttpRequest, HttpResponse }
+import pekko.http.scaladsl.model.headers._
+import pekko.http.scaladsl.model.headers.CacheDirectives._
+
+import scala.collection.immutable
+import scala.util.control.NoStackTrace
+
+/**
+ * INTERNAL API
+ *
+ * The rules of a shared cache as defined by RFC 9111, restricted to responses with explicit freshness information.
+ */
+@InternalApi
+private[http] object ResponseCaching {
+
+  /** Fails the loading of an entry whose response turned out not to be storable */
+  case object NotStorable extends RuntimeException with NoStackTrace
+
+  /** The key of the responses to the request before selecting a variant: its method and effective request URI */
+  def baseKey(request: HttpRequest): String =
+    request.method.value + " " + request.uri
+
+  /** The key of the variant of the response that the request headers named by `varyHeaderNames` select */
+  def variantKey(baseKey: String, varyHeaderNames: immutable.Seq[String], request: HttpRequest): String =
+    variantKey(baseKey, varyHeaderNames, selectingHeaderValues(request, varyHeaderNames))
+
+  /** The key the stored response is selected by */
+  def variantKey(baseKey: String, stored: CachedResponse): String =
+    variantKey(baseKey, stored.varyHeaderNames, stored.selectingHeaderValues)
+
+  /**
+   * The entry stored under the base key of a varying response, which only tells which request headers select its
+   * variants
+   */
+  def varyMarker(stored: CachedResponse): CachedResponse =
+    stored.copyWith(stored.response.withEntity(HttpEntity.Empty))
+
+  /** Whether the request forbids storing its response (`no-store`) */
+  def forbidsStoring(request: HttpRequest): Boolean =
+    cacheDirectives(request.headers).contains(`no-store`)
+
+  /** Whether the request forbids answering it with a stored response without revalidation */
+  def forbidsStoredResponse(request: HttpRequest): Boolean =
+    cacheDirectives(request.headers).exists {
+      case `no-cache`   => true
+      case `max-age`(0) => true
+      case _            => false
+    } || request.headers.exists(h => h.is("pragma") && h.value.equalsIgnoreCase("no-cache"))
+
+  /** Whether the stored response may be used to answer the request at the given time */
+  def canAnswer(stored: CachedResponse, request: HttpRequest, now: Long): Boolean = {
+    val age = stored.age(now)
+    stored.isFresh(now) && cacheDirectives(request.headers).forall {
+      case `max-age`(maxAge)     => age <= maxAge
+      case `min-fresh`(minFresh) => stored.freshnessLifetime - age >= minFresh
+      case _                     => true
+    }
+  }
+
+  /** Whether the request headers named by the `Vary` header of the stored response match the ones of the request */
+  def selects(stored: CachedResponse, request: HttpRequest): Boolean =
+    selectingHeaderValues(request, stored.varyHeaderNames) == stored.selectingHeaderValues
+
+  /**
+   * Whether the response to the request may be stored, which only depends on the headers of both. The entity of
+   * a storable response still needs to be made strict before calling [[toCachedResponse]].
+   */
+  def isStorable(request: HttpRequest, response: HttpResponse, now: Long): Boolean = {
+    val directives = cacheDirectives(response.headers)
+    val status = response.status.intValue
+
+    status >= 200 && status != 206 && status != 304 &&
+    !directives.exists {
+      case `no-store` | `no-cache` | _: `no-cache` | _: `private` => true
+      case _                                                      => false
+    } &&
+    // the response to an authorized request may only be shared if it says so explicitly
+    (request.header[Authorization].isEmpty || directives.exists {
+      case `public` | `must-revalidate` | _: `s-maxage` => true
+      case _                                            => false
+    }) &&
+    !response.headers.exists(_.isInstanceOf[`Set-Cookie`]) &&
+    !varyHeaderNames(response).contains("*") &&
+    freshnessLifetime(response, now) > 0
+  }
+
+  /** Creates the entry to store for the response to the request, which must be storable and have a strict entity */
+  def toCachedResponse(request: HttpRequest, response: HttpResponse, now: Long): CachedResponse = {
+    val vary = varyHeaderNames(response)
+    new CachedResponse(
+      response,
+      now,
+      response.header[Age].fold(0L)(_.deltaSeconds),
+      freshnessLifetime(response, now),
+      vary,
+      selectingHeaderValues(request, vary))
+  }
+
+  /** The freshness lifetime in seconds, preferring `s-maxage` over `max-age` over `Expires` */
+  private def freshnessLifetime(response: HttpResponse, now: Long): Long = {
+    val directives = cacheDirectives(response.headers)
+    directives.collectFirst { case `s-maxage`(seconds) => seconds }
+      .orElse(directives.collectFirst { case `max-age`(seconds) => seconds })
+      .orElse(response.header[Expires].map { expires =>
+        val date = response.header[Date].fold(now)(_.date.clicks)
+        (expires.date.clicks - date) / 1000
+      })
+      .getOrElse(0L)
+  }
+
+  private def variantKey(
+      baseKey: String, names: immutable.Seq[String], values: immutable.Seq[Option[String]]): String =
+    if (names.isEmpty) baseKey
+    else {
+      val key = new java.lang.StringBuilder(baseKey)
+      names.zip(values).foreach {
+        case (name, value) =>
+          key.append('\n').append(name)
+          value.foreach(v => key.append(':').append(v))
+      }
+      key.toString
+    }
+
+  private def cacheDirectives(headers: immutable.Seq[HttpHeader]): immutable.Seq[CacheDirective] =
+    headers.flatMap {
+      case `Cache-Control`(directives) => directives
+      case _                           => Nil
+    }
+
+  private def varyHeaderNames(response: HttpResponse): immutable.Seq[String] =
+    response.headers.flatMap { header =>
+      if (header.is("vary")) header.value.split(',').iterator.map(_.trim.toRootLowerCase).filter(_.nonEmpty).toList
+      else Nil
+    }
+
+  private def selectingHeaderValues(request: HttpRequest, names: immutable.Seq[String]): immutable.Seq[Option[String]] =
+    names.map { name =>
+      val values = request.headers.filter(_.is(name)).map(_.value)
+      if (values.isEmpty) None else Some(values.mkString(","))
+    }
+}
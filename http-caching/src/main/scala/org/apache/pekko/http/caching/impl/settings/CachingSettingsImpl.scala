@@ -15,13 +15,16 @@ package org.apache.pekko.http.caching.impl.settings
 
 import org.apache.pekko
 import pekko.annotation.InternalApi
-import pekko.http.caching.scaladsl.{ CachingSettings, LfuCacheSettings }
+import pekko.http.caching.scaladsl.{ CachingSettings, LfuCacheSettings, OffHeapCacheSettings }
 import pekko.http.impl.util.SettingsCompanionImpl
 import com.typesafe.config.Config
 
 /** INTERNAL API */
 @InternalApi
-private[http] final case class CachingSettingsImpl(lfuCacheSettings: LfuCacheSettings)
+private[http] final case class CachingSettingsImpl(
+    lfuCacheSettings: LfuCacheSettings,
+    offHeapCacheSettings: OffHeapCacheSettings,
+    recordStats: Boolean)
     extends CachingSettings {
   override def productPrefix = "CachingSettings"
 }
@@ -31,6 +34,8 @@ private[http] final case class CachingSettingsImpl(lfuCacheSettings: LfuCacheSet
 private[http] object CachingSettingsImpl extends SettingsCompanionImpl[CachingSettingsImpl]("pekko.http.caching") {
   def fromSubConfig(root: Config, c: Config): CachingSettingsImpl = {
     new CachingSettingsImpl(
-      LfuCachingSettingsImpl.fromSubConfig(root, c.getConfig("lfu-cache")))
+      LfuCachingSettingsImpl.fromSubConfig(root, c.getConfig("lfu-cache")),
+      OffHeapCacheSettingsImpl.fromSubConfig(root, c.getConfig("off-heap-cache")),
+      c.getBoolean("record-stats"))
   }
 }
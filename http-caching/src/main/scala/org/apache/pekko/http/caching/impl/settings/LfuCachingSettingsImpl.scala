@@ -20,7 +20,7 @@ import pekko.http.impl.util.SettingsCompanionImpl
 import pekko.http.impl.util._
 import com.typesafe.config.Config
 
-import scala.concurrent.duration.Duration
+import scala.concurrent.duration.{ Duration, FiniteDuration }
 
 /** INTERNAL API */
 @InternalApi
@@ -28,7 +28,10 @@ private[http] final case class LfuCachingSettingsImpl(
     maxCapacity: Int,
     initialCapacity: Int,
     timeToLive: Duration,
-    timeToIdle: Duration)
+    timeToIdle: Duration,
+    refreshAfterWrite: Duration,
+    staleWhileRevalidate: FiniteDuration,
+    staleIfError: FiniteDuration)
     extends LfuCacheSettings {
   override def productPrefix = "LfuCacheSettings"
 }
@@ -43,6 +46,9 @@ private[http] object LfuCachingSettingsImpl
       c.getInt("max-capacity"),
       c.getInt("initial-capacity"),
       c.getPotentiallyInfiniteDuration("time-to-live"),
-      c.getPotentiallyInfiniteDuration("time-to-idle"))
+      c.getPotentiallyInfiniteDuration("time-to-idle"),
+      c.getPotentiallyInfiniteDuration("refresh-after-write"),
+      c.getFiniteDuration("stale-while-revalidate"),
+      c.getFiniteDuration("stale-if-error"))
   }
 }
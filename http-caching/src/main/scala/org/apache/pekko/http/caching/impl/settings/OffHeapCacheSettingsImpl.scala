@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.impl.settings
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.caching.scaladsl.OffHeapCacheSettings
+import pekko.http.impl.util.SettingsCompanionImpl
+import pekko.http.impl.util._
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.Duration
+
+/** INTERNAL API */
+@InternalApi
+private[http] final case class OffHeapCacheSettingsImpl(
+    maxSize: Long,
+    initialCapacity: Int,
+    timeToLive: Duration,
+    timeToIdle: Duration)
+    extends OffHeapCacheSettings {
+  override def productPrefix = "OffHeapCacheSettings"
+}
+
+/** INTERNAL API */
+@InternalApi
+private[http] object OffHeapCacheSettingsImpl
+    extends SettingsCompanionImpl[OffHeapCacheSettingsImpl]("pekko.http.caching.off-heap-cache") {
+  def fromSubConfig(root: Config, c: Config): OffHeapCacheSettingsImpl = {
+    new OffHeapCacheSettingsImpl(
+      c.getBytes("max-size"),
+      c.getInt("initial-capacity"),
+      c.getPotentiallyInfiniteDuration("time-to-live"),
+      c.getPotentiallyInfiniteDuration("time-to-idle"))
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+
+package org.apache.pekko.http.caching.javadsl
+
+import java.util.function.Consumer
+
+import org.apache.pekko
+import pekko.actor.{ Cancellable, ClassicActorSystemProvider }
+import pekko.annotation.{ ApiMayChange, DoNotInherit }
+import pekko.http.caching.scaladsl
+import pekko.util.JavaDurationConverters._
+
+/**
+ * API MAY CHANGE
+ *
+ * A snapshot of the statistics of a [[Cache]]. All counts are zero unless recording statistics is enabled with the
+ * `pekko.http.caching.record-stats` setting.
+ *
+ * Public API but not intended for subclassing
+ */
+@ApiMayChange
+@DoNotInherit
+abstract class CacheStats private[http] () {
+
+  /** The number of lookups that found a cached value */
+  def getHitCount: Long
+
+  /** The number of lookups that found no cached value */
+  def getMissCount: Long
+
+  /** The number of values that were generated successfully */
+  def getLoadSuccessCount: Long
+
+  /** The number of values whose generation failed */
+  def getLoadFailureCount: Long
+
+  /** The time spent generating values in nanoseconds */
+  def getTotalLoadTime: Long
+
+  /** The number of entries that were evicted, not counting explicit removals and replacements */
+  def getEvictionCount: Long
+
+  /** The number of entries that were evicted because the cache was full */
+  def getSizeEvictionCount: Long
+
+  /** The number of entries that were evicted because they expired */
+  def getExpirationEvictionCount: Long
+
+  def getRequestCount: Long
+
+  /** The ratio of lookups that found a cached value, `1.0` if there were none */
+  def getHitRate: Double
+
+  /** The average time spent generating a value in nanoseconds */
+  def getAverageLoadPenalty: Double
+}
+
+@ApiMayChange
+object CacheStats {
+
+  /**
+   * Passes the statistics of the cache to the given consumer at the given interval, until the returned
+   * [[pekko.actor.Cancellable]] is cancelled or the actor system terminates.
+   */
+  def scheduleExport(cache: Cache[_, _], interval: java.time.Duration, exportStats: Consumer[CacheStats],
+      system: ClassicActorSystemProvider): Cancellable =
+    scaladsl.CacheStats.scheduleExport(cache.asInstanceOf[scaladsl.Cache[_, _]], interval.asScala)(
+      exportStats.accept)(system)
+}
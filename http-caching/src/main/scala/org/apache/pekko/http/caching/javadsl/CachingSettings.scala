@@ -26,6 +26,8 @@ import com.typesafe.config.Config
 @DoNotInherit
 abstract class CachingSettings private[http] () { self: CachingSettingsImpl =>
   def lfuCacheSettings: LfuCacheSettings
+  def offHeapCacheSettings: OffHeapCacheSettings
+  def getRecordStats: Boolean
 
   // overloads for idiomatic Scala use
   def withLfuCacheSettings(newSettings: LfuCacheSettings): CachingSettings = {
@@ -34,6 +36,13 @@ abstract class CachingSettings private[http] () { self: CachingSettingsImpl =>
 
     self.copy(lfuCacheSettings = newSettings.asScala)
   }
+  def withOffHeapCacheSettings(newSettings: OffHeapCacheSettings): CachingSettings = {
+    import pekko.http.impl.util.JavaMapping.Implicits._
+    import pekko.http.caching.CacheJavaMapping.Implicits._
+
+    self.copy(offHeapCacheSettings = newSettings.asScala)
+  }
+  def withRecordStats(newValue: Boolean): CachingSettings = self.copy(recordStats = newValue)
 }
 
 object CachingSettings extends SettingsCompanion[CachingSettings] {
@@ -19,7 +19,7 @@ import pekko.http.caching.impl.settings.LfuCachingSettingsImpl
 import pekko.http.javadsl.settings.SettingsCompanion
 import com.typesafe.config.Config
 
-import scala.concurrent.duration.Duration
+import scala.concurrent.duration.{ Duration, FiniteDuration }
 
 /**
  * Public API but not intended for subclassing
@@ -32,11 +32,20 @@ abstract class LfuCacheSettings private[http] () { self: LfuCachingSettingsImpl
   def getInitialCapacity: Int
   def getTimeToLive: Duration
   def getTimeToIdle: Duration
+  def getRefreshAfterWrite: Duration
+  def getStaleWhileRevalidate: FiniteDuration
+  def getStaleIfError: FiniteDuration
 
   def withMaxCapacity(newMaxCapacity: Int): LfuCacheSettings = self.copy(maxCapacity = newMaxCapacity)
   def withInitialCapacity(newInitialCapacity: Int): LfuCacheSettings = self.copy(initialCapacity = newInitialCapacity)
   def withTimeToLive(newTimeToLive: Duration): LfuCacheSettings = self.copy(timeToLive = newTimeToLive)
   def withTimeToIdle(newTimeToIdle: Duration): LfuCacheSettings = self.copy(timeToIdle = newTimeToIdle)
+  def withRefreshAfterWrite(newRefreshAfterWrite: Duration): LfuCacheSettings =
+    self.copy(refreshAfterWrite = newRefreshAfterWrite)
+  def withStaleWhileRevalidate(newStaleWhileRevalidate: FiniteDuration): LfuCacheSettings =
+    self.copy(staleWhileRevalidate = newStaleWhileRevalidate)
+  def withStaleIfError(newStaleIfError: FiniteDuration): LfuCacheSettings =
+    self.copy(staleIfError = newStaleIfError)
 }
 
 object LfuCacheSettings extends SettingsCompanion[LfuCacheSettings] {
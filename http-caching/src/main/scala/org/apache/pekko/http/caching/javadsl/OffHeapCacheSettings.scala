@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.javadsl
+
+import org.apache.pekko
+import pekko.annotation.DoNotInherit
+import pekko.http.caching.impl.settings.OffHeapCacheSettingsImpl
+import pekko.http.javadsl.settings.SettingsCompanion
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.Duration
+
+/**
+ * Public API but not intended for subclassing
+ */
+@DoNotInherit
+abstract class OffHeapCacheSettings private[http] () { self: OffHeapCacheSettingsImpl =>
+
+  /* JAVA APIs */
+  def getMaxSize: Long
+  def getInitialCapacity: Int
+  def getTimeToLive: Duration
+  def getTimeToIdle: Duration
+
+  def withMaxSize(newMaxSize: Long): OffHeapCacheSettings = self.copy(maxSize = newMaxSize)
+  def withInitialCapacity(newInitialCapacity: Int): OffHeapCacheSettings =
+    self.copy(initialCapacity = newInitialCapacity)
+  def withTimeToLive(newTimeToLive: Duration): OffHeapCacheSettings = self.copy(timeToLive = newTimeToLive)
+  def withTimeToIdle(newTimeToIdle: Duration): OffHeapCacheSettings = self.copy(timeToIdle = newTimeToIdle)
+}
+
+object OffHeapCacheSettings extends SettingsCompanion[OffHeapCacheSettings] {
+  def create(config: Config): OffHeapCacheSettings = OffHeapCacheSettingsImpl(config)
+  def create(configOverrides: String): OffHeapCacheSettings = OffHeapCacheSettingsImpl(configOverrides)
+}
@@ -119,4 +119,11 @@ abstract class Cache[K, V] extends pekko.http.caching.javadsl.Cache[K, V] {
    * (or by being thrown out by a capacity constraint).
    */
   def size(): Int
+
+  /**
+   * Returns the statistics recorded for this cache so far.
+   * All counts are zero unless recording statistics is enabled with the `record-stats` setting.
+   */
+  def stats: CacheStats = CacheStats.Empty
+  final override def getStats: CacheStats = stats
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.scaladsl
+
+import org.apache.pekko
+import pekko.actor.{ Cancellable, ClassicActorSystemProvider }
+import pekko.annotation.ApiMayChange
+import pekko.http.caching.javadsl
+
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * API MAY CHANGE
+ *
+ * A snapshot of the statistics of a [[Cache]]. All counts are zero unless recording statistics is enabled with the
+ * `pekko.http.caching.record-stats` setting.
+ *
+ * @param hitCount the number of lookups that found a cached value
+ * @param missCount the number of lookups that found no cached value
+ * @param loadSuccessCount the number of values that were generated successfully
+ * @param loadFailureCount the number of values whose generation failed
+ * @param totalLoadTime the time spent generating values in nanoseconds
+ * @param evictionCount the number of entries that were evicted, not counting explicit removals and replacements
+ * @param sizeEvictionCount the number of entries that were evicted because the cache was full
+ * @param expirationEvictionCount the number of entries that were evicted because they expired
+ */
+@ApiMayChange
+final class CacheStats private[http] (
+    val hitCount: Long,
+    val missCount: Long,
+    val loadSuccessCount: Long,
+    val loadFailureCount: Long,
+    val totalLoadTime: Long,
+    val evictionCount: Long,
+    val sizeEvictionCount: Long,
+    val expirationEvictionCount: Long) extends javadsl.CacheStats {
+
+  def requestCount: Long = hitCount + missCount
+
+  /** The ratio of lookups that found a cached value, `1.0` if there were none */
+  def hitRate: Double = if (requestCount == 0) 1.0 else hitCount.toDouble / requestCount
+
+  /** The average time spent generating a value in nanoseconds */
+  def averageLoadPenalty: Double = {
+    val loadCount = loadSuccessCount + loadFailureCount
+    if (loadCount == 0) 0.0 else totalLoadTime.toDouble / loadCount
+  }
+
+  final def getHitCount: Long = hitCount
+  final def getMissCount: Long = missCount
+  final def getLoadSuccessCount: Long = loadSuccessCount
+  final def getLoadFailureCount: Long = loadFailureCount
+  final def getTotalLoadTime: Long = totalLoadTime
+  final def getEvictionCount: Long = evictionCount
+  final def getSizeEvictionCount: Long = sizeEvictionCount
+  final def getExpirationEvictionCount: Long = expirationEvictionCount
+  final def getRequestCount: Long = requestCount
+  final def getHitRate: Double = hitRate
+  final def getAverageLoadPenalty: Double = averageLoadPenalty
+
+  override def toString: String =
+    s"CacheStats(hitCount = $hitCount, missCount = $missCount, loadSuccessCount = $loadSuccessCount, " +
+    s"loadFailureCount = $loadFailureCount, totalLoadTime = $totalLoadTime, evictionCount = $evictionCount, " +
+    s"sizeEvictionCount = $sizeEvictionCount, expirationEvictionCount = $expirationEvictionCount)"
+}
+
+@ApiMayChange
+object CacheStats {
+  val Empty: CacheStats = new CacheStats(0, 0, 0, 0, 0, 0, 0, 0)
+
+  /**
+   * Passes the statistics of the cache to the given function at the given interval, until the returned
+   * [[pekko.actor.Cancellable]] is cancelled or the actor system terminates.
+   */
+  def scheduleExport(cache: Cache[_, _], interval: FiniteDuration)(exportStats: CacheStats => Unit)(
+      implicit system: ClassicActorSystemProvider): Cancellable = {
+    val classicSystem = system.classicSystem
+    classicSystem.scheduler.scheduleWithFixedDelay(interval, interval)(new Runnable {
+      def run(): Unit = exportStats(cache.stats)
+    })(classicSystem.dispatcher)
+  }
+}
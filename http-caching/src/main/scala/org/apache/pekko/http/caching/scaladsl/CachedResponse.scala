@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.scaladsl
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.http.scaladsl.model.{ DateTime, HttpResponse }
+import pekko.http.scaladsl.model.headers.{ ETag, EntityTag, `Last-Modified` }
+
+import scala.collection.immutable
+
+/**
+ * API MAY CHANGE
+ *
+ * A response stored by the `cacheResponses` directive, together with what is needed to decide whether it may be used
+ * to answer a later request.
+ *
+ * @param response the response with a strict entity
+ * @param storedAt the time the response was stored at, in milliseconds since the epoch
+ * @param initialAge the age of the response when it was stored in seconds, as given by its `Age` header
+ * @param freshnessLifetime the time in seconds the response stays fresh, as given by its `Cache-Control` or
+ *                          `Expires` header
+ */
+@ApiMayChange
+final class CachedResponse private[http] (
+    val response: HttpResponse,
+    val storedAt: Long,
+    val initialAge: Long,
+    val freshnessLifetime: Long,
+    private[http] val varyHeaderNames: immutable.Seq[String],
+    private[http] val selectingHeaderValues: immutable.Seq[Option[String]]) {
+
+  /** The age of the response in seconds at the given time in milliseconds since the epoch */
+  def age(now: Long): Long = initialAge + math.max(0L, now - storedAt) / 1000
+
+  /** Whether the response is still fresh at the given time in milliseconds since the epoch */
+  def isFresh(now: Long): Boolean = age(now) < freshnessLifetime
+
+  def eTag: Option[EntityTag] = response.header[ETag].map(_.etag)
+  def lastModified: Option[DateTime] = response.header[`Last-Modified`].map(_.date)
+
+  private[http] def copyWith(response: HttpResponse): CachedResponse =
+    new CachedResponse(response, storedAt, initialAge, freshnessLifetime, varyHeaderNames, selectingHeaderValues)
+
+  override def toString: String =
+    s"CachedResponse(${response.status}, storedAt = $storedAt, initialAge = $initialAge, " +
+    s"freshnessLifetime = $freshnessLifetime)"
+}
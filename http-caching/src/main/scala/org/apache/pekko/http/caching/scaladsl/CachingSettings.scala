@@ -26,10 +26,17 @@ import com.typesafe.config.Config
 @DoNotInherit
 abstract class CachingSettings private[http] () extends javadsl.CachingSettings { self: CachingSettingsImpl =>
   def lfuCacheSettings: LfuCacheSettings
+  def offHeapCacheSettings: OffHeapCacheSettings
+  def recordStats: Boolean
+
+  final def getRecordStats: Boolean = recordStats
 
   // overloads for idiomatic Scala use
   def withLfuCacheSettings(newSettings: LfuCacheSettings): CachingSettings =
     self.copy(lfuCacheSettings = newSettings)
+  def withOffHeapCacheSettings(newSettings: OffHeapCacheSettings): CachingSettings =
+    self.copy(offHeapCacheSettings = newSettings)
+  override def withRecordStats(newValue: Boolean): CachingSettings = self.copy(recordStats = newValue)
 }
 
 object CachingSettings extends SettingsCompanion[CachingSettings] {
@@ -20,7 +20,7 @@ import pekko.http.caching.javadsl
 import pekko.http.scaladsl.settings.SettingsCompanion
 import com.typesafe.config.Config
 
-import scala.concurrent.duration.Duration
+import scala.concurrent.duration.{ Duration, FiniteDuration }
 
 /**
  * Public API but not intended for subclassing
@@ -31,17 +31,29 @@ abstract class LfuCacheSettings private[http] () extends javadsl.LfuCacheSetting
   def initialCapacity: Int
   def timeToLive: Duration
   def timeToIdle: Duration
+  def refreshAfterWrite: Duration
+  def staleWhileRevalidate: FiniteDuration
+  def staleIfError: FiniteDuration
 
   final def getMaxCapacity: Int = maxCapacity
   final def getInitialCapacity: Int = initialCapacity
   final def getTimeToLive: Duration = timeToLive
   final def getTimeToIdle: Duration = timeToIdle
+  final def getRefreshAfterWrite: Duration = refreshAfterWrite
+  final def getStaleWhileRevalidate: FiniteDuration = staleWhileRevalidate
+  final def getStaleIfError: FiniteDuration = staleIfError
 
   override def withMaxCapacity(newMaxCapacity: Int): LfuCacheSettings = self.copy(maxCapacity = newMaxCapacity)
   override def withInitialCapacity(newInitialCapacity: Int): LfuCacheSettings =
     self.copy(initialCapacity = newInitialCapacity)
   override def withTimeToLive(newTimeToLive: Duration): LfuCacheSettings = self.copy(timeToLive = newTimeToLive)
   override def withTimeToIdle(newTimeToIdle: Duration): LfuCacheSettings = self.copy(timeToIdle = newTimeToIdle)
+  override def withRefreshAfterWrite(newRefreshAfterWrite: Duration): LfuCacheSettings =
+    self.copy(refreshAfterWrite = newRefreshAfterWrite)
+  override def withStaleWhileRevalidate(newStaleWhileRevalidate: FiniteDuration): LfuCacheSettings =
+    self.copy(staleWhileRevalidate = newStaleWhileRevalidate)
+  override def withStaleIfError(newStaleIfError: FiniteDuration): LfuCacheSettings =
+    self.copy(staleIfError = newStaleIfError)
 }
 
 object LfuCacheSettings extends SettingsCompanion[LfuCacheSettings] {
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.scaladsl
+
+import org.apache.pekko
+import pekko.annotation.DoNotInherit
+import pekko.http.caching.impl.settings.OffHeapCacheSettingsImpl
+import pekko.http.caching.javadsl
+import pekko.http.scaladsl.settings.SettingsCompanion
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.Duration
+
+/**
+ * Public API but not intended for subclassing
+ */
+@DoNotInherit
+abstract class OffHeapCacheSettings private[http] () extends javadsl.OffHeapCacheSettings {
+  self: OffHeapCacheSettingsImpl =>
+  def maxSize: Long
+  def initialCapacity: Int
+  def timeToLive: Duration
+  def timeToIdle: Duration
+
+  final def getMaxSize: Long = maxSize
+  final def getInitialCapacity: Int = initialCapacity
+  final def getTimeToLive: Duration = timeToLive
+  final def getTimeToIdle: Duration = timeToIdle
+
+  override def withMaxSize(newMaxSize: Long): OffHeapCacheSettings = self.copy(maxSize = newMaxSize)
+  override def withInitialCapacity(newInitialCapacity: Int): OffHeapCacheSettings =
+    self.copy(initialCapacity = newInitialCapacity)
+  override def withTimeToLive(newTimeToLive: Duration): OffHeapCacheSettings = self.copy(timeToLive = newTimeToLive)
+  override def withTimeToIdle(newTimeToIdle: Duration): OffHeapCacheSettings = self.copy(timeToIdle = newTimeToIdle)
+}
+
+object OffHeapCacheSettings extends SettingsCompanion[OffHeapCacheSettings] {
+  def apply(config: Config): OffHeapCacheSettings = OffHeapCacheSettingsImpl(config)
+  def apply(configOverrides: String): OffHeapCacheSettings = OffHeapCacheSettingsImpl(configOverrides)
+}
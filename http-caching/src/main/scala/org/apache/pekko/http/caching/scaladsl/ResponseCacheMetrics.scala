@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching.scaladsl
+
+import java.util.concurrent.atomic.LongAdder
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+
+/**
+ * API MAY CHANGE
+ *
+ * Counts how requests passing the `cacheResponses` directive were answered. Can be shared between several directives
+ * and read from any thread at any time.
+ */
+@ApiMayChange
+final class ResponseCacheMetrics {
+  private val _hits = new LongAdder
+  private val _misses = new LongAdder
+  private val _stale = new LongAdder
+
+  /** The number of requests answered with a fresh stored response */
+  def hits: Long = _hits.sum()
+
+  /** The number of requests for which no matching stored response was found or which forbade using one */
+  def misses: Long = _misses.sum()
+
+  /** The number of requests for which a matching stored response was found that was no longer fresh */
+  def stale: Long = _stale.sum()
+
+  /** Java API */
+  def getHits: Long = hits
+  /** Java API */
+  def getMisses: Long = misses
+  /** Java API */
+  def getStale: Long = stale
+
+  private[http] def recordHit(): Unit = _hits.increment()
+  private[http] def recordMiss(): Unit = _misses.increment()
+  private[http] def recordStale(): Unit = _stale.increment()
+
+  override def toString: String = s"ResponseCacheMetrics(hits = $hits, misses = $misses, stale = $stale)"
+}
@@ -19,8 +19,10 @@ import org.apache.pekko
 import pekko.annotation.ApiMayChange
 import pekko.http.caching.javadsl.{ Cache, CachingSettings }
 import pekko.http.caching.{ CacheJavaMapping, LfuCache }
+import pekko.http.caching.scaladsl.{ CachedResponse, ResponseCacheMetrics }
 import pekko.http.impl.util.JavaMapping
 import pekko.http.javadsl.server.{ RequestContext, Route, RouteResult }
+import pekko.util.JavaDurationConverters._
 
 @ApiMayChange
 object CachingDirectives {
@@ -70,10 +72,48 @@ object CachingDirectives {
         toScalaKeyer(keyer)) { inner.get.delegate }
     }
 
+  /**
+   * Wraps its inner Route with a shared HTTP cache following the semantics of RFC 9111.
+   *
+   * Responses to `GET` requests are stored if their `Cache-Control` or `Expires` headers give them an explicit
+   * freshness lifetime and nothing forbids storing them. They are keyed by the request method, the effective request
+   * URI and the values of the request headers named by their `Vary` header, so that each variant of a resource is
+   * stored on its own. Requests are only answered with a stored response while it is fresh enough for them.
+   * Requests with a matching `If-None-Match` or `If-Modified-Since` header are answered with `304 Not Modified`.
+   *
+   * Entities of storable responses are made strict, unless they are larger than `maxEntitySize` or of unknown size,
+   * in which case the response is passed on without being stored.
+   *
+   * Concurrent requests missing the same entry share one run of the inner route.
+   */
+  def cacheResponses(
+      cache: Cache[String, CachedResponse],
+      metrics: ResponseCacheMetrics,
+      maxEntitySize: Long,
+      toStrictTimeout: java.time.Duration,
+      inner: Supplier[Route]) =
+    RouteAdapter {
+      D.cacheResponses(
+        JavaMapping.toScala(cache)(CacheJavaMapping.cacheMapping[String, CachedResponse, String, CachedResponse]),
+        metrics,
+        maxEntitySize,
+        toStrictTimeout.asScala) { inner.get.delegate }
+    }
+
+  /**
+   * Creates an [[LfuCache]] for [[cacheResponses]]
+   *
+   * Default settings are available via [[pekko.http.caching.javadsl.CachingSettings.create]].
+   */
+  def responseCache(settings: CachingSettings): Cache[String, CachedResponse] =
+    LfuCache.create[String, CachedResponse](settings)
+
   /**
    * Creates an [[LfuCache]]
    *
    * Default settings are available via [[pekko.http.caching.javadsl.CachingSettings.create]].
+   * With a finite `refresh-after-write` or a non-zero `stale-while-revalidate` and/or `stale-if-error` in the
+   * settings, [[cache]] and [[alwaysCache]] keep answering with the cached route result while it is regenerated.
    */
   def routeCache[K](settings: CachingSettings): Cache[K, RouteResult] =
     LfuCache.create[K, RouteResult](settings)
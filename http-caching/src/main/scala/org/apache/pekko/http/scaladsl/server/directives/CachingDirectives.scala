@@ -16,18 +16,25 @@ package org.apache.pekko.http.scaladsl.server.directives
 import org.apache.pekko
 import pekko.actor.ActorSystem
 import pekko.annotation.ApiMayChange
-import pekko.http.caching.scaladsl.{ Cache, CachingSettings }
+import pekko.http.caching.scaladsl.{ Cache, CachedResponse, CachingSettings, ResponseCacheMetrics }
 import pekko.http.caching.LfuCache
+import pekko.http.caching.impl.ResponseCaching
 import pekko.http.scaladsl.server.Directive0
 import pekko.http.scaladsl.server._
+import pekko.http.scaladsl.model.{ HttpEntity, HttpMethods, HttpResponse }
 import pekko.http.scaladsl.model.headers._
 import pekko.http.scaladsl.model.headers.CacheDirectives._
+import pekko.http.scaladsl.util.FastFuture
+import pekko.http.scaladsl.util.FastFuture._
 
 import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+import scala.util.{ Failure, Success }
 
 @ApiMayChange
 trait CachingDirectives {
   import pekko.http.scaladsl.server.directives.BasicDirectives._
+  import pekko.http.scaladsl.server.directives.CacheConditionDirectives._
   import pekko.http.scaladsl.server.directives.RouteDirectives._
 
   /**
@@ -67,6 +74,169 @@ trait CachingDirectives {
       }
     }
 
+  /**
+   * Wraps its inner Route with a shared HTTP cache following the semantics of RFC 9111.
+   *
+   * Responses to `GET` requests are stored if their `Cache-Control` or `Expires` headers give them an explicit
+   * freshness lifetime and nothing forbids storing them. They are keyed by the request method, the effective request
+   * URI and the values of the request headers named by their `Vary` header, so that each variant of a resource is
+   * stored on its own. Requests are only answered with a stored response while it is fresh enough for them.
+   * Requests with a matching `If-None-Match` or `If-Modified-Since` header are answered with `304 Not Modified`.
+   *
+   * Entities of storable responses are made strict, unless they are larger than `maxEntitySize` or of unknown size,
+   * in which case the response is passed on without being stored.
+   *
+   * Concurrent requests missing the same entry share one run of the inner route. Stale responses are not
+   * revalidated with the inner route but replaced by its new response.
+   */
+  def cacheResponses(
+      cache: Cache[String, CachedResponse],
+      metrics: ResponseCacheMetrics,
+      maxEntitySize: Long,
+      toStrictTimeout: FiniteDuration): Directive0 =
+    Directive { inner => ctx =>
+      import ctx.{ executionContext, materializer }
+      val request = ctx.request
+      val baseKey = ResponseCaching.baseKey(request)
+
+      // the response to pass on, together with the entry to store if the response is storable
+      def prepare(response: HttpResponse): Future[(HttpResponse, Option[CachedResponse])] = {
+        val now = System.currentTimeMillis()
+        def toCached(strictResponse: HttpResponse) =
+          (strictResponse, Some(ResponseCaching.toCachedResponse(request, strictResponse, now)))
+
+        if (!ResponseCaching.isStorable(request, response, now)) FastFuture.successful((response, None))
+        else response.entity match {
+          case entity if !entity.contentLengthOption.exists(_ <= maxEntitySize) =>
+            FastFuture.successful((response, None))
+          case _: HttpEntity.Strict => FastFuture.successful(toCached(response))
+          case _                    => response.toStrict(toStrictTimeout).fast.map(toCached)
+        }
+      }
+
+      def run(): Future[(RouteResult, Option[CachedResponse])] =
+        inner(())(ctx).fast.flatMap {
+          case RouteResult.Complete(response) =>
+            prepare(response).fast.map { case (response, cached) => (RouteResult.Complete(response), cached) }
+          case rejected => FastFuture.successful((rejected, None))
+        }
+
+      // stores the response under the key of its variant and marks the base key as varying if the response does,
+      // must not be called while the cache is loading `loadedKey`
+      def store(loadedKey: String, cached: CachedResponse): Unit = {
+        val key = ResponseCaching.variantKey(baseKey, cached)
+        if (key != loadedKey) cache.put(key, FastFuture.successful(cached))
+        if (cached.varyHeaderNames.nonEmpty)
+          cache.put(baseKey, FastFuture.successful(ResponseCaching.varyMarker(cached)))
+      }
+
+      // runs the inner route without sharing its response with concurrent requests
+      def fetch(): Future[RouteResult] =
+        run().fast.map {
+          case (result, cached) =>
+            cached.foreach(store(null, _))
+            result
+        }
+
+      // runs the inner route through the cache, so that concurrent requests missing the same key wait for its response
+      def load(key: String): Future[RouteResult] = {
+        var result: Future[RouteResult] = null
+        val loaded = cache(key,
+          () => {
+            // Do directive processing asynchronously to avoid locking the cache accidentally (#4092)
+            val ran = Future(run()).flatten
+            result = ran.fast.map(_._1)
+            ran.fast.flatMap {
+              case (_, Some(cached)) => FastFuture.successful(cached)
+              case _                 => FastFuture.failed(ResponseCaching.NotStorable)
+            }
+          })
+        if (result ne null)
+          // runs on the execution context, so never while the cache is still loading `key`
+          loaded.transformWith { loadedValue =>
+            loadedValue.foreach(store(key, _))
+            result
+          }
+        else
+          loaded.transformWith {
+            case Success(stored) =>
+              val now = System.currentTimeMillis()
+              if (ResponseCaching.selects(stored, request) && ResponseCaching.canAnswer(stored, request, now))
+                answer(stored, now)
+              else fetch()
+            case Failure(_) => fetch()
+          }
+      }
+
+      def answer(stored: CachedResponse, now: Long): Future[RouteResult] = {
+        // replaces the `Age` of the origin, which is part of the age of the stored response already
+        val response =
+          stored.response.withHeaders(Age(stored.age(now)) +: stored.response.headers.filterNot(_.is("age")))
+        if (stored.eTag.isEmpty && stored.lastModified.isEmpty) FastFuture.successful(RouteResult.Complete(response))
+        else conditional(stored.eTag, stored.lastModified) { complete(response) }(ctx)
+      }
+
+      def miss(key: String): Future[RouteResult] = {
+        metrics.recordMiss()
+        load(key)
+      }
+
+      def lookup(key: String, stored: CachedResponse): Future[RouteResult] = {
+        val now = System.currentTimeMillis()
+        if (!ResponseCaching.selects(stored, request)) {
+          metrics.recordMiss()
+          fetch()
+        } else if (ResponseCaching.canAnswer(stored, request, now)) {
+          metrics.recordHit()
+          answer(stored, now)
+        } else {
+          metrics.recordStale()
+          // a fresh response that is too old for the `max-age` or `min-fresh` of the request stays stored
+          if (stored.isFresh(now)) fetch()
+          else {
+            cache.remove(key)
+            load(key)
+          }
+        }
+      }
+
+      if (request.method != HttpMethods.GET || ResponseCaching.forbidsStoring(request)) inner(())(ctx)
+      else if (ResponseCaching.forbidsStoredResponse(request)) {
+        metrics.recordMiss()
+        fetch()
+      } else
+        cache.get(baseKey) match {
+          case Some(primary) =>
+            primary.transformWith {
+              case Success(stored) if stored.varyHeaderNames.nonEmpty =>
+                val key = ResponseCaching.variantKey(baseKey, stored.varyHeaderNames, request)
+                cache.get(key) match {
+                  case Some(variant) =>
+                    variant.transformWith {
+                      case Success(selected) => lookup(key, selected)
+                      case Failure(_)        => miss(key)
+                    }
+                  case None => miss(key)
+                }
+              case Success(stored) => lookup(baseKey, stored)
+              case Failure(_)      => miss(baseKey)
+            }
+          case None => miss(baseKey)
+        }
+    }
+
+  /**
+   * Creates an [[LfuCache]] for [[cacheResponses]] with default settings obtained from the system's configuration.
+   */
+  def responseCache(implicit s: ActorSystem): Cache[String, CachedResponse] =
+    LfuCache[String, CachedResponse](s)
+
+  /**
+   * Creates an [[LfuCache]] for [[cacheResponses]].
+   */
+  def responseCache(settings: CachingSettings): Cache[String, CachedResponse] =
+    LfuCache[String, CachedResponse](settings)
+
   /**
    * Creates an [[LfuCache]] with default settings obtained from the system's configuration.
    */
@@ -75,6 +245,9 @@ trait CachingDirectives {
 
   /**
    * Creates an [[LfuCache]].
+   *
+   * With a finite `refresh-after-write` or a non-zero `stale-while-revalidate` and/or `stale-if-error` in the
+   * settings, [[cache]] and [[alwaysCache]] keep answering with the cached route result while it is regenerated.
    */
   def routeCache[K](settings: CachingSettings): Cache[K, RouteResult] =
     LfuCache[K, RouteResult](settings)
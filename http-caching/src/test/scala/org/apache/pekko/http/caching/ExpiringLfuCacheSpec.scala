@@ -15,19 +15,22 @@ package org.apache.pekko.http.caching
 
 import java.util.Random
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
 
 import org.apache.pekko
 import pekko.actor.ActorSystem
 import pekko.http.caching.scaladsl.CachingSettings
 import pekko.testkit.TestKit
+import com.github.benmanes.caffeine.cache.Caffeine
 import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
 
 import scala.concurrent.duration._
 import scala.concurrent.{ Await, Future, Promise }
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
-class ExpiringLfuCacheSpec extends AnyWordSpec with Matchers with BeforeAndAfterAll {
+class ExpiringLfuCacheSpec extends AnyWordSpec with Matchers with BeforeAndAfterAll with Eventually {
   implicit val system: ActorSystem = ActorSystem()
   import system.dispatcher
 
@@ -166,11 +169,151 @@ class ExpiringLfuCacheSpec extends AnyWordSpec with Matchers with BeforeAndAfter
         ints.filter(_ != 0).reduceLeft((a, b) => if (a == b) a else 0) should not be 0
       }
     }
+    "record statistics if enabled" in {
+      val cache = LfuCache[Int, String](CachingSettings(system).withRecordStats(true))
+      Await.result(cache.get(1, () => "A"), 3.seconds) should be("A")
+      Await.result(cache.get(1, () => "B"), 3.seconds) should be("A")
+      cache.get(2) should be(None)
+      an[RuntimeException] should be thrownBy
+        Await.result(cache(3, () => Future.failed(new RuntimeException("boom"))), 3.seconds)
+
+      val stats = cache.stats
+      stats.hitCount should be(1)
+      stats.missCount should be(3)
+      stats.loadSuccessCount should be(1)
+      eventually(cache.stats.loadFailureCount should be(1))
+      stats.hitRate should be(0.25)
+    }
+    "record no statistics by default" in {
+      val cache = lfuCache[String]()
+      Await.result(cache.get(1, () => "A"), 3.seconds) should be("A")
+      Await.result(cache.get(1, () => "A"), 3.seconds) should be("A")
+      cache.stats.requestCount should be(0)
+    }
+    "count evictions by cause" in {
+      val cache = LfuCache[Int, String](
+        CachingSettings(system).withRecordStats(true).withLfuCacheSettings(
+          CachingSettings(system).lfuCacheSettings.withMaxCapacity(1)))
+      (1 to 10).foreach(key => Await.result(cache.get(key, () => key.toString), 3.seconds))
+      cache.asInstanceOf[LfuCache[Int, String]].store.synchronous().cleanUp()
+      eventually {
+        cache.stats.evictionCount should be >= 9L
+        cache.stats.sizeEvictionCount should be(cache.stats.evictionCount)
+        cache.stats.expirationEvictionCount should be(0)
+      }
+    }
     "be created with the same ttl and tti" in {
       lfuCache[Int](timeToLive = 5.seconds, timeToIdle = 5.seconds) shouldBe a[LfuCache[_, _]]
     }
   }
 
+  "A refreshing LfuCache" should {
+    "regenerate values in the background after refreshAfterWrite" in {
+      val cache = refreshingLfuCache[String](refreshAfterWrite = 100.millis)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+      Await.result(cache(1, () => Future.successful("B")), 3.seconds) should be("A")
+      eventually(Await.result(cache.get(1).get, 3.seconds) should be("B"))
+      cache.size should be(1)
+    }
+    "return stale values while regenerating them only once" in {
+      val cache = refreshingLfuCache[String](timeToLive = 100.millis, staleWhileRevalidate = 5.seconds)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+
+      val generated = new AtomicInteger
+      val regenerated = Promise[String]()
+      def regenerate(): Future[String] = {
+        generated.incrementAndGet()
+        regenerated.future
+      }
+      Await.result(cache(1, () => regenerate()), 3.seconds) should be("A")
+      Await.result(cache(1, () => regenerate()), 3.seconds) should be("A")
+      generated.get should be(1)
+
+      regenerated.success("B")
+      eventually(Await.result(cache(1, () => regenerate()), 3.seconds) should be("B"))
+      generated.get should be(1)
+    }
+    "return stale values if regenerating them fails" in {
+      val cache = refreshingLfuCache[String](timeToLive = 100.millis, staleIfError = 5.seconds)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+
+      Await.result(cache(1, () => Future.failed(new RuntimeException("boom"))), 3.seconds) should be("A")
+      Await.result(cache(1, () => Future.successful("B")), 3.seconds) should be("B")
+    }
+    "count regenerations as loads if statistics are recorded" in {
+      val cache = LfuCache[Int, String] {
+        val settings = CachingSettings(system).withRecordStats(true)
+        settings.withLfuCacheSettings(settings.lfuCacheSettings.withRefreshAfterWrite(100.millis))
+      }
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+      Await.result(cache(1, () => Future.failed(new RuntimeException("boom"))), 3.seconds) should be("A")
+      Await.result(cache(1, () => Future.successful("B")), 3.seconds) should be("A")
+
+      eventually {
+        cache.stats.loadSuccessCount should be(2)
+        cache.stats.loadFailureCount should be(1)
+      }
+      val javaStats: javadsl.CacheStats = cache.getStats
+      javaStats.getLoadSuccessCount should be(cache.stats.loadSuccessCount)
+    }
+    "apply staleWhileRevalidate and staleIfError independently of each other" in {
+      def failing() = Future.failed[String](new RuntimeException("boom"))
+
+      val errorLonger = refreshingLfuCache[String](
+        timeToLive = 100.millis, staleWhileRevalidate = 100.millis, staleIfError = 5.seconds)
+      Await.result(errorLonger(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(250)
+      // past staleWhileRevalidate the access waits for the regeneration and gets the stale value if it fails
+      Await.result(errorLonger(1, () => failing()), 3.seconds) should be("A")
+      Await.result(errorLonger(1, () => Future.successful("B")), 3.seconds) should be("B")
+
+      val revalidateLonger = refreshingLfuCache[String](
+        timeToLive = 100.millis, staleWhileRevalidate = 5.seconds, staleIfError = 100.millis)
+      Await.result(revalidateLonger(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(250)
+      // past staleIfError the stale value is still returned while it is regenerated
+      Await.result(revalidateLonger(1, () => failing()), 3.seconds) should be("A")
+      Await.result(revalidateLonger(1, () => Future.successful("B")), 3.seconds) should be("A")
+      eventually(Await.result(revalidateLonger.get(1).get, 3.seconds) should be("B"))
+    }
+    "store regenerated values of entries removed while regenerating them" in {
+      val cache = refreshingLfuCache[String](timeToLive = 100.millis, staleWhileRevalidate = 5.seconds)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+
+      val regenerated = Promise[String]()
+      Await.result(cache(1, () => regenerated.future), 3.seconds) should be("A")
+      cache.remove(1)
+      regenerated.success("B")
+      eventually(Await.result(cache.get(1).get, 3.seconds) should be("B"))
+    }
+    "not return values after staleIfError" in {
+      val cache = refreshingLfuCache[String](timeToLive = 100.millis, staleIfError = 100.millis)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(250)
+
+      Await.result(cache(1, () => Future.successful("B")), 3.seconds) should be("B")
+    }
+    "regenerate values read after staleIfError that the store did not expire yet" in {
+      // a store that never expires entries, like one whose own write time is later than the one of the entry
+      val store = Caffeine.newBuilder().asInstanceOf[Caffeine[Int, RefreshingLfuCache.Entry[String]]]
+        .buildAsync[Int, RefreshingLfuCache.Entry[String]]()
+      val threshold = 100.millis.toNanos
+      val cache = new RefreshingLfuCache[Int, String](store, new CacheStatsRecorder,
+        refreshAfter = threshold, staleUntil = threshold, staleIfErrorUntil = threshold)
+      Await.result(cache(1, () => Future.successful("A")), 3.seconds) should be("A")
+      Thread.sleep(150)
+
+      Await.result(cache(1, () => Future.successful("B")), 3.seconds) should be("B")
+      Await.result(cache.get(1).get, 3.seconds) should be("B")
+      cache.size should be(1)
+    }
+  }
+
   override def afterAll(): Unit = {
     TestKit.shutdownActorSystem(system)
   }
@@ -188,4 +331,18 @@ class ExpiringLfuCacheSpec extends AnyWordSpec with Matchers with BeforeAndAfter
     }.asInstanceOf[LfuCache[Int, T]]
   }
 
+  def refreshingLfuCache[T](timeToLive: Duration = Duration.Inf, refreshAfterWrite: Duration = Duration.Inf,
+      staleWhileRevalidate: FiniteDuration = Duration.Zero, staleIfError: FiniteDuration = Duration.Zero)
+      : RefreshingLfuCache[Int, T] = {
+    LfuCache[Int, T] {
+      val settings = CachingSettings(system)
+      settings.withLfuCacheSettings(
+        settings.lfuCacheSettings
+          .withTimeToLive(timeToLive)
+          .withRefreshAfterWrite(refreshAfterWrite)
+          .withStaleWhileRevalidate(staleWhileRevalidate)
+          .withStaleIfError(staleIfError))
+    }.asInstanceOf[RefreshingLfuCache[Int, T]]
+  }
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.caching
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.http.caching.impl.ResponseCaching
+import pekko.http.caching.scaladsl.{ CachedResponse, CachingSettings }
+import pekko.http.scaladsl.model._
+import pekko.http.scaladsl.model.headers.{ `Cache-Control`, CacheDirectives }
+import pekko.stream.scaladsl.Source
+import pekko.testkit.TestKit
+import pekko.util.ByteString
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.duration._
+import scala.concurrent.{ Await, Future }
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class OffHeapResponseCacheSpec extends AnyWordSpec with Matchers with BeforeAndAfterAll with Eventually {
+  implicit val system: ActorSystem = ActorSystem()
+  import system.dispatcher
+
+  "An OffHeapResponseCache" should {
+    "store the entity bytes of responses and restore them on access" in {
+      val cache = offHeapCache(maxSize = 1024)
+      val response = cachedResponse("abc")
+      Await.result(cache(1, () => Future.successful(response)), 3.seconds).response should be(response.response)
+
+      val stored = Await.result(cache.get(1).get, 3.seconds)
+      stored.response should be(response.response)
+      stored.freshnessLifetime should be(60)
+      // the entity and the headers staying on the heap
+      cache.weightedSize should be(3 + 64 + "Cache-Control".length + "max-age=60".length)
+    }
+    "store values that are put" in {
+      val cache = offHeapCache(maxSize = 1024)
+      Await.result(cache.put(1, Future.successful(cachedResponse("abc"))), 3.seconds)
+      Await.result(cache.get(1).get, 3.seconds).response.entity should be(
+        HttpEntity(ContentTypes.`text/plain(UTF-8)`, ByteString("abc")))
+      cache.keys should be(Set(1))
+    }
+    "evict entries by the size of their entities" in {
+      val cache = offHeapCache(maxSize = 400)
+      (1 to 10).foreach { key =>
+        Await.result(cache.put(key, Future.successful(cachedResponse("x" * 30))), 3.seconds)
+      }
+      cache.store.synchronous().cleanUp()
+      cache.weightedSize should be <= 400L
+      cache.size should be <= 3
+    }
+    "evict entries with empty entities by the size of their headers" in {
+      val cache = offHeapCache(maxSize = 1000)
+      (1 to 100).foreach { key =>
+        Await.result(cache.put(key, Future.successful(cachedResponse(""))), 3.seconds)
+      }
+      cache.store.synchronous().cleanUp()
+      cache.weightedSize should be <= 1000L
+      cache.size should be < 100
+    }
+    "free the entity bytes of removed and replaced entries" in {
+      val cache = offHeapCache(maxSize = 1024)
+      Await.result(cache.put(1, Future.successful(cachedResponse("abc"))), 3.seconds)
+      val replaced = cache.store.synchronous().getIfPresent(1)
+      Await.result(cache.put(1, Future.successful(cachedResponse("def"))), 3.seconds)
+      val removed = cache.store.synchronous().getIfPresent(1)
+      cache.remove(1)
+
+      eventually {
+        replaced.isReleased should be(true)
+        removed.isReleased should be(true)
+      }
+    }
+    "not free the entity bytes of an entry while they are copied" in {
+      val cache = offHeapCache(maxSize = 1024)
+      Await.result(cache.put(1, Future.successful(cachedResponse("abc"))), 3.seconds)
+      val entry = cache.store.synchronous().getIfPresent(1)
+      entry.retain() should be(true)
+      cache.remove(1)
+      cache.get(1) should be(None)
+
+      // the reference of an access is still held
+      Thread.sleep(100)
+      entry.isReleased should be(false)
+      entry.release()
+      entry.isReleased should be(true)
+      entry.retain() should be(false)
+    }
+    "not store responses with streamed entities" in {
+      val cache = offHeapCache(maxSize = 1024)
+      val streamed = cachedResponse("abc").copyWith(HttpResponse(entity = HttpEntity(
+        ContentTypes.`text/plain(UTF-8)`, Source.single(ByteString("abc")))))
+      an[IllegalArgumentException] should be thrownBy Await.result(
+        cache(1, () => Future.successful(streamed)), 3.seconds)
+      cache.get(1) should be(None)
+    }
+  }
+
+  override def afterAll(): Unit = {
+    TestKit.shutdownActorSystem(system)
+  }
+
+  def cachedResponse(body: String): CachedResponse = {
+    val response = HttpResponse(
+      headers = List(`Cache-Control`(CacheDirectives.`max-age`(60))),
+      entity = HttpEntity(ContentTypes.`text/plain(UTF-8)`, body))
+    ResponseCaching.toCachedResponse(HttpRequest(), response, System.currentTimeMillis())
+  }
+
+  def offHeapCache(maxSize: Long): OffHeapResponseCache[Int] = {
+    OffHeapResponseCache[Int] {
+      val settings = CachingSettings(system)
+      settings.withOffHeapCacheSettings(settings.offHeapCacheSettings.withMaxSize(maxSize))
+    }.asInstanceOf[OffHeapResponseCache[Int]]
+  }
+}
@@ -14,12 +14,12 @@
 package org.apache.pekko.http.scaladsl.server.directives
 
 import org.apache.pekko
-import pekko.http.caching.scaladsl.{ CachingSettings, LfuCacheSettings }
+import pekko.http.caching.scaladsl.{ CachingSettings, LfuCacheSettings, ResponseCacheMetrics }
 import pekko.http.impl.util._
 import pekko.http.scaladsl.model.HttpMethods.GET
 import pekko.http.scaladsl.model.headers.CacheDirectives._
 import pekko.http.scaladsl.model.headers._
-import pekko.http.scaladsl.model.{ HttpResponse, Uri }
+import pekko.http.scaladsl.model.{ HttpHeader, HttpResponse, StatusCodes, Uri }
 import pekko.http.scaladsl.server.Directives._
 import pekko.http.scaladsl.server.{ ExceptionHandler, RequestContext, RouteResult }
 import pekko.http.scaladsl.testkit.ScalatestRouteTest
@@ -27,7 +27,9 @@ import pekko.testkit._
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
-import scala.concurrent.Future
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.{ Future, Promise }
 import scala.concurrent.duration._
 
 class CachingDirectivesSpec extends AnyWordSpec with Matchers with ScalatestRouteTest with CachingDirectives {
@@ -120,6 +122,149 @@ class CachingDirectivesSpec extends AnyWordSpec with Matchers with ScalatestRout
     }
   }
 
+  "the cacheResponses directive" should {
+    def countingRoute(responseHeaders: HttpHeader*) = {
+      val metrics = new ResponseCacheMetrics
+      var i = 0
+      val route = cacheResponses(responseCache, metrics, 1024, 3.seconds) {
+        respondWithHeaders(responseHeaders.toList) {
+          complete {
+            i += 1
+            i.toString
+          }
+        }
+      }
+      (route, metrics)
+    }
+
+    "store and answer with responses that are explicitly fresh" in {
+      val (route, metrics) = countingRoute(`Cache-Control`(`max-age`(60)))
+      Get("/a") ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get("/a") ~> route ~> check {
+        responseAs[String] shouldEqual "1"
+        header[Age] shouldBe defined
+      }
+      Get("/b") ~> route ~> check { responseAs[String] shouldEqual "2" }
+      metrics.hits shouldEqual 1
+      metrics.misses shouldEqual 2
+    }
+    "replace the `Age` of the origin response with the age of the stored response" in {
+      val (route, _) = countingRoute(`Cache-Control`(`max-age`(60)), Age(30))
+      Get("/aged") ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get("/aged") ~> route ~> check {
+        responseAs[String] shouldEqual "1"
+        val ages = headers.collect { case age: Age => age.deltaSeconds }
+        ages should have size 1
+        ages.head should be >= 30L
+      }
+    }
+    "not store responses without freshness information or forbidding it" in {
+      val (route, _) = countingRoute()
+      Get() ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> route ~> check { responseAs[String] shouldEqual "2" }
+
+      val (privateRoute, _) = countingRoute(`Cache-Control`(`max-age`(60), `private`()))
+      Get() ~> privateRoute ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> privateRoute ~> check { responseAs[String] shouldEqual "2" }
+    }
+    "not answer requests with `Cache-Control: no-cache` from the cache" in {
+      val (route, _) = countingRoute(`Cache-Control`(`max-age`(60)))
+      Get() ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`Cache-Control`(`no-cache`)) ~> route ~> check { responseAs[String] shouldEqual "2" }
+      Get() ~> route ~> check { responseAs[String] shouldEqual "2" }
+    }
+    "only answer requests whose headers named by `Vary` match" in {
+      val (route, _) = countingRoute(`Cache-Control`(`max-age`(60)), RawHeader("Vary", "Accept-Language"))
+      Get() ~> addHeader(RawHeader("Accept-Language", "en")) ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(RawHeader("Accept-Language", "en")) ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(RawHeader("Accept-Language", "de")) ~> route ~> check { responseAs[String] shouldEqual "2" }
+    }
+    "store the variants selected by the headers named by `Vary` side by side" in {
+      val (route, metrics) = countingRoute(`Cache-Control`(`max-age`(60)), RawHeader("Vary", "Accept-Encoding"))
+      val gzip = addHeader(RawHeader("Accept-Encoding", "gzip"))
+      val identity = addHeader(RawHeader("Accept-Encoding", "identity"))
+      Get() ~> gzip ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> identity ~> route ~> check { responseAs[String] shouldEqual "2" }
+      Get() ~> gzip ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> identity ~> route ~> check { responseAs[String] shouldEqual "2" }
+      Get() ~> gzip ~> route ~> check { responseAs[String] shouldEqual "1" }
+      metrics.hits shouldEqual 3
+    }
+    "not store strict entities larger than `maxEntitySize`" in {
+      var i = 0
+      val route = cacheResponses(responseCache, new ResponseCacheMetrics, 4, 3.seconds) {
+        respondWithHeader(`Cache-Control`(`max-age`(60))) {
+          path(Segment) { body =>
+            complete {
+              i += 1
+              s"$body$i"
+            }
+          }
+        }
+      }
+      Get("/a") ~> route ~> check { responseAs[String] shouldEqual "a1" }
+      Get("/a") ~> route ~> check { responseAs[String] shouldEqual "a1" }
+      Get("/bigger") ~> route ~> check { responseAs[String] shouldEqual "bigger2" }
+      Get("/bigger") ~> route ~> check { responseAs[String] shouldEqual "bigger3" }
+    }
+    "run the inner route once for concurrent requests missing the same response" in {
+      val metrics = new ResponseCacheMetrics
+      val runs = new AtomicInteger
+      val body = Promise[String]()
+      val route = cacheResponses(responseCache, metrics, 1024, 3.seconds) {
+        respondWithHeader(`Cache-Control`(`max-age`(60))) {
+          complete {
+            runs.incrementAndGet()
+            body.future
+          }
+        }
+      }
+      val routeFunc = RouteResult.routeToFunction(route)
+      val results = (1 to 10).map(_ => routeFunc(Get("/slow")))
+      body.success("slow")
+
+      implicit val executor = system.dispatcher
+      Future.sequence(results).awaitResult(3.seconds.dilated).foreach {
+        case RouteResult.Complete(response) => response.status shouldEqual StatusCodes.OK
+        case rejected                       => fail(s"Unexpected $rejected")
+      }
+      runs.get shouldEqual 1
+      metrics.hits + metrics.misses shouldEqual 10
+    }
+    "not answer requests with a `max-age` lower than the age of the stored response" in {
+      val (route, metrics) = countingRoute(`Cache-Control`(`max-age`(60)), Age(30))
+      Get() ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`Cache-Control`(`max-age`(40))) ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`Cache-Control`(`max-age`(20))) ~> route ~> check { responseAs[String] shouldEqual "2" }
+      metrics.stale shouldEqual 1
+    }
+    "not answer requests with a `min-fresh` beyond the remaining freshness of the stored response" in {
+      val (route, metrics) = countingRoute(`Cache-Control`(`max-age`(60)), Age(30))
+      Get() ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`Cache-Control`(`min-fresh`(20))) ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`Cache-Control`(`min-fresh`(40))) ~> route ~> check { responseAs[String] shouldEqual "2" }
+      metrics.stale shouldEqual 1
+    }
+    "only store responses to requests with `Authorization` that are explicitly public" in {
+      val credentials = addHeader(Authorization(BasicHttpCredentials("user", "pass")))
+
+      val (route, _) = countingRoute(`Cache-Control`(`max-age`(60)))
+      Get() ~> credentials ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> credentials ~> route ~> check { responseAs[String] shouldEqual "2" }
+
+      val (publicRoute, _) = countingRoute(`Cache-Control`(`max-age`(60), `public`))
+      Get() ~> credentials ~> publicRoute ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> credentials ~> publicRoute ~> check { responseAs[String] shouldEqual "1" }
+    }
+    "answer conditional requests matching the stored ETag with 304" in {
+      val (route, _) = countingRoute(`Cache-Control`(`max-age`(60)), ETag("abc"))
+      Get() ~> route ~> check { responseAs[String] shouldEqual "1" }
+      Get() ~> addHeader(`If-None-Match`(EntityTag("abc"))) ~> route ~> check {
+        status shouldEqual StatusCodes.NotModified
+      }
+    }
+  }
+
   override def testConfigSource: String =
     """pekko.actor.default-dispatcher.fork-join-executor {
       |  parallelism-min = 1000
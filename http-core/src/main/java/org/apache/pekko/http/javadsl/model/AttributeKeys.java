@@ -14,6 +14,7 @@
 package org.apache.pekko.http.javadsl.model;
 
 import org.apache.pekko.http.javadsl.model.ws.WebSocketUpgrade;
+import org.apache.pekko.http.scaladsl.model.RequestTimings;
 
 public final class AttributeKeys {
     public static final AttributeKey<RemoteAddress> remoteAddress =
@@ -24,4 +25,6 @@ public final class AttributeKeys {
             (AttributeKey<SslSessionInfo>)(Object)org.apache.pekko.http.scaladsl.model.AttributeKeys.sslSession();
     public static final AttributeKey<Trailer> trailer =
             (AttributeKey<Trailer>)(Object)org.apache.pekko.http.scaladsl.model.AttributeKeys.trailer();
+    public static final AttributeKey<RequestTimings> requestTimings =
+            (AttributeKey<RequestTimings>)(Object)org.apache.pekko.http.scaladsl.model.AttributeKeys.requestTimings();
 }
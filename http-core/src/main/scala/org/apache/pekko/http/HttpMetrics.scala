@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http
+
+import org.apache.pekko
+import pekko.actor.{ ActorSystem, ExtendedActorSystem }
+import pekko.annotation.{ ApiMayChange, InternalApi }
+import pekko.http.scaladsl.model.{ HttpProtocol, HttpRequest, HttpResponse, RequestTimings, StatusCode }
+
+/**
+ * API MAY CHANGE
+ *
+ * Receives events about the server connections and the client connection pools of an actor system, e.g. to record
+ * metrics about them. The implementation is configured with `pekko.http.metrics-class`, created once per actor system
+ * and available as `Http().metrics`. See [[InMemoryHttpMetrics]] for an implementation keeping the metrics in memory.
+ *
+ * All methods do nothing by default. They are called from within the streams running the connections and pools,
+ * concurrently for different connections, so implementations must be thread-safe, fast and must not block.
+ * Nothing is allocated for calling them.
+ */
+@ApiMayChange
+abstract class HttpMetrics {
+
+  /** A server connection speaking the given protocol was opened */
+  def serverConnectionOpened(protocol: HttpProtocol): Unit = ()
+
+  /** A server connection speaking the given protocol was closed */
+  def serverConnectionClosed(protocol: HttpProtocol): Unit = ()
+
+  /** The given number of bytes were received on a server connection, after TLS decryption */
+  def serverBytesReceived(count: Int): Unit = ()
+
+  /** The given number of bytes were sent on a server connection, before TLS encryption */
+  def serverBytesSent(count: Int): Unit = ()
+
+  /** The request was received on a server connection and is passed to the handler */
+  def serverRequestStarted(request: HttpRequest): Unit = ()
+
+  /**
+   * The handler answered the request with the response, the given time after the request was started. The response
+   * has not been sent yet, and the sizes of the entities are only known up front if they have a `contentLengthOption`.
+   */
+  def serverRequestCompleted(request: HttpRequest, response: HttpResponse, durationNanos: Long): Unit = ()
+
+  /** A request could not be parsed and was answered with the given status, closing the connection */
+  def serverParsingError(status: StatusCode): Unit = ()
+
+  /** The handler did not answer the request within the request timeout, so it is answered with the timeout response */
+  def serverRequestTimedOut(request: HttpRequest): Unit = ()
+
+  /**
+   * The request was answered with `503 Service Unavailable` without passing it to the handler, because the
+   * concurrency limit of `pekko.http.server.load-shedding` was reached
+   */
+  def serverRequestShed(request: HttpRequest): Unit = ()
+
+  /** The adaptive concurrency limit of `pekko.http.server.load-shedding` of a server binding changed */
+  def serverConcurrencyLimitChanged(limit: Int): Unit = ()
+
+  /**
+   * The response was completely sent for a request carrying [[RequestTimings]], which is only the case for HTTP/1
+   * requests if `pekko.http.server.parsing.request-timings-attribute` is enabled.
+   */
+  def serverRequestPhases(response: HttpResponse, timings: RequestTimings): Unit = ()
+
+  /** A connection of the pool to the given host was opened */
+  def poolConnectionOpened(host: String, port: Int): Unit = ()
+
+  /** A connection of the pool to the given host was closed */
+  def poolConnectionClosed(host: String, port: Int): Unit = ()
+
+  /** A request of the pool to the given host was answered with the response, the given time after it was sent */
+  def poolRequestCompleted(host: String, port: Int, response: HttpResponse, durationNanos: Long): Unit = ()
+
+  /**
+   * A request of the pool to the given host failed, the given time after it was sent. The request may still be
+   * retried.
+   */
+  def poolRequestFailed(host: String, port: Int, cause: Throwable, durationNanos: Long): Unit = ()
+
+  /** A request to the given host was rejected because the `max-open-requests` of its pool were exceeded */
+  def poolOverflow(host: String, port: Int): Unit = ()
+
+  /** A failed request to the given host was not retried because the `retry-budget` of its pool was used up */
+  def poolRetryBudgetExhausted(host: String, port: Int): Unit = ()
+
+  /** The `adaptive-concurrency` limit of the pool to the given host changed */
+  def poolConcurrencyLimitChanged(host: String, port: Int, limit: Int): Unit = ()
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[http] object HttpMetrics {
+  private val ConfigKey = "pekko.http.metrics-class"
+
+  object NoOp extends HttpMetrics
+
+  def create(system: ExtendedActorSystem): HttpMetrics = {
+    val fqcn = system.settings.config.getString(ConfigKey)
+    if (fqcn.isEmpty) NoOp
+    else {
+      val dynamicAccess = system.dynamicAccess
+      dynamicAccess.createInstanceFor[HttpMetrics](fqcn, (classOf[ActorSystem], system) :: Nil)
+        .recoverWith { case _: NoSuchMethodException => dynamicAccess.createInstanceFor[HttpMetrics](fqcn, Nil) }
+        .get
+    }
+  }
+}
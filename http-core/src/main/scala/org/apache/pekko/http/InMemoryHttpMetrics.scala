@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http
+
+import java.util.concurrent.atomic.{ AtomicLongArray, LongAdder }
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.annotation.ApiMayChange
+import pekko.http.scaladsl.model.{ HttpProtocol, HttpRequest, HttpResponse, RequestTimings, StatusCode }
+
+/**
+ * API MAY CHANGE
+ *
+ * An [[HttpMetrics]] implementation that counts the events in memory and records the request durations in
+ * histograms. Enable it with `pekko.http.metrics-class = "org.apache.pekko.http.InMemoryHttpMetrics"` and read it
+ * from `Http().metrics`, e.g. in tests or to export the values periodically.
+ */
+@ApiMayChange
+class InMemoryHttpMetrics extends HttpMetrics {
+  import InMemoryHttpMetrics._
+
+  def this(system: ActorSystem) = this()
+
+  private val _openServerConnections = new LongAdder
+  private val _serverBytesReceived = new LongAdder
+  private val _serverBytesSent = new LongAdder
+  private val _serverRequests = new LongAdder
+  private val _serverResponsesByStatusClass = Array.fill(6)(new LongAdder)
+  private val _serverParsingErrors = new LongAdder
+  private val _serverRequestTimeouts = new LongAdder
+  private val _serverRequestsShed = new LongAdder
+  @volatile private var _serverConcurrencyLimit = 0
+  private val _openPoolConnections = new LongAdder
+  private val _poolResponses = new LongAdder
+  private val _poolFailures = new LongAdder
+  private val _poolOverflows = new LongAdder
+  private val _poolRetryBudgetExhaustions = new LongAdder
+
+  /** The durations from receiving a request to its response on server connections in nanoseconds */
+  val serverRequestDurations: Histogram = new Histogram
+
+  /** The durations from sending a request of a pool to receiving the response or failure in nanoseconds */
+  val poolRequestDurations: Histogram = new Histogram
+
+  /**
+   * The durations of the phases of server requests in nanoseconds, see [[RequestTimings]]. Only recorded if
+   * `pekko.http.server.parsing.request-timings-attribute` is enabled.
+   */
+  val serverParseDurations: Histogram = new Histogram
+  val serverRouteDurations: Histogram = new Histogram
+  val serverHandlerDurations: Histogram = new Histogram
+  val serverRenderDurations: Histogram = new Histogram
+  val serverFlushDurations: Histogram = new Histogram
+
+  def openServerConnections: Long = _openServerConnections.sum()
+  def serverBytesReceived: Long = _serverBytesReceived.sum()
+  def serverBytesSent: Long = _serverBytesSent.sum()
+  def serverRequests: Long = _serverRequests.sum()
+
+  /** The number of responses with a status of the given class, e.g. `5` for `5xx` */
+  def serverResponses(statusClass: Int): Long = _serverResponsesByStatusClass(statusClass).sum()
+  def serverParsingErrors: Long = _serverParsingErrors.sum()
+  def serverRequestTimeouts: Long = _serverRequestTimeouts.sum()
+  def serverRequestsShed: Long = _serverRequestsShed.sum()
+
+  /** The concurrency limit last reported by a server binding with `load-shedding` enabled, `0` if none did */
+  def serverConcurrencyLimit: Int = _serverConcurrencyLimit
+  def openPoolConnections: Long = _openPoolConnections.sum()
+  def poolResponses: Long = _poolResponses.sum()
+  def poolFailures: Long = _poolFailures.sum()
+  def poolOverflows: Long = _poolOverflows.sum()
+  def poolRetryBudgetExhaustions: Long = _poolRetryBudgetExhaustions.sum()
+
+  /** Java API */
+  def getServerRequestDurations: Histogram = serverRequestDurations
+  /** Java API */
+  def getPoolRequestDurations: Histogram = poolRequestDurations
+  /** Java API */
+  def getServerParseDurations: Histogram = serverParseDurations
+  /** Java API */
+  def getServerRouteDurations: Histogram = serverRouteDurations
+  /** Java API */
+  def getServerHandlerDurations: Histogram = serverHandlerDurations
+  /** Java API */
+  def getServerRenderDurations: Histogram = serverRenderDurations
+  /** Java API */
+  def getServerFlushDurations: Histogram = serverFlushDurations
+  /** Java API */
+  def getOpenServerConnections: Long = openServerConnections
+  /** Java API */
+  def getServerBytesReceived: Long = serverBytesReceived
+  /** Java API */
+  def getServerBytesSent: Long = serverBytesSent
+  /** Java API */
+  def getServerRequests: Long = serverRequests
+  /** Java API */
+  def getServerResponses(statusClass: Int): Long = serverResponses(statusClass)
+  /** Java API */
+  def getServerParsingErrors: Long = serverParsingErrors
+  /** Java API */
+  def getServerRequestTimeouts: Long = serverRequestTimeouts
+  /** Java API */
+  def getServerRequestsShed: Long = serverRequestsShed
+  /** Java API */
+  def getServerConcurrencyLimit: Int = serverConcurrencyLimit
+  /** Java API */
+  def getOpenPoolConnections: Long = openPoolConnections
+  /** Java API */
+  def getPoolResponses: Long = poolResponses
+  /** Java API */
+  def getPoolFailures: Long = poolFailures
+  /** Java API */
+  def getPoolOverflows: Long = poolOverflows
+  /** Java API */
+  def getPoolRetryBudgetExhaustions: Long = poolRetryBudgetExhaustions
+
+  override def serverConnectionOpened(protocol: HttpProtocol): Unit = _openServerConnections.increment()
+  override def serverConnectionClosed(protocol: HttpProtocol): Unit = _openServerConnections.decrement()
+  override def serverBytesReceived(count: Int): Unit = _serverBytesReceived.add(count)
+  override def serverBytesSent(count: Int): Unit = _serverBytesSent.add(count)
+  override def serverRequestStarted(request: HttpRequest): Unit = _serverRequests.increment()
+  override def serverRequestCompleted(request: HttpRequest, response: HttpResponse, durationNanos: Long): Unit = {
+    _serverResponsesByStatusClass(statusClass(response.status)).increment()
+    serverRequestDurations.record(durationNanos)
+  }
+  override def serverParsingError(status: StatusCode): Unit = _serverParsingErrors.increment()
+  override def serverRequestTimedOut(request: HttpRequest): Unit = _serverRequestTimeouts.increment()
+  override def serverRequestShed(request: HttpRequest): Unit = _serverRequestsShed.increment()
+  override def serverConcurrencyLimitChanged(limit: Int): Unit = _serverConcurrencyLimit = limit
+  override def serverRequestPhases(response: HttpResponse, timings: RequestTimings): Unit = {
+    serverParseDurations.record(timings.parseNanos)
+    if (timings.routed != 0L) serverRouteDurations.record(timings.routeNanos)
+    serverHandlerDurations.record(timings.handlerNanos)
+    serverRenderDurations.record(timings.renderNanos)
+    serverFlushDurations.record(timings.flushNanos)
+  }
+  override def poolConnectionOpened(host: String, port: Int): Unit = _openPoolConnections.increment()
+  override def poolConnectionClosed(host: String, port: Int): Unit = _openPoolConnections.decrement()
+  override def poolRequestCompleted(host: String, port: Int, response: HttpResponse, durationNanos: Long): Unit = {
+    _poolResponses.increment()
+    poolRequestDurations.record(durationNanos)
+  }
+  override def poolRequestFailed(host: String, port: Int, cause: Throwable, durationNanos: Long): Unit = {
+    _poolFailures.increment()
+    poolRequestDurations.record(durationNanos)
+  }
+  override def poolOverflow(host: String, port: Int): Unit = _poolOverflows.increment()
+  override def poolRetryBudgetExhausted(host: String, port: Int): Unit = _poolRetryBudgetExhaustions.increment()
+
+  private def statusClass(status: StatusCode): Int = math.min(math.max(status.intValue / 100, 0), 5)
+
+  override def toString: String =
+    s"InMemoryHttpMetrics(openServerConnections = $openServerConnections, serverRequests = $serverRequests, " +
+    s"serverRequestDurations = $serverRequestDurations, openPoolConnections = $openPoolConnections, " +
+    s"poolResponses = $poolResponses, poolFailures = $poolFailures, poolRequestDurations = $poolRequestDurations)"
+}
+
+@ApiMayChange
+object InMemoryHttpMetrics {
+  private final val SubBucketBits = 5
+  private final val SubBuckets = 1 << SubBucketBits
+
+  /**
+   * API MAY CHANGE
+   *
+   * A histogram of non-negative values in the style of an HDR histogram: values are counted in buckets whose width
+   * grows with their magnitude, so that every value is known with a precision of about 3%. Recording is lock-free
+   * and does not allocate.
+   */
+  @ApiMayChange
+  final class Histogram {
+    private val counts = new AtomicLongArray((64 - SubBucketBits) * SubBuckets)
+
+    def record(value: Long): Unit = counts.incrementAndGet(indexOf(math.max(value, 0L)))
+
+    /** The number of recorded values */
+    def count: Long = {
+      var sum = 0L
+      var i = 0
+      while (i < counts.length) {
+        sum += counts.get(i)
+        i += 1
+      }
+      sum
+    }
+
+    /**
+     * The largest value that is at most as large as the given percentage (between 0 and 100) of the recorded values,
+     * up to the precision of the histogram, 0 if no values were recorded.
+     */
+    def valueAtPercentile(percentile: Double): Long = {
+      val total = count
+      if (total == 0) 0L
+      else {
+        val wanted = math.max(1L, math.ceil(total * math.min(math.max(percentile, 0.0), 100.0) / 100.0).toLong)
+        var seen = 0L
+        var i = 0
+        while (i < counts.length && seen < wanted) {
+          seen += counts.get(i)
+          i += 1
+        }
+        highestValueIn(i - 1)
+      }
+    }
+
+    /** Java API */
+    def getCount: Long = count
+
+    override def toString: String =
+      s"Histogram(count = $count, p50 = ${valueAtPercentile(50)}, p99 = ${valueAtPercentile(99)}, " +
+      s"max = ${valueAtPercentile(100)})"
+  }
+
+  // values below SubBuckets are counted exactly, larger ones by their highest SubBucketBits + 1 bits
+  private def indexOf(value: Long): Int =
+    if (value < SubBuckets) value.toInt
+    else {
+      val shift = 63 - java.lang.Long.numberOfLeadingZeros(value) - SubBucketBits
+      (shift + 1) * SubBuckets + ((value >>> shift) - SubBuckets).toInt
+    }
+
+  private def highestValueIn(index: Int): Long =
+    if (index < SubBuckets) index
+    else {
+      val shift = index / SubBuckets - 1
+      val subBucket = index % SubBuckets
+      ((subBucket + SubBuckets + 1).toLong << shift) - 1
+    }
+}
@@ -18,11 +18,12 @@ import pekko.Done
 import pekko.actor._
 import pekko.annotation.InternalStableApi
 import pekko.event.{ LogSource, Logging, LoggingAdapter }
+import pekko.http.HttpMetrics
 import pekko.http.impl.engine.client.PoolFlow._
 import pekko.http.impl.engine.client.pool.NewHostConnectionPool
 import pekko.http.impl.util._
 import pekko.http.scaladsl.model._
-import pekko.http.scaladsl.Http
+import pekko.http.scaladsl.{ HostConnectionPoolSnapshot, Http }
 import pekko.macros.LogHelper
 import pekko.stream.ActorMaterializer
 import pekko.stream.Attributes
@@ -56,6 +57,9 @@ private[http] trait PoolInterface {
   def request(request: HttpRequest, responsePromise: Promise[HttpResponse]): Unit
   def shutdown()(implicit ec: ExecutionContext): Future[PoolInterface.ShutdownReason]
   def whenShutdown: Future[PoolInterface.ShutdownReason]
+
+  /** Fails if the pool has been stopped */
+  def snapshot(): Future[HostConnectionPoolSnapshot]
 }
 
 private[http] object PoolInterface {
@@ -77,16 +81,24 @@ private[http] object PoolInterface {
     val connectionFlow =
       Http().outgoingConnectionUsingContext(host, port, connectionContext, settings.connectionSettings, setup.log)
 
-    val poolFlow = NewHostConnectionPool(connectionFlow, settings, log).named("PoolFlow")
+    val metrics = Http().metrics
+    val poolFlow = NewHostConnectionPool(connectionFlow, settings, log, metrics, host, port).named("PoolFlow")
+    val poolIntrospection = Promise[NewHostConnectionPool.Introspection]()
 
-    Flow.fromGraph(new PoolInterfaceStage(poolId, master, settings.maxOpenRequests, log))
-      .join(poolFlow)
+    Flow.fromGraph(
+      new PoolInterfaceStage(poolId, master, settings.maxOpenRequests, log, metrics, poolIntrospection.future))
+      .joinMat(poolFlow) { (interface, introspection) =>
+        poolIntrospection.success(introspection)
+        interface
+      }
       .run()
   }
 
   private val IdleTimeout = "idle-timeout"
 
-  class PoolInterfaceStage(poolId: PoolId, master: PoolMaster, bufferSize: Int, log: LoggingAdapter)
+  class PoolInterfaceStage(poolId: PoolId, master: PoolMaster, bufferSize: Int, log: LoggingAdapter,
+      metrics: HttpMetrics = HttpMetrics.NoOp,
+      poolIntrospection: Future[NewHostConnectionPool.Introspection] = Future.never)
       extends GraphStageWithMaterializedValue[FlowShape[ResponseContext, RequestContext], PoolInterface] {
     private val requestOut = Outlet[RequestContext]("PoolInterface.requestOut")
     private val responseIn = Inlet[ResponseContext]("PoolInterface.responseIn")
@@ -97,7 +109,7 @@ private[http] object PoolInterface {
     override def createLogicAndMaterializedValue(
         inheritedAttributes: Attributes, _materializer: Materializer): (GraphStageLogic, PoolInterface) = {
       import _materializer.executionContext
-      val logic = new Logic(poolId, shape, master, requestOut, responseIn, bufferSize, log)
+      val logic = new Logic(poolId, shape, master, requestOut, responseIn, bufferSize, log, metrics, poolIntrospection)
       (logic, logic)
     }
   }
@@ -105,7 +117,8 @@ private[http] object PoolInterface {
   @InternalStableApi // name `Logic` and annotated methods
   private class Logic(poolId: PoolId, shape: FlowShape[ResponseContext, RequestContext], master: PoolMaster,
       requestOut: Outlet[RequestContext], responseIn: Inlet[ResponseContext], bufferSize: Int,
-      val log: LoggingAdapter)(implicit executionContext: ExecutionContext) extends TimerGraphStageLogic(shape)
+      val log: LoggingAdapter, metrics: HttpMetrics,
+      poolIntrospection: Future[NewHostConnectionPool.Introspection])(implicit executionContext: ExecutionContext) extends TimerGraphStageLogic(shape)
       with PoolInterface with InHandler with OutHandler with LogHelper {
     private[this] val PoolOverflowException = new BufferOverflowException( // stack trace cannot be prevented here because `BufferOverflowException` is final
       s"Exceeded configured max-open-requests value of [${poolId.hcps.setup.settings.maxOpenRequests}]. This means that the request queue of this pool (${poolId.hcps}) " +
@@ -188,6 +201,7 @@ private[http] object PoolInterface {
           debug(s"Buffering request [${request.debugString}] at position ${buffer.size}/$bufferSize")
         } else {
           debug(s"Could not dispatch request [${request.debugString}] because buffer is full")
+          metrics.poolOverflow(hcps.host, hcps.port)
           responsePromise.tryFailure(PoolOverflowException)
         }
     }
@@ -236,6 +250,18 @@ private[http] object PoolInterface {
     }
     override def whenShutdown: Future[ShutdownReason] = shutdownPromise.future
 
+    private val queuedRequestsCallback = getAsyncCallback[Promise[Int]](_.success(buffer.size))
+    override def snapshot(): Future[HostConnectionPoolSnapshot] = {
+      val queuedRequests = Promise[Int]()
+      queuedRequestsCallback.invokeWithFeedback(queuedRequests).failed.foreach(queuedRequests.tryFailure)
+      for {
+        introspection <- poolIntrospection
+        slots <- introspection.snapshot()
+        queued <- queuedRequests.future
+      } yield new HostConnectionPoolSnapshot(hcps.host, hcps.port, isRunning = true, slots.slots, queued,
+        slots.retryingRequests, slots.connectionEmbargo)
+    }
+
     @InternalStableApi
     def onInit(poolId: PoolId): Unit = ()
     @InternalStableApi
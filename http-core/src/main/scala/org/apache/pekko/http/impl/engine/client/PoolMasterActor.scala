@@ -28,9 +28,11 @@ import pekko.actor.{
 import pekko.annotation.InternalApi
 import pekko.dispatch.ExecutionContexts
 import pekko.http.impl.engine.client.PoolInterface.ShutdownReason
+import pekko.http.scaladsl.HostConnectionPoolSnapshot
 import pekko.http.scaladsl.model.{ HttpRequest, HttpResponse }
 import pekko.stream.Materializer
 
+import scala.collection.immutable
 import scala.concurrent.{ Future, Promise }
 import scala.util.Failure
 import scala.util.Success
@@ -96,6 +98,24 @@ private[http] class PoolMaster(val ref: ActorRef) {
     shutdownCompletedPromise.future
   }
 
+  /**
+   * Takes a snapshot of the pool, which is reported as not running if it has not been started yet or is shutting down.
+   */
+  def snapshot(poolId: PoolId): Future[HostConnectionPoolSnapshot] = {
+    val snapshotPromise = Promise[HostConnectionPoolSnapshot]()
+    ref ! Snapshot(poolId, snapshotPromise)
+    snapshotPromise.future
+  }
+
+  /**
+   * Takes snapshots of all pools that are running or shutting down.
+   */
+  def snapshotAll(): Future[immutable.Seq[HostConnectionPoolSnapshot]] = {
+    val snapshotsPromise = Promise[immutable.Seq[HostConnectionPoolSnapshot]]()
+    ref ! SnapshotAll(snapshotsPromise)
+    snapshotsPromise.future
+  }
+
   /**
    * For testing only
    */
@@ -155,6 +175,16 @@ private[http] final class PoolMasterActor extends Actor with ActorLogging {
     interface
   }
 
+  private[this] def snapshot(poolId: PoolId): Future[HostConnectionPoolSnapshot] = {
+    def notRunning = HostConnectionPoolSnapshot.notRunning(poolId.hcps.host, poolId.hcps.port)
+    statusById.get(poolId) match {
+      case Some(PoolInterfaceRunning(interface)) =>
+        // the pool may have stopped before it received the request for the snapshot
+        interface.snapshot().recover { case _ => notRunning }(ExecutionContexts.parasitic)
+      case _ => Future.successful(notRunning)
+    }
+  }
+
   def receive = {
 
     // Start or restart a pool without sending it a request. This is used to ensure that
@@ -235,6 +265,16 @@ private[http] final class PoolMasterActor extends Actor with ActorLogging {
         idByPool -= pool
       }
 
+    case Snapshot(poolId, snapshotPromise) =>
+      snapshotPromise.completeWith(snapshot(poolId))
+
+    case SnapshotAll(snapshotsPromise) =>
+      snapshotsPromise.completeWith(
+        // pools that are shutting down are left out, as they do not take requests anymore
+        Future.sequence(statusById.iterator.collect {
+          case (poolId, _: PoolInterfaceRunning) => snapshot(poolId)
+        }.toList)(implicitly, ExecutionContexts.parasitic))
+
     // Testing only.
     case PoolStatus(poolId, statusPromise) =>
       statusPromise.success(statusById.get(poolId))
@@ -270,4 +310,9 @@ private[http] object PoolMasterActor {
       extends NoSerializationVerificationNeeded
   final case class PoolSize(sizePromise: Promise[Int]) extends NoSerializationVerificationNeeded
 
+  final case class Snapshot(poolId: PoolId, snapshotPromise: Promise[HostConnectionPoolSnapshot])
+      extends NoSerializationVerificationNeeded
+  final case class SnapshotAll(snapshotsPromise: Promise[immutable.Seq[HostConnectionPoolSnapshot]])
+      extends NoSerializationVerificationNeeded
+
 }
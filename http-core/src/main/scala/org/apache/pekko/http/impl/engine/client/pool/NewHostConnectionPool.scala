@@ -17,24 +17,25 @@ import java.time.Instant
 import java.util
 
 import org.apache.pekko
-import pekko.NotUsed
 import pekko.actor.Cancellable
 import pekko.annotation.InternalApi
 import pekko.dispatch.ExecutionContexts
 import pekko.event.LoggingAdapter
+import pekko.http.HttpMetrics
 import pekko.http.impl.engine.client.PoolFlow.{ RequestContext, ResponseContext }
 import pekko.http.impl.engine.client.pool.SlotState._
 import pekko.http.impl.util.{ RichHttpRequest, StageLoggingWithOverride, StreamUtils }
-import pekko.http.scaladsl.Http
+import pekko.http.scaladsl.{ HostConnectionPoolSnapshot, Http }
 import pekko.http.scaladsl.model.{ headers, HttpEntity, HttpRequest, HttpResponse }
 import pekko.http.scaladsl.settings.ConnectionPoolSettings
 import pekko.util.OptionVal
 import pekko.stream._
 import pekko.stream.scaladsl.{ Flow, Keep, Sink, Source }
-import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+import pekko.stream.stage.{ GraphStageLogic, GraphStageWithMaterializedValue, InHandler, OutHandler }
 
 import scala.collection.JavaConverters._
-import scala.concurrent.Future
+import scala.collection.immutable
+import scala.concurrent.{ Future, Promise }
 import scala.concurrent.duration._
 import scala.util.control.{ NoStackTrace, NonFatal }
 import scala.util.{ Failure, Random, Success, Try }
@@ -60,19 +61,46 @@ import scala.util.{ Failure, Random, Success, Try }
 private[client] object NewHostConnectionPool {
   def apply(
       connectionFlow: Flow[HttpRequest, HttpResponse, Future[Http.OutgoingConnection]],
-      settings: ConnectionPoolSettings, log: LoggingAdapter): Flow[RequestContext, ResponseContext, NotUsed] =
-    Flow.fromGraph(new HostConnectionPoolStage(connectionFlow, settings, log))
+      settings: ConnectionPoolSettings, log: LoggingAdapter,
+      metrics: HttpMetrics = HttpMetrics.NoOp, host: String = "", port: Int = 0)
+      : Flow[RequestContext, ResponseContext, Introspection] =
+    Flow.fromGraph(new HostConnectionPoolStage(connectionFlow, settings, log, metrics, host, port))
+
+  /** Takes snapshots of the slots of a running pool */
+  trait Introspection {
+
+    /** Fails if the pool has been stopped */
+    def snapshot(): Future[SlotsSnapshot]
+  }
+
+  final case class SlotsSnapshot(
+      slots: immutable.Seq[HostConnectionPoolSnapshot.Slot],
+      retryingRequests: Int,
+      connectionEmbargo: FiniteDuration)
+
+  private def statusOf(state: SlotState): HostConnectionPoolSnapshot.Status = {
+    import HostConnectionPoolSnapshot.Status
+    state match {
+      case _: UnconnectedState           => Status.Unconnected
+      case _: Embargoed                  => Status.Embargoed
+      case PreConnecting | _: Connecting => Status.Connecting
+      case _: Idle                       => Status.Idle
+      case _: ShouldCloseConnectionState => Status.Closing
+      case _                             => Status.Busy
+    }
+  }
 
   private final class HostConnectionPoolStage(
       connectionFlow: Flow[HttpRequest, HttpResponse, Future[Http.OutgoingConnection]],
-      _settings: ConnectionPoolSettings, _log: LoggingAdapter)
-      extends GraphStage[FlowShape[RequestContext, ResponseContext]] {
+      _settings: ConnectionPoolSettings, _log: LoggingAdapter, metrics: HttpMetrics, host: String, port: Int)
+      extends GraphStageWithMaterializedValue[FlowShape[RequestContext, ResponseContext], Introspection] {
     val requestsIn = Inlet[RequestContext]("HostConnectionPoolStage.requestsIn")
     val responsesOut = Outlet[ResponseContext]("HostConnectionPoolStage.responsesOut")
 
     override val shape = FlowShape(requestsIn, responsesOut)
-    def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
-      new GraphStageLogic(shape) with StageLoggingWithOverride with InHandler with OutHandler { logic =>
+    def createLogicAndMaterializedValue(inheritedAttributes: Attributes): (GraphStageLogic, Introspection) = {
+      val poolLogic = new GraphStageLogic(shape) with StageLoggingWithOverride with InHandler with OutHandler
+        with Introspection { logic =>
         override def logOverride: LoggingAdapter = _log
 
         setHandlers(requestsIn, responsesOut, this)
@@ -95,6 +123,9 @@ private[client] object NewHostConnectionPool {
           res
         } // fast set to track idle slots
         val retryBuffer: util.Deque[RequestContext] = new util.ArrayDeque[RequestContext]
+        val retryBudget = new PoolLimits.RetryBudget(_settings)
+        val concurrencyLimit =
+          new PoolLimits.ConcurrencyLimit(_settings, limit => metrics.poolConcurrencyLimitChanged(host, port, limit))
         var _connectionEmbargo: FiniteDuration = Duration.Zero
         def baseEmbargo: FiniteDuration = _settings.baseConnectionBackoff
         def maxBaseEmbargo: FiniteDuration = _settings.maxConnectionBackoff / 2 // because we'll add a random component of the same size to the base
@@ -106,10 +137,12 @@ private[client] object NewHostConnectionPool {
 
         def onPush(): Unit = {
           val nextRequest = grab(requestsIn)
-          if (hasIdleSlots) {
+          retryBudget.deposit()
+          if (canDispatch) {
             dispatchRequest(nextRequest)
             pullIfNeeded()
-          } else // embargo might change state from unconnected -> embargoed losing an idle slot between the pull and the push here
+          } else // embargo might change state from unconnected -> embargoed losing an idle slot between the pull and the push here,
+            // or the concurrency limit might have been decreased
             retryBuffer.addFirst(nextRequest)
         }
         def onPull(): Unit =
@@ -118,7 +151,7 @@ private[client] object NewHostConnectionPool {
         // else push when next slot becomes dispatchable
 
         def pullIfNeeded(): Unit =
-          if (hasIdleSlots)
+          if (canDispatch)
             if (!retryBuffer.isEmpty) {
               log.debug("Dispatching request from retryBuffer")
               dispatchRequest(retryBuffer.pollFirst())
@@ -135,6 +168,9 @@ private[client] object NewHostConnectionPool {
           !idleSlots.isEmpty
         }
 
+        /** Requests exceeding the concurrency limit wait in the retry buffer and in the buffer of the pool interface */
+        def canDispatch: Boolean = hasIdleSlots && concurrencyLimit.hasCapacity
+
         def dispatchResponseResult(req: RequestContext, result: Try[HttpResponse]): Unit =
           if (result.isFailure && req.canBeRetried) {
             log.debug("Request [{}] has {} retries left, retrying...", req.request.debugString, req.retriesLeft)
@@ -169,6 +205,20 @@ private[client] object NewHostConnectionPool {
         def onConnectionAttemptSucceeded(): Unit = _connectionEmbargo = Duration.Zero
         def currentEmbargo: FiniteDuration = _connectionEmbargo
 
+        private val snapshotCallback = getAsyncCallback[Promise[SlotsSnapshot]] { promise =>
+          val now = System.nanoTime()
+          val slotSnapshots = slots.map { slot =>
+            new HostConnectionPoolSnapshot.Slot(slot.slotId, statusOf(slot.state), slot.state.name,
+              (now - slot.changedIntoThisStateNanos).nanos)
+          }
+          promise.success(SlotsSnapshot(slotSnapshots, retryBuffer.size, _connectionEmbargo))
+        }
+        def snapshot(): Future[SlotsSnapshot] = {
+          val promise = Promise[SlotsSnapshot]()
+          snapshotCallback.invokeWithFeedback(promise).failed.foreach(promise.tryFailure)(ExecutionContexts.parasitic)
+          promise.future
+        }
+
         class Event[T](val name: String, val transition: (SlotState, Slot, T) => SlotState) {
           def preApply(t: T): Event[Unit] = new Event(name, (state, slot, _) => transition(state, slot, t))
           override def toString: String = s"Event($name)"
@@ -224,6 +274,8 @@ private[client] object NewHostConnectionPool {
           private[this] var isEnqueuedForResponseDispatch: Boolean = false
 
           private[this] var connection: SlotConnection = _
+          private[this] var requestStartNanos: Long = 0L
+          private[this] var countedInFlight: Boolean = false
           def isIdle: Boolean = state.isIdle
           def isConnected: Boolean = state.isConnected
           def shutdown(): Unit = {
@@ -234,6 +286,7 @@ private[client] object NewHostConnectionPool {
               else Some(new IllegalStateException("Pool slot was shut down") with NoStackTrace)
 
             closeConnection(reason)
+            cancelInFlight()
 
             state.onShutdown(this)
           }
@@ -251,8 +304,14 @@ private[client] object NewHostConnectionPool {
           def onNewConnectionEmbargo(embargo: FiniteDuration): Unit =
             updateState(Event.onNewConnectionEmbargo, embargo)
 
-          def onNewRequest(req: RequestContext): Unit =
+          def onNewRequest(req: RequestContext): Unit = {
+            requestStartNanos = System.nanoTime()
+            if (!countedInFlight) {
+              countedInFlight = true
+              concurrencyLimit.acquire()
+            }
             updateState(Event.onNewRequest, req)
+          }
 
           def onRequestEntityCompleted(): Unit =
             updateState(Event.onRequestEntityCompleted)
@@ -362,6 +421,7 @@ private[client] object NewHostConnectionPool {
                   try {
                     cancelCurrentTimeout()
                     closeConnection(Some(ex))
+                    cancelInFlight()
                     state.onShutdown(this)
                     OptionVal.None
                   } catch {
@@ -417,14 +477,38 @@ private[client] object NewHostConnectionPool {
 
           def closeConnection(failure: Option[Throwable]): Unit =
             if (connection ne null) {
+              if (connection.connectionEstablished) metrics.poolConnectionClosed(host, port)
               connection.close(failure)
               connection = null
             }
           def isCurrentConnection(conn: SlotConnection): Boolean = connection eq conn
           def isConnectionClosed: Boolean = (connection eq null) || connection.isClosed
 
-          def dispatchResponseResult(req: RequestContext, result: Try[HttpResponse]): Unit =
+          def dispatchResponseResult(req: RequestContext, result: Try[HttpResponse]): Unit = {
+            val durationNanos = System.nanoTime() - requestStartNanos
+            if (metrics ne HttpMetrics.NoOp) {
+              result match {
+                case Success(response) => metrics.poolRequestCompleted(host, port, response, durationNanos)
+                case Failure(cause)    => metrics.poolRequestFailed(host, port, cause, durationNanos)
+              }
+            }
+            val freedCapacity = countedInFlight && concurrencyLimit.release(durationNanos, result.isFailure)
+            countedInFlight = false
             logic.dispatchResponseResult(req, result)
+            if (freedCapacity) pullIfNeeded()
+          }
+
+          def withdrawRetry(): Boolean =
+            retryBudget.tryWithdraw() || {
+              metrics.poolRetryBudgetExhausted(host, port)
+              false
+            }
+
+          private def cancelInFlight(): Unit =
+            if (countedInFlight) {
+              countedInFlight = false
+              concurrencyLimit.cancel()
+            }
 
           def willCloseAfter(res: HttpResponse): Boolean = {
             logic.willClose(res) || keepAliveTimeApplies()
@@ -600,6 +684,7 @@ private[client] object NewHostConnectionPool {
               slotCon.withSlot { sl =>
                 slotCon.connectionEstablished = true
                 slot.debug("Connection attempt succeeded")
+                metrics.poolConnectionOpened(host, port)
                 onConnectionAttemptSucceeded()
                 sl.onConnectionAttemptSucceeded(outgoingConnection)
               }
@@ -645,5 +730,7 @@ private[client] object NewHostConnectionPool {
           lastTimeoutId
         }
       }
+      (poolLogic, poolLogic)
+    }
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.client.pool
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.scaladsl.settings.ConnectionPoolSettings
+
+/**
+ * INTERNAL API
+ *
+ * The limits a host connection pool puts on itself to not add to the load of a host that is already struggling, see
+ * `retry-budget` and `adaptive-concurrency` in `pekko.http.host-connection-pool`. They are only used from within the
+ * pool stage and are not thread-safe.
+ */
+@InternalApi
+private[pool] object PoolLimits {
+
+  /**
+   * A token bucket of retries: every request entering the pool adds `retryBudgetRatio` to it, every retry takes one. It
+   * starts with and is capped at `retryBudgetMinRetries`, so that a pool that has been healthy for a long time does not
+   * save up retries for the next outage.
+   */
+  final class RetryBudget(settings: ConnectionPoolSettings) {
+    private val ratio = settings.retryBudgetRatio
+    private val maxBalance = math.max(settings.retryBudgetMinRetries, 1).toDouble
+    private var _balance = settings.retryBudgetMinRetries.toDouble
+
+    def balance: Double = _balance
+
+    def deposit(): Unit =
+      if (!ratio.isPosInfinity) _balance = math.min(maxBalance, _balance + ratio)
+
+    def tryWithdraw(): Boolean =
+      if (ratio.isPosInfinity) true
+      else if (_balance >= 1) {
+        _balance -= 1
+        true
+      } else false
+  }
+
+  private final val LongLatencyWeight = 0.01
+  private final val Smoothing = 0.2
+  private final val MinGradient = 0.5
+
+  /**
+   * The number of requests the pool runs concurrently, at most `maxConnections`. With `adaptive-concurrency` enabled
+   * the limit follows the gradient between the long-term average latency of the host and the latency of the latest
+   * response: it is decreased while responses take longer than `tolerance` times the average, or fail, and increased
+   * by the square root of the limit while they are faster and at least half of the limit is in use.
+   */
+  final class ConcurrencyLimit(settings: ConnectionPoolSettings, onLimitChanged: Int => Unit) {
+    private val maxLimit = settings.maxConnections
+    private val adaptive = settings.adaptiveConcurrencyEnabled
+    private val tolerance = settings.adaptiveConcurrencyTolerance
+    private var _limit: Double = maxLimit
+    private var _inFlight = 0
+    private var longLatencyNanos = 0.0
+
+    def limit: Int = _limit.toInt
+    def inFlight: Int = _inFlight
+    def hasCapacity: Boolean = _inFlight < limit
+
+    def acquire(): Unit = _inFlight += 1
+
+    /** Frees the place of a request that was not answered, e.g. because its slot was shut down */
+    def cancel(): Unit = _inFlight -= 1
+
+    /**
+     * Frees the place of a request that was answered or failed the given time after it was sent. Returns `true` if the
+     * limit had been reached before, so that waiting requests can be dispatched now.
+     */
+    def release(latencyNanos: Long, failed: Boolean): Boolean = {
+      val wasLimited = !hasCapacity
+      if (adaptive) {
+        if (failed) update(MinGradient)
+        else {
+          val latency = math.max(latencyNanos, 1L).toDouble
+          if (longLatencyNanos == 0.0) longLatencyNanos = latency
+          else longLatencyNanos = longLatencyNanos * (1 - LongLatencyWeight) + latency * LongLatencyWeight
+          // after an outage let the average follow recovered latencies faster, so that the next one is noticed
+          if (longLatencyNanos > latency * 2) longLatencyNanos = longLatencyNanos * 0.9 + latency * 0.1
+
+          val gradient = math.max(MinGradient, math.min(1.0, tolerance * longLatencyNanos / latency))
+          // only grow while the limit is in use, so that it does not drift up while the pool is mostly idle
+          if (gradient < 1.0 || _inFlight * 2 >= _limit) update(gradient)
+        }
+      }
+      _inFlight -= 1
+      adaptive && wasLimited && hasCapacity
+    }
+
+    private def update(gradient: Double): Unit = {
+      val target = if (gradient < 1.0) _limit * gradient else _limit + math.sqrt(_limit)
+      val next = math.max(1.0, math.min(maxLimit.toDouble, _limit * (1 - Smoothing) + target * Smoothing))
+      val changed = next.toInt != _limit.toInt
+      _limit = next
+      if (changed) onLimitChanged(limit)
+    }
+  }
+}
@@ -21,7 +21,7 @@ import pekko.annotation.InternalApi
 import pekko.http.impl.engine.client.PoolFlow.RequestContext
 import pekko.http.impl.util._
 import pekko.http.scaladsl.Http
-import pekko.http.scaladsl.model.HttpResponse
+import pekko.http.scaladsl.model.{ HttpResponse, RetryBudgetExhaustedException }
 import pekko.http.scaladsl.settings.ConnectionPoolSettings
 import pekko.macros.LogHelper
 
@@ -41,6 +41,9 @@ private[pool] abstract class SlotContext extends LogHelper {
 
   def dispatchResponseResult(req: RequestContext, result: Try[HttpResponse]): Unit
 
+  /** Takes a retry from the retry budget of the pool, returns `false` if the budget is used up */
+  def withdrawRetry(): Boolean
+
   def willCloseAfter(res: HttpResponse): Boolean
 
   def settings: ConnectionPoolSettings
@@ -155,11 +158,14 @@ private[pool] object SlotState {
     private def failOngoingRequest(ctx: SlotContext, signal: String, cause: Throwable): SlotState = {
       ctx.debug(
         s"Ongoing request [${ongoingRequest.request.debugString}] is failed because of [$signal]: [${cause.getMessage}]")
-      if (ongoingRequest.canBeRetried) { // push directly because it will be buffered internally
+      if (ongoingRequest.canBeRetried && ctx.withdrawRetry()) { // push directly because it will be buffered internally
         ctx.dispatchResponseResult(ongoingRequest, Failure(cause))
         if (waitingForEndOfRequestEntity) WaitingForEndOfRequestEntity
         else Failed(cause)
-      } else
+      } else if (ongoingRequest.canBeRetried)
+        WaitingForResponseDispatch(ongoingRequest.copy(retriesLeft = 0),
+          Failure(RetryBudgetExhaustedException(ongoingRequest.request, cause)), waitingForEndOfRequestEntity)
+      else
         WaitingForResponseDispatch(ongoingRequest, Failure(cause), waitingForEndOfRequestEntity)
     }
   }
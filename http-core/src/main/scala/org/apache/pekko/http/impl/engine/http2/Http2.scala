@@ -27,6 +27,7 @@ import pekko.dispatch.ExecutionContexts
 import pekko.event.LoggingAdapter
 import pekko.http.impl.engine.HttpConnectionIdleTimeoutBidi
 import pekko.http.impl.engine.server.{
+  AdmissionControl,
   GracefulTerminatorStage,
   MasterServerTerminator,
   ServerTerminator,
@@ -91,12 +92,17 @@ private[http] final class Http2Ext(implicit val system: ActorSystem)
       else if (connectionContext.isSecure) settings.defaultHttpsPort
       else settings.defaultHttpPort
 
+    // shared by the HTTP/1 and HTTP/2 connections of the binding
+    val limiter = AdmissionControl.limiter(settings, Http().metrics)
+
     val http1: HttpImplementation =
-      Flow[HttpRequest].mapAsync(settings.pipeliningLimit)(handleUpgradeRequests(handler, settings, log))
-        .joinMat(GracefulTerminatorStage(system, settings).atop(http.serverLayer(settings, log = log)))(Keep.right)
+      Flow[HttpRequest].mapAsync(settings.pipeliningLimit)(handleUpgradeRequests(handler, settings, log, limiter))
+        .joinMat(GracefulTerminatorStage(system, settings).atop(
+          http.serverLayerImpl(settings, None, log, isSecureConnection = false, limiter)))(Keep.right)
     val http2: HttpImplementation =
       Http2Blueprint.handleWithStreamIdHeader(settings.http2Settings.maxConcurrentStreams)(handler)(system.dispatcher)
-        .joinMat(Http2Blueprint.serverStackTls(settings, log, telemetry, Http().dateHeaderRendering))(Keep.right)
+        .joinMat(Http2Blueprint.serverStackTls(settings, log, telemetry, Http().dateHeaderRendering,
+          Http().metrics, limiter))(Keep.right)
 
     val masterTerminator = new MasterServerTerminator(log)
 
@@ -150,7 +156,8 @@ private[http] final class Http2Ext(implicit val system: ActorSystem)
   private def handleUpgradeRequests(
       handler: HttpRequest => Future[HttpResponse],
       settings: ServerSettings,
-      log: LoggingAdapter): HttpRequest => Future[HttpResponse] = { req =>
+      log: LoggingAdapter,
+      limiter: Option[AdmissionControl.ConcurrencyLimiter]): HttpRequest => Future[HttpResponse] = { req =>
     req.header[Upgrade] match {
       case Some(upgrade) if upgrade.protocols.exists(_.name.equalsIgnoreCase("h2c")) =>
         log.debug("Got h2c upgrade request from HTTP/1.1 to HTTP2")
@@ -176,7 +183,7 @@ private[http] final class Http2Ext(implicit val system: ActorSystem)
                   system.dispatcher))
                 // the settings from the header are injected into the blueprint as initial demuxer settings
                 .joinMat(Http2Blueprint.serverStack(settings, log, settingsFromHeader, true, telemetry,
-                  Http().dateHeaderRendering))(Keep.left))
+                  Http().dateHeaderRendering, Http().metrics, limiter))(Keep.left))
 
             Future.successful(
               HttpResponse(
@@ -17,6 +17,7 @@ import org.apache.pekko
 import pekko.NotUsed
 import pekko.annotation.InternalApi
 import pekko.event.LoggingAdapter
+import pekko.http.HttpMetrics
 import pekko.http.impl.engine.{ HttpConnectionIdleTimeoutBidi, HttpIdleTimeoutException }
 import pekko.http.impl.engine.http2.FrameEvent._
 import pekko.http.impl.engine.http2.client.ResponseParsing
@@ -24,7 +25,7 @@ import pekko.http.impl.engine.http2.framing.{ FrameRenderer, Http2FrameParsing }
 import pekko.http.impl.engine.http2.hpack.{ HeaderCompression, HeaderDecompression }
 import pekko.http.impl.engine.parsing.HttpHeaderParser
 import pekko.http.impl.engine.rendering.DateHeaderRendering
-import pekko.http.impl.engine.server.ServerTerminator
+import pekko.http.impl.engine.server.{ AdmissionControl, ServerMetrics, ServerTerminator }
 import pekko.http.impl.util.LogByteStringTools.logTLSBidiBySetting
 import pekko.http.impl.util.StreamUtils
 import pekko.http.scaladsl.model._
@@ -107,9 +108,11 @@ private[http2] object Http2SubStream {
 private[http] object Http2Blueprint {
 
   def serverStackTls(settings: ServerSettings, log: LoggingAdapter, telemetry: TelemetrySpi,
-      dateHeaderRendering: DateHeaderRendering)
+      dateHeaderRendering: DateHeaderRendering, metrics: HttpMetrics = HttpMetrics.NoOp,
+      limiter: Option[AdmissionControl.ConcurrencyLimiter] = None)
       : BidiFlow[HttpResponse, SslTlsOutbound, SslTlsInbound, HttpRequest, ServerTerminator] =
-    serverStack(settings, log, telemetry = telemetry, dateHeaderRendering = dateHeaderRendering).atop(
+    serverStack(settings, log, telemetry = telemetry, dateHeaderRendering = dateHeaderRendering,
+      metrics = metrics, limiter = limiter).atop(
       unwrapTls).atop(
       logTLSBidiBySetting("server-plain-text", settings.logUnencryptedNetworkBytes))
 
@@ -120,16 +123,21 @@ private[http] object Http2Blueprint {
       initialDemuxerSettings: immutable.Seq[Setting] = Nil,
       upgraded: Boolean = false,
       telemetry: TelemetrySpi,
-    dateHeaderRendering: DateHeaderRendering): BidiFlow[HttpResponse, ByteString, ByteString, HttpRequest, ServerTerminator] = {
+    dateHeaderRendering: DateHeaderRendering,
+    metrics: HttpMetrics = HttpMetrics.NoOp,
+    limiter: Option[AdmissionControl.ConcurrencyLimiter] = None): BidiFlow[HttpResponse, ByteString, ByteString, HttpRequest, ServerTerminator] = {
     val masterHttpHeaderParser = HttpHeaderParser(settings.parserSettings, log) // FIXME: reuse for framing
     telemetry.serverConnection atop
+      AdmissionControl(limiter, settings, metrics, ordered = false) atop
+      requestMetrics(metrics) atop
       httpLayer(settings, log, dateHeaderRendering) atopKeepRight
       serverDemux(settings.http2Settings, initialDemuxerSettings, upgraded) atop
       FrameLogger.logFramesIfEnabled(settings.http2Settings.logFrames) atop // enable for debugging
       hpackCoding(masterHttpHeaderParser, settings.parserSettings) atop
       framing(log) atop
       errorHandling(log) atop
-      idleTimeoutIfConfigured(settings.idleTimeout)
+      idleTimeoutIfConfigured(settings.idleTimeout) atop
+      byteMetrics(metrics)
   }
 
   // LogByteStringTools.logToStringBidi("framing") atop // enable for debugging
@@ -163,6 +171,14 @@ private[http] object Http2Blueprint {
         stream => ResponseParsing.parseResponse(headerParser, settings.parserSettings, attrs)(stream)
       })
 
+  def requestMetrics(metrics: HttpMetrics): BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
+    if (metrics eq HttpMetrics.NoOp) BidiFlow.identity[HttpResponse, HttpRequest]
+    else ServerMetrics.requests(metrics, HttpProtocols.`HTTP/2.0`)
+
+  def byteMetrics(metrics: HttpMetrics): BidiFlow[ByteString, ByteString, ByteString, ByteString, NotUsed] =
+    if (metrics eq HttpMetrics.NoOp) BidiFlow.identity[ByteString, ByteString]
+    else ServerMetrics.bytes[ByteString](metrics)(identity)
+
   def idleTimeoutIfConfigured(timeout: Duration): BidiFlow[ByteString, ByteString, ByteString, ByteString, NotUsed] =
     timeout match {
       case f: FiniteDuration => HttpConnectionIdleTimeoutBidi(f, None)
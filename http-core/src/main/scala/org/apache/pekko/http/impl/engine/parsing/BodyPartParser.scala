@@ -242,11 +242,38 @@ private[http] final class BodyPartParser(
             val emitEnd = input.length - eolConfiguration.needle.length - eolConfiguration.eolLength
             if (emitEnd > offset) {
               emitPartChunk(headers, contentType, input.slice(offset, emitEnd))
-              val simpleEmit: (List[HttpHeader], ContentType, ByteString) => Unit = (_, _, bytes) => emit(bytes)
-              continue(input.drop(emitEnd), 0)(parseEntity(null, null, simpleEmit, simpleEmit))
+              continueEntity(input.drop(emitEnd))
             } else continue(input, offset)(parseEntity(headers, contentType, emitPartChunk, emitFinalPartChunk))
         }
 
+      private val simpleEmit: (List[HttpHeader], ContentType, ByteString) => Unit = (_, _, bytes) => emit(bytes)
+
+      /**
+       * Continues parsing entity data with the next input after `tail`, the (short) end of the previous input which
+       * might contain the start of a boundary.
+       *
+       * Instead of always searching through `tail ++ more` (which would make all further emitted entity data slices
+       * of a rope `ByteString` that need to be compacted by consumers later), we first check with a small compacted
+       * probe whether a boundary starts in `tail`. If not, `tail` is emitted on its own and parsing continues directly
+       * on the unchanged `more` so that entity data is passed on as plain slices of the received `ByteString`s.
+       */
+      def continueEntity(tail: ByteString): StateResult = {
+        state = { more =>
+          val needleLength = eolConfiguration.needle.length
+          def boundaryStartsInTail: Boolean =
+            try eolConfiguration.boyerMoore.nextIndex((tail ++ more.take(needleLength)).compact, 0) < tail.length
+            catch { case NotEnoughDataException => false }
+
+          if (more.length < needleLength || boundaryStartsInTail)
+            parseEntity(null, null, simpleEmit, simpleEmit)(tail ++ more, 0)
+          else {
+            emit(tail)
+            parseEntity(null, null, simpleEmit, simpleEmit)(more, 0)
+          }
+        }
+        done()
+      }
+
       def emit(bytes: ByteString): Unit = if (bytes.nonEmpty) emit(EntityPart(bytes))
 
       def emit(element: Output): Unit = output = output.enqueue(element)
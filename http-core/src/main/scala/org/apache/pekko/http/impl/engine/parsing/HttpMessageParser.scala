@@ -241,11 +241,11 @@ private[http] trait HttpMessageParser[Output >: MessageOutput <: ParserOutput] {
     val remainingInputBytes = input.length - bodyStart
     if (remainingInputBytes > 0) {
       if (remainingInputBytes < remainingBodyBytes) {
-        emit(EntityPart(input.drop(bodyStart).compact))
+        emit(EntityPart(entityBytes(input.drop(bodyStart))))
         continue(parseFixedLengthBody(remainingBodyBytes - remainingInputBytes, isLastMessage))
       } else {
         val offset = bodyStart + remainingBodyBytes.toInt
-        emit(EntityPart(input.slice(bodyStart, offset).compact))
+        emit(EntityPart(entityBytes(input.slice(bodyStart, offset))))
         emit(MessageEnd)
         setCompletionHandling(CompletionOk)
         if (isLastMessage) terminate()
@@ -285,7 +285,7 @@ private[http] trait HttpMessageParser[Output >: MessageOutput <: ParserOutput] {
       if (chunkSize > 0) {
         val chunkBodyEnd = cursor + chunkSize
         def result(terminatorLen: Int) = {
-          emit(EntityChunk(HttpEntity.Chunk(input.slice(cursor, chunkBodyEnd).compact, extension)))
+          emit(EntityChunk(HttpEntity.Chunk(entityBytes(input.slice(cursor, chunkBodyEnd)), extension)))
           Trampoline(_ => parseChunk(input, chunkBodyEnd + terminatorLen, isLastMessage, totalBytesRead + chunkSize))
         }
         byteChar(input, chunkBodyEnd) match {
@@ -325,6 +325,13 @@ private[http] trait HttpMessageParser[Output >: MessageOutput <: ParserOutput] {
     }
   }
 
+  /**
+   * Entity data is copied out of the network buffer by default so that it doesn't retain the complete buffer.
+   * With `compact-entity-bytes = off` the (zero-copy) slice of the network buffer is passed on as is.
+   */
+  private def entityBytes(bytes: ByteString): ByteString =
+    if (settings.compactEntityBytes) bytes.compact else bytes
+
   protected def emit(output: Output): Unit = result match {
     case null                                  => result = output
     case buffer: ListBuffer[Output] @unchecked => buffer += output
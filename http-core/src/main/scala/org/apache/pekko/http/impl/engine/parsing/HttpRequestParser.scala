@@ -67,6 +67,8 @@ private[http] final class HttpRequestParser(
       private[this] var method: HttpMethod = _
       private[this] var uri: Uri = _
       private[this] var uriBytes: ByteString = _
+      // when parsing of the current message started, only if request timings are enabled
+      private[this] var messageStarted: Long = 0L
 
       override def onPush(): Unit = handleParserOutput(parseSessionBytes(grab(in)))
       override def onPull(): Unit = handleParserOutput(doPull())
@@ -87,6 +89,7 @@ private[http] final class HttpRequestParser(
 
       override def parseMessage(input: ByteString, offset: Int): StateResult =
         if (offset < input.length) {
+          if (includeRequestTimingsAttribute && messageStarted == 0L) messageStarted = System.nanoTime()
           var cursor = parseMethod(input, offset)
           cursor = parseRequestTarget(input, cursor)
           cursor = parseProtocol(input, cursor)
@@ -197,9 +200,16 @@ private[http] final class HttpRequestParser(
                 `Raw-Request-URI`(uriBytes.decodeString(HttpCharsets.`US-ASCII`.nioCharset)) :: headers
               else headers
 
-            val attributes: Map[AttributeKey[_], Any] =
+            val sslAttributes: Map[AttributeKey[_], Any] =
               if (settings.includeSslSessionAttribute) Map(AttributeKeys.sslSession -> SslSessionInfo(sslSession))
               else Map.empty
+            val attributes =
+              if (includeRequestTimingsAttribute) {
+                val timings = new RequestTimings(messageStarted)
+                timings.markParsed()
+                messageStarted = 0L
+                sslAttributes.updated(AttributeKeys.requestTimings, timings)
+              } else sslAttributes
 
             val requestStart =
               if (method == HttpMethods.GET) {
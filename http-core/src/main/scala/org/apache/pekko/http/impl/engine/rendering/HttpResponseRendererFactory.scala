@@ -20,6 +20,7 @@ import pekko.stream.{ Attributes, FlowShape, Inlet, Outlet }
 import scala.collection.immutable
 import scala.annotation.tailrec
 import pekko.event.LoggingAdapter
+import pekko.http.HttpMetrics
 import pekko.util.ByteString
 import pekko.stream.scaladsl.{ Flow, Source }
 import pekko.stream.stage._
@@ -44,7 +45,8 @@ private[http] class HttpResponseRendererFactory(
     serverHeader: Option[headers.Server],
     responseHeaderSizeHint: Int,
     log: LoggingAdapter,
-    dateHeaderRendering: DateHeaderRendering) {
+    dateHeaderRendering: DateHeaderRendering,
+    metrics: HttpMetrics = HttpMetrics.NoOp) {
 
   private val renderDefaultServerHeader: Rendering => Unit =
     serverHeader match {
@@ -71,13 +73,17 @@ private[http] class HttpResponseRendererFactory(
 
         setHandler(in,
           new InHandler {
-            override def onPush(): Unit =
-              render(grab(in)) match {
+            override def onPush(): Unit = {
+              val ctx = grab(in)
+              render(ctx) match {
                 case Strict(outElement) =>
+                  markRendered(ctx)
                   push(out, outElement)
+                  markCompleted(ctx)
                   if (close) completeStage()
                 case HeadersAndStreamedEntity(headerData, outStream) =>
-                  try transfer(headerData, outStream)
+                  markRendered(ctx)
+                  try transfer(headerData, outStream, ctx)
                   catch {
                     case NonFatal(e) =>
                       log.error(e,
@@ -87,6 +93,7 @@ private[http] class HttpResponseRendererFactory(
                           entity = StatusCodes.InternalServerError.defaultMessage))).asInstanceOf[Strict].bytes)
                   }
               }
+            }
 
             override def onUpstreamFinish(): Unit =
               if (transferring) closeMode = CloseConnection
@@ -108,15 +115,17 @@ private[http] class HttpResponseRendererFactory(
         }
 
         setHandler(out, waitForDemandHandler)
-        def transfer(headerData: ByteString, outStream: Source[ByteString, Any]): Unit = {
+        def transfer(headerData: ByteString, outStream: Source[ByteString, Any], ctx: ResponseRenderingContext): Unit = {
           val sinkIn = new SubSinkInlet[ByteString]("RenderingSink")
           transferSink = Some(sinkIn)
 
           sinkIn.setHandler(new InHandler {
             override def onPush(): Unit = push(out, ResponseRenderingOutput.HttpData(sinkIn.grab()))
-            override def onUpstreamFinish(): Unit =
+            override def onUpstreamFinish(): Unit = {
+              markCompleted(ctx)
               if (close) completeStage()
               else stopTransfer()
+            }
           })
 
           var headersSent = false
@@ -145,6 +154,20 @@ private[http] class HttpResponseRendererFactory(
           }
         }
 
+        def markRendered(ctx: ResponseRenderingContext): Unit =
+          ctx.timings match {
+            case OptionVal.Some(timings) => timings.markRendered()
+            case _                       =>
+          }
+
+        def markCompleted(ctx: ResponseRenderingContext): Unit =
+          ctx.timings match {
+            case OptionVal.Some(timings) =>
+              timings.markCompleted()
+              metrics.serverRequestPhases(ctx.response, timings)
+            case _ =>
+          }
+
         def render(ctx: ResponseRenderingContext): StrictOrStreamed = {
           val r = new ByteArrayRendering(responseHeaderSizeHint, log.warning)
 
@@ -336,7 +359,8 @@ private[http] final case class ResponseRenderingContext(
     response: HttpResponse,
     requestMethod: HttpMethod = HttpMethods.GET,
     requestProtocol: HttpProtocol = HttpProtocols.`HTTP/1.1`,
-    closeRequested: CloseRequested = CloseRequested.Unspecified)
+    closeRequested: CloseRequested = CloseRequested.Unspecified,
+    timings: OptionVal[RequestTimings] = OptionVal.None)
 
 /**
  * INTERNAL API
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.server
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.annotation.tailrec
+import scala.collection.immutable
+import scala.concurrent.duration.Duration
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.annotation.InternalApi
+import pekko.http.HttpMetrics
+import pekko.http.impl.engine.http2.Http2
+import pekko.http.scaladsl.model.{ HttpHeader, HttpRequest, HttpResponse, StatusCodes }
+import pekko.http.scaladsl.model.headers.`Retry-After`
+import pekko.http.scaladsl.settings.{ LoadSheddingSettings, ServerSettings }
+import pekko.stream.{ Attributes, BidiShape, Inlet, Outlet }
+import pekko.stream.scaladsl.BidiFlow
+import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+
+/**
+ * INTERNAL API
+ *
+ * Answers requests with `503 Service Unavailable` before they reach the handler while the adaptive concurrency limit
+ * of `pekko.http.server.load-shedding` is reached.
+ */
+@InternalApi
+private[http] object AdmissionControl {
+
+  /** The number of shed responses that may wait for being sent before no more requests are read */
+  private final val MaxWaitingShedResponses = 16
+
+  /**
+   * The concurrency limit shared by all connections of a server binding. It is adjusted with every response: a
+   * response slower than the latency threshold multiplies the limit with the backoff ratio, a faster one increases it
+   * by one as long as at least half of the limit was in use.
+   */
+  final class ConcurrencyLimiter(settings: LoadSheddingSettings, metrics: HttpMetrics) {
+    private val latencyThresholdNanos = settings.latencyThreshold.toNanos
+    private val _inFlight = new AtomicInteger
+    private val _limit = new AtomicInteger(settings.initialLimit)
+
+    def limit: Int = _limit.get
+    def inFlight: Int = _inFlight.get
+
+    /** Reserves a place for a request, returns `false` if the limit is reached */
+    @tailrec def tryAcquire(): Boolean = {
+      val current = _inFlight.get
+      if (current >= _limit.get) false
+      else if (_inFlight.compareAndSet(current, current + 1)) true
+      else tryAcquire()
+    }
+
+    /** Frees the place of a request that was answered the given time after it was admitted */
+    def release(latencyNanos: Long): Unit = adjust(latencyNanos, _inFlight.getAndDecrement())
+
+    /** Frees the place of a request that will not be answered, e.g. because its connection was closed */
+    def cancel(): Unit = _inFlight.decrementAndGet()
+
+    @tailrec private def adjust(latencyNanos: Long, inFlight: Int): Unit = {
+      val current = _limit.get
+      val next =
+        if (latencyNanos > latencyThresholdNanos) math.max(settings.minLimit, (current * settings.backoffRatio).toInt)
+        else if (inFlight * 2 >= current) math.min(settings.maxLimit, current + 1)
+        else current
+      if (next != current) {
+        if (_limit.compareAndSet(current, next)) metrics.serverConcurrencyLimitChanged(next)
+        else adjust(latencyNanos, inFlight)
+      }
+    }
+  }
+
+  /** Creates the limiter to share between the connections of a server binding if load shedding is enabled */
+  def limiter(settings: ServerSettings, metrics: HttpMetrics): Option[ConcurrencyLimiter] =
+    if (settings.loadSheddingSettings.enabled) Some(new ConcurrencyLimiter(settings.loadSheddingSettings, metrics))
+    else None
+
+  /**
+   * Admits requests of a connection to the handler as long as the limiter allows. With `ordered` responses are sent in
+   * the order of the requests as required by HTTP/1, otherwise they are matched to their request by the HTTP/2 stream
+   * id.
+   */
+  def apply(limiter: Option[ConcurrencyLimiter], settings: ServerSettings, metrics: HttpMetrics, ordered: Boolean)
+      : BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
+    limiter match {
+      case Some(l) =>
+        BidiFlow.fromGraph(new AdmissionControlStage(l, shedResponse(settings.loadSheddingSettings), metrics, ordered))
+      case None => BidiFlow.identity[HttpResponse, HttpRequest]
+    }
+
+  private def shedResponse(settings: LoadSheddingSettings): HttpResponse = {
+    val retryAfter =
+      if (settings.retryAfter == Duration.Zero) Nil
+      // round up so that clients do not retry right away
+      else `Retry-After`(math.max(1L, (settings.retryAfter.toMillis + 999) / 1000)) :: Nil
+    HttpResponse(
+      StatusCodes.ServiceUnavailable,
+      headers = retryAfter: immutable.Seq[HttpHeader],
+      entity = "The server is currently overloaded.\r\nPlease try again in a short while!")
+  }
+
+  private final class AdmissionControlStage(
+      limiter: ConcurrencyLimiter,
+      shedResponse: HttpResponse,
+      metrics: HttpMetrics,
+      ordered: Boolean)
+      extends GraphStage[BidiShape[HttpResponse, HttpResponse, HttpRequest, HttpRequest]] {
+    val responseIn = Inlet[HttpResponse]("AdmissionControl.responseIn")
+    val responseOut = Outlet[HttpResponse]("AdmissionControl.responseOut")
+    val requestIn = Inlet[HttpRequest]("AdmissionControl.requestIn")
+    val requestOut = Outlet[HttpRequest]("AdmissionControl.requestOut")
+    val shape = BidiShape(responseIn, responseOut, requestIn, requestOut)
+
+    override def initialAttributes: Attributes = Attributes.name("AdmissionControl")
+
+    def createLogic(inheritedAttributes: Attributes): GraphStageLogic = new GraphStageLogic(shape) {
+      // The requests waiting for their response to be sent, in the order they arrived. Admitted requests have the
+      // time they were admitted at and no response until the handler answers them, shed requests have no time and
+      // their response right away.
+      private var admittedAt = new Array[Long](4)
+      private var streamIds = new Array[Int](4)
+      private var responses = new Array[HttpResponse](4)
+      private var pendingCount = 0
+      // the number of responses from the handler and of shed responses that wait for `responseOut`
+      private var waitingHandlerResponses = 0
+      private var waitingShedResponses = 0
+
+      setHandler(requestIn,
+        new InHandler {
+          def onPush(): Unit = {
+            val request = grab(requestIn)
+            val streamId = request.attribute(Http2.streamId).getOrElse(-1)
+            if (limiter.tryAcquire()) {
+              append(System.nanoTime(), streamId, null)
+              push(requestOut, request)
+            } else {
+              metrics.serverRequestShed(request)
+              request.discardEntityBytes()(materializer)
+              val response = if (streamId >= 0) shedResponse.addAttribute(Http2.streamId, streamId) else shedResponse
+              append(-1L, streamId, response)
+              waitingShedResponses += 1
+              emitResponse()
+              pullRequest()
+            }
+          }
+          override def onUpstreamFinish(): Unit = complete(requestOut)
+        })
+      setHandler(requestOut,
+        new OutHandler {
+          def onPull(): Unit = pullRequest()
+          override def onDownstreamFinish(cause: Throwable): Unit = cancel(requestIn, cause)
+        })
+      setHandler(responseIn,
+        new InHandler {
+          def onPush(): Unit = {
+            val response = grab(responseIn)
+            val i = indexOfRequestFor(response)
+            if (i >= 0) {
+              limiter.release(System.nanoTime() - admittedAt(i))
+              responses(i) = response
+            } else append(-1L, -1, response) // cannot happen, pass it on anyway
+            waitingHandlerResponses += 1
+            emitResponse()
+          }
+          override def onUpstreamFinish(): Unit = completeResponsesIfDone()
+        })
+      setHandler(responseOut,
+        new OutHandler {
+          def onPull(): Unit = emitResponse()
+          override def onDownstreamFinish(cause: Throwable): Unit = cancel(responseIn, cause)
+        })
+
+      override def postStop(): Unit = {
+        var i = 0
+        while (i < pendingCount) {
+          if (admittedAt(i) >= 0 && (responses(i) eq null)) limiter.cancel()
+          i += 1
+        }
+      }
+
+      private def pullRequest(): Unit =
+        if (isAvailable(requestOut) && !hasBeenPulled(requestIn) && !isClosed(requestIn) &&
+          waitingShedResponses < MaxWaitingShedResponses) pull(requestIn)
+
+      private def emitResponse(): Unit = {
+        if (isAvailable(responseOut)) {
+          val i = indexOfNextResponse
+          if (i >= 0) {
+            val response = responses(i)
+            if (admittedAt(i) >= 0) waitingHandlerResponses -= 1
+            else waitingShedResponses -= 1
+            remove(i)
+            push(responseOut, response)
+            pullRequest()
+          }
+        }
+        if (waitingHandlerResponses == 0 && !hasBeenPulled(responseIn) && !isClosed(responseIn)) pull(responseIn)
+        completeResponsesIfDone()
+      }
+
+      /** Completes `responseOut` once the handler completed and no more responses can be sent */
+      private def completeResponsesIfDone(): Unit =
+        if (isClosed(responseIn) && indexOfNextResponse < 0) complete(responseOut)
+
+      private def indexOfNextResponse: Int =
+        if (ordered) {
+          if (pendingCount > 0 && (responses(0) ne null)) 0 else -1
+        } else {
+          var i = 0
+          while (i < pendingCount && (responses(i) eq null)) i += 1
+          if (i < pendingCount) i else -1
+        }
+
+      private def indexOfRequestFor(response: HttpResponse): Int = {
+        val streamId = response.attribute(Http2.streamId).getOrElse(-1)
+        var i = 0
+        // the oldest unanswered request, or the one with the stream id of the response
+        while (i < pendingCount && (admittedAt(i) < 0 || (responses(i) ne null) || streamIds(i) != streamId)) i += 1
+        if (i < pendingCount) i else -1
+      }
+
+      private def append(admitted: Long, streamId: Int, response: HttpResponse): Unit = {
+        if (pendingCount == responses.length) grow()
+        admittedAt(pendingCount) = admitted
+        streamIds(pendingCount) = streamId
+        responses(pendingCount) = response
+        pendingCount += 1
+      }
+
+      private def remove(i: Int): Unit = {
+        val moved = pendingCount - i - 1
+        System.arraycopy(admittedAt, i + 1, admittedAt, i, moved)
+        System.arraycopy(streamIds, i + 1, streamIds, i, moved)
+        System.arraycopy(responses, i + 1, responses, i, moved)
+        pendingCount -= 1
+        responses(pendingCount) = null
+      }
+
+      private def grow(): Unit = {
+        admittedAt = java.util.Arrays.copyOf(admittedAt, admittedAt.length * 2)
+        streamIds = java.util.Arrays.copyOf(streamIds, streamIds.length * 2)
+        responses = java.util.Arrays.copyOf(responses, responses.length * 2)
+      }
+    }
+  }
+}
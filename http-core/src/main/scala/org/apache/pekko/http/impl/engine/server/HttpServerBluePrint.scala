@@ -25,8 +25,9 @@ import pekko.annotation.InternalApi
 import pekko.dispatch.ExecutionContexts
 import pekko.japi.Function
 import pekko.event.LoggingAdapter
-import pekko.http.ParsingErrorHandler
+import pekko.http.{ HttpMetrics, ParsingErrorHandler }
 import pekko.util.ByteString
+import pekko.util.OptionVal
 import pekko.stream._
 import pekko.stream.TLSProtocol._
 import pekko.stream.scaladsl._
@@ -75,40 +76,62 @@ import scala.util.Failure
 @InternalApi
 private[http] object HttpServerBluePrint {
   def apply(settings: ServerSettings, log: LoggingAdapter, isSecureConnection: Boolean,
-      dateHeaderRendering: DateHeaderRendering): Http.ServerLayer =
+      dateHeaderRendering: DateHeaderRendering, metrics: HttpMetrics = HttpMetrics.NoOp,
+      limiter: Option[AdmissionControl.ConcurrencyLimiter] = None): Http.ServerLayer =
     userHandlerGuard(settings.pipeliningLimit).atop(
-      requestTimeoutSupport(settings.timeouts.requestTimeout, log)).atop(
+      requestTimeoutSupport(settings.timeouts.requestTimeout, log, metrics)).atop(
+      AdmissionControl(limiter, settings, metrics, ordered = true)).atop(
+      requestMetrics(metrics)).atop(
       requestPreparation(settings)).atop(
-      controller(settings, log)).atop(
-      parsingRendering(settings, log, isSecureConnection, dateHeaderRendering)).atop(
+      controller(settings, log, metrics)).atop(
+      parsingRendering(settings, log, isSecureConnection, dateHeaderRendering, metrics)).atop(
       websocketSupport(settings, log)).atop(
+      responseCoalescing(settings)).atop(
+      byteMetrics(metrics)).atop(
       tlsSupport).atop(
       logTLSBidiBySetting("server-plain-text", settings.logUnencryptedNetworkBytes))
 
   val tlsSupport: BidiFlow[ByteString, SslTlsOutbound, SslTlsInbound, SessionBytes, NotUsed] =
     BidiFlow.fromFlows(Flow[ByteString].map(SendBytes), Flow[SslTlsInbound].collect { case x: SessionBytes => x })
 
+  def responseCoalescing(
+      settings: ServerSettings): BidiFlow[ByteString, ByteString, SessionBytes, SessionBytes, NotUsed] =
+    if (settings.responseCoalescingMaxBytes == 0) BidiFlow.identity[ByteString, SessionBytes]
+    else
+      BidiFlow.fromFlows(
+        StreamUtils.coalesceByteStrings(settings.responseCoalescingMaxBytes, settings.responseCoalescingMaxDelay),
+        Flow[SessionBytes])
+
   def websocketSupport(settings: ServerSettings, log: LoggingAdapter)
       : BidiFlow[ResponseRenderingOutput, ByteString, SessionBytes, SessionBytes, NotUsed] =
     BidiFlow.fromGraph(new ProtocolSwitchStage(settings, log))
 
   def parsingRendering(settings: ServerSettings, log: LoggingAdapter, isSecureConnection: Boolean,
-      dateHeaderRendering: DateHeaderRendering)
+      dateHeaderRendering: DateHeaderRendering, metrics: HttpMetrics = HttpMetrics.NoOp)
       : BidiFlow[ResponseRenderingContext, ResponseRenderingOutput, SessionBytes, RequestOutput, NotUsed] =
-    BidiFlow.fromFlows(rendering(settings, log, dateHeaderRendering), parsing(settings, log, isSecureConnection))
+    BidiFlow.fromFlows(rendering(settings, log, dateHeaderRendering, metrics),
+      parsing(settings, log, isSecureConnection))
+
+  def byteMetrics(metrics: HttpMetrics): BidiFlow[ByteString, ByteString, SessionBytes, SessionBytes, NotUsed] =
+    if (metrics eq HttpMetrics.NoOp) BidiFlow.identity[ByteString, SessionBytes]
+    else ServerMetrics.bytes[SessionBytes](metrics)(_.bytes)
 
-  def controller(settings: ServerSettings, log: LoggingAdapter)
+  def controller(settings: ServerSettings, log: LoggingAdapter, metrics: HttpMetrics = HttpMetrics.NoOp)
       : BidiFlow[HttpResponse, ResponseRenderingContext, RequestOutput, RequestOutput, NotUsed] =
-    BidiFlow.fromGraph(new ControllerStage(settings, log)).reversed
+    BidiFlow.fromGraph(new ControllerStage(settings, log, metrics)).reversed
+
+  def requestMetrics(metrics: HttpMetrics): BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
+    if (metrics eq HttpMetrics.NoOp) BidiFlow.identity[HttpResponse, HttpRequest]
+    else ServerMetrics.requests(metrics, HttpProtocols.`HTTP/1.1`)
 
   def requestPreparation(
       settings: ServerSettings): BidiFlow[HttpResponse, HttpResponse, RequestOutput, HttpRequest, NotUsed] =
     BidiFlow.fromFlows(Flow[HttpResponse], new PrepareRequests(settings))
 
-  def requestTimeoutSupport(
-      timeout: Duration, log: LoggingAdapter): BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
+  def requestTimeoutSupport(timeout: Duration, log: LoggingAdapter, metrics: HttpMetrics = HttpMetrics.NoOp)
+      : BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
     if (timeout == Duration.Zero) BidiFlow.identity[HttpResponse, HttpRequest]
-    else BidiFlow.fromGraph(new RequestTimeoutSupport(timeout, log)).reversed
+    else BidiFlow.fromGraph(new RequestTimeoutSupport(timeout, log, metrics)).reversed
 
   /**
    * Two state stage, either transforms an incoming RequestOutput into a HttpRequest with strict entity and then pushes
@@ -175,6 +198,8 @@ private[http] object HttpServerBluePrint {
               }
             } else httpRequest
 
+            if (settings.parserSettings.includeRequestTimingsAttribute)
+              effectiveHttpRequest.attribute(AttributeKeys.requestTimings).foreach(_.markDispatched())
             push(out, effectiveHttpRequest)
           case other =>
             throw new IllegalStateException(s"unexpected element of type ${other.getClass}")
@@ -278,18 +303,18 @@ private[http] object HttpServerBluePrint {
     Flow[SessionBytes].via(rootParser).map(establishAbsoluteUri)
   }
 
-  def rendering(settings: ServerSettings, log: LoggingAdapter, dateHeaderRendering: DateHeaderRendering)
-      : Flow[ResponseRenderingContext, ResponseRenderingOutput, NotUsed] = {
+  def rendering(settings: ServerSettings, log: LoggingAdapter, dateHeaderRendering: DateHeaderRendering,
+      metrics: HttpMetrics = HttpMetrics.NoOp): Flow[ResponseRenderingContext, ResponseRenderingOutput, NotUsed] = {
     import settings._
 
     val responseRendererFactory =
-      new HttpResponseRendererFactory(serverHeader, responseHeaderSizeHint, log, dateHeaderRendering)
+      new HttpResponseRendererFactory(serverHeader, responseHeaderSizeHint, log, dateHeaderRendering, metrics)
 
     Flow[ResponseRenderingContext]
       .via(responseRendererFactory.renderer.named("renderer"))
   }
 
-  class RequestTimeoutSupport(initialTimeout: Duration, log: LoggingAdapter)
+  class RequestTimeoutSupport(initialTimeout: Duration, log: LoggingAdapter, metrics: HttpMetrics = HttpMetrics.NoOp)
       extends GraphStage[BidiShape[HttpRequest, HttpRequest, HttpResponse, HttpResponse]] {
     private val requestIn = Inlet[HttpRequest]("RequestTimeoutSupport.requestIn")
     private val requestOut = Outlet[HttpRequest]("RequestTimeoutSupport.requestOut")
@@ -307,6 +332,7 @@ private[http] object HttpServerBluePrint {
       val callback: AsyncCallback[(TimeoutAccess, HttpResponse)] = getAsyncCallback {
         case (timeout, response) =>
           if (openTimeouts.headOption.exists(_ eq timeout)) {
+            metrics.serverRequestTimedOut(openTimeouts.head.request)
             emit(responseOut, response, () => completeStage())
           }
       }
@@ -358,7 +384,7 @@ private[http] object HttpServerBluePrint {
     override def cancel(): Boolean = true
   }
 
-  private class TimeoutAccessImpl(request: HttpRequest, initialTimeout: Duration, requestEnd: Future[Unit],
+  private class TimeoutAccessImpl(val request: HttpRequest, initialTimeout: Duration, requestEnd: Future[Unit],
       trigger: AsyncCallback[(TimeoutAccess, HttpResponse)],
       materializer: Materializer, log: LoggingAdapter)
       extends AtomicReference[Future[TimeoutSetup]] with TimeoutAccess with (HttpRequest => HttpResponse) { self =>
@@ -419,7 +445,7 @@ private[http] object HttpServerBluePrint {
     def timeout = currentTimeout
   }
 
-  class ControllerStage(settings: ServerSettings, log: LoggingAdapter)
+  class ControllerStage(settings: ServerSettings, log: LoggingAdapter, metrics: HttpMetrics = HttpMetrics.NoOp)
       extends GraphStage[BidiShape[RequestOutput, RequestOutput, HttpResponse, ResponseRenderingContext]] {
     private val requestParsingIn = Inlet[RequestOutput]("ControllerStage.requestParsingIn")
     private val requestPrepOut = Outlet[RequestOutput]("ControllerStage.requestPrepOut")
@@ -523,8 +549,18 @@ private[http] object HttpServerBluePrint {
                 else if (requestStart.closeRequested) CloseRequested.RequestAskedForClosing
                 else CloseRequested.Unspecified
 
+              val timings: OptionVal[RequestTimings] =
+                if (settings.parserSettings.includeRequestTimingsAttribute)
+                  requestStart.attributes.get(AttributeKeys.requestTimings) match {
+                    case Some(t: RequestTimings) =>
+                      t.markResponded()
+                      OptionVal.Some(t)
+                    case _ => OptionVal.None
+                  }
+                else OptionVal.None
+
               emit(responseCtxOut,
-                ResponseRenderingContext(response, requestStart.method, requestStart.protocol, close),
+                ResponseRenderingContext(response, requestStart.method, requestStart.protocol, close, timings),
                 pullHttpResponseIn)
               if (!isClosed(requestParsingIn) && close.shouldClose && requestStart.expect100Continue)
                 maybePullRequestParsingIn()
@@ -569,6 +605,7 @@ private[http] object HttpServerBluePrint {
           })
 
         def finishWithIllegalRequestError(status: StatusCode, info: ErrorInfo): Unit = {
+          metrics.serverParsingError(status)
           val errorResponse = JavaMapping.toScala(parsingErrorHandler.handle(status, info, log, settings))
           emitErrorResponse(errorResponse)
         }
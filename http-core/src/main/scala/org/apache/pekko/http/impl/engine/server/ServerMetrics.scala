@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.server
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.annotation.InternalApi
+import pekko.http.HttpMetrics
+import pekko.http.impl.engine.http2.Http2
+import pekko.http.scaladsl.model.{ HttpProtocol, HttpRequest, HttpResponse }
+import pekko.stream.{ Attributes, BidiShape, Inlet, Outlet }
+import pekko.stream.scaladsl.{ BidiFlow, Flow }
+import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+import pekko.util.ByteString
+
+/**
+ * INTERNAL API
+ *
+ * Reports the events of a server connection to the [[HttpMetrics]] of the system.
+ */
+@InternalApi
+private[http] object ServerMetrics {
+
+  /** Reports the bytes sent and received, with a function extracting the bytes from the received elements */
+  def bytes[In](metrics: HttpMetrics)(received: In => ByteString): BidiFlow[ByteString, ByteString, In, In, NotUsed] =
+    BidiFlow.fromFlows(
+      Flow[ByteString].map { bytes => metrics.serverBytesSent(bytes.size); bytes },
+      Flow[In].map { in => metrics.serverBytesReceived(received(in).size); in })
+
+  /** Reports the connection and its requests */
+  def requests(metrics: HttpMetrics, protocol: HttpProtocol)
+      : BidiFlow[HttpResponse, HttpResponse, HttpRequest, HttpRequest, NotUsed] =
+    BidiFlow.fromGraph(new RequestMetricsStage(metrics, protocol))
+
+  private final class RequestMetricsStage(metrics: HttpMetrics, protocol: HttpProtocol)
+      extends GraphStage[BidiShape[HttpResponse, HttpResponse, HttpRequest, HttpRequest]] {
+    val responseIn = Inlet[HttpResponse]("ServerMetrics.responseIn")
+    val responseOut = Outlet[HttpResponse]("ServerMetrics.responseOut")
+    val requestIn = Inlet[HttpRequest]("ServerMetrics.requestIn")
+    val requestOut = Outlet[HttpRequest]("ServerMetrics.requestOut")
+    val shape = BidiShape(responseIn, responseOut, requestIn, requestOut)
+
+    override def initialAttributes: Attributes = Attributes.name("ServerMetrics")
+
+    def createLogic(inheritedAttributes: Attributes): GraphStageLogic = new GraphStageLogic(shape) {
+      // The requests waiting for a response, in the order they arrived. HTTP/2 responses are matched to their
+      // request by the stream id, others belong to the oldest request.
+      private var pending = new Array[HttpRequest](4)
+      private var startNanos = new Array[Long](4)
+      private var streamIds = new Array[Int](4)
+      private var pendingCount = 0
+
+      override def preStart(): Unit = metrics.serverConnectionOpened(protocol)
+      override def postStop(): Unit = metrics.serverConnectionClosed(protocol)
+
+      setHandler(requestIn,
+        new InHandler {
+          def onPush(): Unit = {
+            val request = grab(requestIn)
+            metrics.serverRequestStarted(request)
+            if (pendingCount == pending.length) grow()
+            pending(pendingCount) = request
+            startNanos(pendingCount) = System.nanoTime()
+            streamIds(pendingCount) = request.attribute(Http2.streamId).getOrElse(-1)
+            pendingCount += 1
+            push(requestOut, request)
+          }
+          override def onUpstreamFinish(): Unit = complete(requestOut)
+        })
+      setHandler(requestOut,
+        new OutHandler {
+          def onPull(): Unit = pull(requestIn)
+          override def onDownstreamFinish(cause: Throwable): Unit = cancel(requestIn, cause)
+        })
+      setHandler(responseIn,
+        new InHandler {
+          def onPush(): Unit = {
+            val response = grab(responseIn)
+            val i = indexOfRequestFor(response)
+            if (i >= 0) {
+              metrics.serverRequestCompleted(pending(i), response, System.nanoTime() - startNanos(i))
+              remove(i)
+            }
+            push(responseOut, response)
+          }
+          override def onUpstreamFinish(): Unit = complete(responseOut)
+        })
+      setHandler(responseOut,
+        new OutHandler {
+          def onPull(): Unit = pull(responseIn)
+          override def onDownstreamFinish(cause: Throwable): Unit = cancel(responseIn, cause)
+        })
+
+      private def indexOfRequestFor(response: HttpResponse): Int =
+        if (pendingCount == 0) -1
+        else
+          response.attribute(Http2.streamId) match {
+            case Some(streamId) =>
+              var i = 0
+              while (i < pendingCount && streamIds(i) != streamId) i += 1
+              if (i < pendingCount) i else -1
+            case None => 0
+          }
+
+      private def remove(i: Int): Unit = {
+        val moved = pendingCount - i - 1
+        System.arraycopy(pending, i + 1, pending, i, moved)
+        System.arraycopy(startNanos, i + 1, startNanos, i, moved)
+        System.arraycopy(streamIds, i + 1, streamIds, i, moved)
+        pendingCount -= 1
+        pending(pendingCount) = null
+      }
+
+      private def grow(): Unit = {
+        pending = java.util.Arrays.copyOf(pending, pending.length * 2)
+        startNanos = java.util.Arrays.copyOf(startNanos, startNanos.length * 2)
+        streamIds = java.util.Arrays.copyOf(streamIds, streamIds.length * 2)
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.ws
+
+import java.nio.ByteOrder
+import java.util.concurrent.TimeoutException
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.impl.engine.ws.Protocol.Opcode
+import pekko.http.scaladsl.model.ws.WebSocketConnectionStats
+import pekko.stream.{ Attributes, BidiShape, Inlet, Outlet }
+import pekko.stream.stage.{ GraphStage, InHandler, OutHandler, TimerGraphStageLogic }
+import pekko.util.{ ByteString, ByteStringBuilder }
+
+import scala.concurrent.duration.{ Duration, FiniteDuration }
+
+/**
+ * Collects the [[WebSocketConnectionStats]] of a connection from the frames passing through and closes the
+ * connection if a keep-alive Ping frame is not answered within `pingRoundTripTimeout`.
+ *
+ * Only a Pong carrying the payload of the outstanding Ping counts as its answer. Pings without payload (as sent by
+ * default) are given a unique payload, so that unsolicited Pongs cannot keep a dead connection open.
+ *
+ * INTERNAL API
+ */
+@InternalApi
+private[http] final class ConnectionMonitor(
+    pingRoundTripTimeout: Duration,
+    statsListener: WebSocketConnectionStats => Unit)
+    extends GraphStage[BidiShape[FrameEventOrError, FrameEventOrError, FrameEvent, FrameEvent]] {
+  val networkIn = Inlet[FrameEventOrError]("ConnectionMonitor.networkIn")
+  val appOut = Outlet[FrameEventOrError]("ConnectionMonitor.appOut")
+  val appIn = Inlet[FrameEvent]("ConnectionMonitor.appIn")
+  val networkOut = Outlet[FrameEvent]("ConnectionMonitor.networkOut")
+  override val shape = BidiShape(networkIn, appOut, appIn, networkOut)
+
+  override def initialAttributes: Attributes = Attributes.name("ConnectionMonitor")
+
+  override def createLogic(inheritedAttributes: Attributes) = new TimerGraphStageLogic(shape) {
+    private val stats = new WebSocketConnectionStats
+    // the payload of the outstanding Ping or null if no Ping is outstanding
+    private var pingPayload: ByteString = null
+    private var pingSentAt = 0L
+    private var pingsSent = 0L
+    // the data of an incoming Pong received so far, if it was split up, otherwise null
+    private var pongData: ByteString = null
+    // whether the data of an outgoing frame is still being sent, i.e. no other frame can be sent in between
+    private var sendingFrame = false
+
+    override def preStart(): Unit = statsListener(stats)
+    override def postStop(): Unit = stats._closed = true
+
+    setHandlers(networkIn, appOut,
+      new InHandler with OutHandler {
+        override def onPush(): Unit = {
+          val event = grab(networkIn)
+          event match {
+            case start @ FrameStart(header, data) =>
+              if (header.opcode == Opcode.Pong) {
+                if (start.lastPart) checkPong(data)
+                else pongData = data
+              } else if (!header.opcode.isControl) {
+                stats._bytesReceived += header.length
+                if (header.fin) stats._messagesReceived += 1
+              }
+            case FrameData(data, lastPart) if pongData ne null =>
+              pongData ++= data
+              if (lastPart) {
+                checkPong(pongData)
+                pongData = null
+              }
+            case _ =>
+          }
+          push(appOut, event)
+        }
+
+        private def checkPong(data: ByteString): Unit =
+          if ((pingPayload ne null) && data == pingPayload) {
+            stats._lastPingRoundTripNanos = System.nanoTime() - pingSentAt
+            pingPayload = null
+            cancelTimer(PingTimeout)
+          }
+        override def onUpstreamFinish(): Unit = complete(appOut)
+        override def onUpstreamFailure(ex: Throwable): Unit = fail(appOut, ex)
+
+        override def onPull(): Unit = pull(networkIn)
+        override def onDownstreamFinish(cause: Throwable): Unit = cancel(networkIn, cause)
+      })
+
+    setHandlers(appIn, networkOut,
+      new InHandler with OutHandler {
+        override def onPush(): Unit = {
+          val event = grab(appIn)
+          val sent = event match {
+            case start @ FrameStart(header, data) =>
+              sendingFrame = !start.lastPart
+              if (header.opcode == Opcode.Ping) {
+                if (pingPayload eq null) {
+                  pingsSent += 1
+                  pingPayload =
+                    if (data.nonEmpty) data
+                    else new ByteStringBuilder().putLong(pingsSent)(ByteOrder.BIG_ENDIAN).result()
+                  pingSentAt = System.nanoTime()
+                  pingRoundTripTimeout match {
+                    case timeout: FiniteDuration => scheduleOnce(PingTimeout, timeout)
+                    case _                       =>
+                  }
+                  if (data.isEmpty) FrameEvent.fullFrame(Opcode.Ping, header.mask, pingPayload, fin = true)
+                  else start
+                } else start
+              } else {
+                if (!header.opcode.isControl) {
+                  stats._bytesSent += header.length
+                  if (header.fin) stats._messagesSent += 1
+                }
+                start
+              }
+            case data: FrameData =>
+              sendingFrame = !data.lastPart
+              data
+          }
+          push(networkOut, sent)
+        }
+        override def onUpstreamFinish(): Unit = complete(networkOut)
+        override def onUpstreamFailure(ex: Throwable): Unit = fail(networkOut, ex)
+
+        override def onPull(): Unit = pull(appIn)
+        override def onDownstreamFinish(cause: Throwable): Unit = cancel(appIn, cause)
+      })
+
+    override protected def onTimer(timerKey: Any): Unit = {
+      val ex = new TimeoutException(s"WebSocket peer did not answer Ping frame within $pingRoundTripTimeout")
+      fail(appOut, ex)
+      cancel(networkIn, ex)
+      cancel(appIn, ex)
+      // a Close frame cannot be sent in the middle of another frame
+      if (sendingFrame) fail(networkOut, ex)
+      else
+        emit(networkOut, FrameEvent.closeFrame(Protocol.CloseCodes.GoingAway, "Ping was not answered in time"),
+          () => complete(networkOut))
+    }
+  }
+
+  private case object PingTimeout
+}
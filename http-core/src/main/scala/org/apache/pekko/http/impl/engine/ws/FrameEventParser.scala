@@ -13,12 +13,13 @@
 
 package org.apache.pekko.http.impl.engine.ws
 
+import java.nio.ByteBuffer
+
 import org.apache.pekko
 import pekko.annotation.InternalApi
 import pekko.stream.impl.io.ByteStringParser
 import pekko.util.ByteString
 
-import scala.annotation.tailrec
 import pekko.stream.Attributes
 
 /**
@@ -127,39 +128,26 @@ private[http] object FrameEventParser extends ByteStringParser[FrameEvent] {
     }
 
   def mask(bytes: ByteString, mask: Int): (ByteString, Int) = {
-    val m0 = ((mask >> 24) & 0xFF).toByte
-    val m1 = ((mask >> 16) & 0xFF).toByte
-    val m2 = ((mask >> 8) & 0xFF).toByte
-    val m3 = ((mask >> 0) & 0xFF).toByte
-
-    @tailrec def rec(bytes: Array[Byte], offset: Int, last: Int): Unit =
-      if (offset < last) {
-        // process four bytes each turn
-        bytes(offset + 0) = (bytes(offset + 0) ^ m0).toByte
-        bytes(offset + 1) = (bytes(offset + 1) ^ m1).toByte
-        bytes(offset + 2) = (bytes(offset + 2) ^ m2).toByte
-        bytes(offset + 3) = (bytes(offset + 3) ^ m3).toByte
-
-        rec(bytes, offset + 4, last)
-      } else {
-        val len = bytes.length
-
-        if (last < len) {
-          bytes(last) = (bytes(last) ^ m0).toByte
-
-          if (last + 1 < len) {
-            bytes(last + 1) = (bytes(last + 1) ^ m1).toByte
-
-            if (last + 2 < len)
-              bytes(last + 2) = (bytes(last + 2) ^ m2).toByte
-          }
-        }
-      }
-
     val buffer = bytes.toArray[Byte]
-    rec(buffer, 0, (bytes.length / 4) * 4)
+    val len = buffer.length
+
+    // process eight bytes each turn, the mask repeated twice covers them in network (big-endian) byte order
+    val longMask = (mask.toLong << 32) | (mask & 0xFFFFFFFFL)
+    val longs = ByteBuffer.wrap(buffer)
+    val lastLong = len & ~7
+    var offset = 0
+    while (offset < lastLong) {
+      longs.putLong(offset, longs.getLong(offset) ^ longMask)
+      offset += 8
+    }
+
+    // the remaining up to seven bytes, the mask starts over at every multiple of four
+    while (offset < len) {
+      buffer(offset) = (buffer(offset) ^ (mask >> (24 - (offset & 3) * 8))).toByte
+      offset += 1
+    }
 
-    val newMask = Integer.rotateLeft(mask, (bytes.length % 4) * 8)
+    val newMask = Integer.rotateLeft(mask, (len % 4) * 8)
     (ByteString.fromArrayUnsafe(buffer), newMask)
   }
 
@@ -13,6 +13,9 @@
 
 package org.apache.pekko.http.impl.engine.ws
 
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicReferenceArray
+
 import org.apache.pekko
 import pekko.NotUsed
 import pekko.util.ByteString
@@ -54,8 +57,34 @@ private[http] object MessageToFrameRenderer {
       .flatMapConcat {
         case BinaryMessage.Strict(data) => strictFrames(Opcode.Binary, data)
         case bm: BinaryMessage          => streamedFrames(Opcode.Binary, bm.dataStream)
-        case TextMessage.Strict(text)   => strictFrames(Opcode.Text, ByteString(text, "UTF-8"))
+        case tm @ TextMessage.Strict(text) =>
+          val shared = sharedFrame(tm)
+          if (shared ne null) Source.single(shared) else strictFrames(Opcode.Text, ByteString(text, "UTF-8"))
         case tm: TextMessage            => streamedFrames(Opcode.Text, tm.textStream.via(Utf8Encoder))
       }
   }
+
+  private final class SharedFrame(message: TextMessage.Strict, val frame: FrameStart)
+      extends WeakReference[TextMessage.Strict](message)
+
+  /** The frames of recently broadcast text messages by the identity of the message */
+  private val sharedFrames = new AtomicReferenceArray[SharedFrame](1024)
+
+  /**
+   * Encodes a text message that is going to be sent to many connections (see
+   * [[pekko.http.scaladsl.model.ws.WebSocketBroadcastHub]]) once, so that rendering it for each of the connections
+   * reuses the encoded frame as long as it has not been replaced by the frame of another message in the meantime.
+   */
+  def share(message: TextMessage.Strict): Unit = {
+    val frame = FrameEvent.fullFrame(Opcode.Text, None, ByteString(message.text, "UTF-8"), fin = true)
+    sharedFrames.set(slot(message), new SharedFrame(message, frame))
+  }
+
+  /** Returns the shared frame of the message or null */
+  private def sharedFrame(message: TextMessage.Strict): FrameStart = {
+    val shared = sharedFrames.get(slot(message))
+    if ((shared ne null) && (shared.get eq message)) shared.frame else null
+  }
+
+  private def slot(message: TextMessage.Strict): Int = System.identityHashCode(message) & (sharedFrames.length - 1)
 }
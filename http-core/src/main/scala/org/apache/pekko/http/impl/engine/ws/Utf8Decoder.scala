@@ -13,6 +13,9 @@
 
 package org.apache.pekko.http.impl.engine.ws
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
 import org.apache.pekko
 import pekko.annotation.InternalApi
 import pekko.util.ByteString
@@ -79,8 +82,17 @@ private[http] object Utf8Decoder extends StreamingCharsetDecoder {
       var currentState = Utf8Accept
 
       def decode(bytes: ByteString, endOfInput: Boolean): Try[String] = Try {
-        val result = new StringBuilder(bytes.size)
         val length = bytes.size
+        val buffer = bytes.asByteBuffer.slice()
+
+        if (currentState == Utf8Accept && asciiRunEnd(buffer, 0, length) == length)
+          // fast path for pure ASCII input, which needs no further validation
+          bytes.decodeString(StandardCharsets.ISO_8859_1)
+        else decodeMixed(bytes, buffer, length, endOfInput)
+      }
+
+      private def decodeMixed(bytes: ByteString, buffer: ByteBuffer, length: Int, endOfInput: Boolean): String = {
+        val result = new StringBuilder(length)
 
         def step(byte: Int): Unit = {
           val chClass = characterClasses(byte)
@@ -108,8 +120,18 @@ private[http] object Utf8Decoder extends StreamingCharsetDecoder {
 
         var offset = 0
         while (offset < length) {
-          step(bytes(offset) & 0xFF)
-          offset += 1
+          if (currentState == Utf8Accept) {
+            // copy runs of ASCII characters between multi-byte sequences at once
+            val asciiEnd = asciiRunEnd(buffer, offset, length)
+            if (asciiEnd > offset) {
+              result.append(bytes.slice(offset, asciiEnd).decodeString(StandardCharsets.ISO_8859_1))
+              offset = asciiEnd
+            }
+          }
+          if (offset < length) {
+            step(buffer.get(offset) & 0xFF)
+            offset += 1
+          }
         }
 
         if (endOfInput && currentState != Utf8Accept) fail("Truncated UTF-8 input")
@@ -119,6 +141,14 @@ private[http] object Utf8Decoder extends StreamingCharsetDecoder {
 
       def fail(msg: String): Nothing = throw new IllegalArgumentException(msg)
     }
+
+  /** Returns the index of the first non-ASCII byte at or after `from`, checking eight bytes at a time. */
+  private def asciiRunEnd(buffer: ByteBuffer, from: Int, until: Int): Int = {
+    var offset = from
+    while (offset + 8 <= until && (buffer.getLong(offset) & 0x8080808080808080L) == 0) offset += 8
+    while (offset < until && buffer.get(offset) >= 0) offset += 1
+    offset
+  }
 }
 
 private[http] trait StreamingCharsetDecoder {
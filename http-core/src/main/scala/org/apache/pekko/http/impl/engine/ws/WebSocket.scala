@@ -50,6 +50,7 @@ private[http] object WebSocket {
       closeTimeout: FiniteDuration = 3.seconds, // TODO put close timeout into the settings?
       log: LoggingAdapter): BidiFlow[FrameEvent, Message, Message, FrameEvent, NotUsed] =
     masking(serverSide, websocketSettings.randomFactory).atop(
+      monitoring(websocketSettings)).atop(
       FrameLogger.logFramesIfEnabled(websocketSettings.logFrames)).atop(
       frameHandling(serverSide, closeTimeout, log)).atop(
       periodicKeepAlive(websocketSettings)).atop(
@@ -68,6 +69,18 @@ private[http] object WebSocket {
     Masking(serverSide, maskingRandomFactory)
       .named("ws-masking")
 
+  /**
+   * The layer that (if enabled) collects connection statistics and closes connections that don't answer keep-alive
+   * Pings in time
+   */
+  def monitoring(settings: WebSocketSettings)
+      : BidiFlow[FrameEventOrError, FrameEventOrError, FrameEvent, FrameEvent, NotUsed] =
+    if (WebSocketSettingsImpl.hasNoConnectionStatsListener(settings) && !settings.pingRoundTripTimeout.isFinite)
+      BidiFlow.identity
+    else
+      BidiFlow.fromGraph(new ConnectionMonitor(settings.pingRoundTripTimeout, settings.connectionStatsListener))
+        .named("ws-monitoring")
+
   /** The layer that transparently injects (if enabled) keepAlive Ping or Pong messages when connection is idle */
   def periodicKeepAlive(settings: WebSocketSettings)
       : BidiFlow[FrameHandler.Output, FrameHandler.Output, FrameOutHandler.Input, FrameOutHandler.Input, NotUsed] = {
@@ -15,6 +15,8 @@ package org.apache.pekko.http.impl.model.parser
 
 import java.nio.charset.Charset
 
+import scala.annotation.tailrec
+
 import org.apache.pekko
 import org.parboiled2._
 import pekko.http.impl.util.{ enhanceString_, StringRendering }
@@ -326,13 +328,65 @@ private[http] final class UriParser(
     | `absolute-URI` // absolute-form
     | authority) // authority-form or asterisk-form
 
-  def parseHttpRequestTarget(): Uri =
-    rule(`request-target` ~ EOI).run() match {
-      case Right(_) =>
-        val path = if (_scheme.isEmpty) _path else collapseDotSegments(_path)
-        createUnsafe(_scheme, Authority(_host, _port, _userinfo), path, _rawQueryString, _fragment)
-      case Left(error) => fail(error, "request-target")
-    }
+  def parseHttpRequestTarget(): Uri = {
+    val simpleTarget = parseSimpleOriginForm()
+    if (simpleTarget ne null) simpleTarget
+    else
+      rule(`request-target` ~ EOI).run() match {
+        case Right(_) =>
+          val path = if (_scheme.isEmpty) _path else collapseDotSegments(_path)
+          createUnsafe(_scheme, Authority(_host, _port, _userinfo), path, _rawQueryString, _fragment)
+        case Left(error) => fail(error, "request-target")
+      }
+  }
+
+  /**
+   * Fast path for the by far most common request targets: origin-form targets without percent-encoded chars in the
+   * path (like `/api/users/42?active=true`). For these, the path segments and the raw query string can be cut directly
+   * out of the input without going through the general rules (and the decoding of the path segments).
+   * As with the general rules, the query is not parsed here but only on demand with `Uri.query()`.
+   *
+   * Returns `null` if the input is not of this simple form so that the general rules need to be used.
+   */
+  private def parseSimpleOriginForm(): Uri = {
+    val in = input
+    val length = in.length
+
+    // returns the index of the `?` (or the end of input) or -1 if the path is not simple
+    @tailrec def pathEnd(ix: Int): Int =
+      if (ix < length) {
+        val c = in.charAt(ix)
+        if (c == '?') ix
+        else if (c == '/' || `path-segment-char`(c)) pathEnd(ix + 1)
+        else -1
+      } else ix
+
+    @tailrec def isValidQuery(ix: Int): Boolean =
+      if (ix < length) {
+        val c = in.charAt(ix)
+        if (c == '%') ix + 2 < length && HEXDIG(in.charAt(ix + 1)) && HEXDIG(in.charAt(ix + 2)) && isValidQuery(ix + 3)
+        else `query-char`(c) && isValidQuery(ix + 1)
+      } else true
+
+    // same as `Path.apply` but without the need for decoding
+    @tailrec def buildPath(path: Path, ix: Int, segmentEnd: Int): Path =
+      if (ix >= 0)
+        if (in.charAt(ix) == '/')
+          if (segmentEnd == 0) buildPath(Path.Slash(path), ix - 1, 0)
+          else buildPath(Path.Slash(in.sliceString(ix + 1, segmentEnd) :: path), ix - 1, 0)
+        else if (segmentEnd == 0) buildPath(path, ix - 1, ix + 1)
+        else buildPath(path, ix - 1, segmentEnd)
+      else path
+
+    if (length > 0 && in.charAt(0) == '/') {
+      val end = pathEnd(1)
+      if (end == length) createUnsafe("", Authority.Empty, buildPath(Path.Empty, end - 1, 0), None, None)
+      else if (end > 0 && isValidQuery(end + 1))
+        createUnsafe("", Authority.Empty, buildPath(Path.Empty, end - 1, 0),
+          Some(parseSafeRawQueryString(in.sliceString(end + 1, length))), None)
+      else null
+    } else null
+  }
 
   /////////////////////////// ADDITIONAL HTTP/2-SPECIFIC RULES /////////////////////////
 
@@ -39,6 +39,10 @@ private[pekko] final case class ConnectionPoolSettingsImpl(
     keepAliveTimeout: Duration,
     connectionSettings: ClientConnectionSettings,
     responseEntitySubscriptionTimeout: Duration,
+    retryBudgetRatio: Double,
+    retryBudgetMinRetries: Int,
+    adaptiveConcurrencyEnabled: Boolean,
+    adaptiveConcurrencyTolerance: Double,
     hostOverrides: immutable.Seq[(Regex, ConnectionPoolSettings)])
     extends ConnectionPoolSettings {
 
@@ -50,6 +54,9 @@ private[pekko] final case class ConnectionPoolSettingsImpl(
   require(pipeliningLimit > 0, "pipelining-limit must be > 0")
   require(maxConnectionLifetime > Duration.Zero, "max-connection-lifetime must be > 0")
   require(idleTimeout >= Duration.Zero, "idle-timeout must be >= 0")
+  require(retryBudgetRatio >= 0, "retry-budget.ratio must be >= 0")
+  require(retryBudgetMinRetries >= 0, "retry-budget.min-retries must be >= 0")
+  require(adaptiveConcurrencyTolerance >= 1, "adaptive-concurrency.tolerance must be >= 1")
   require(
     minConnections == 0 || (baseConnectionBackoff.toMillis > 0 && maxConnectionBackoff.toMillis > 10),
     "If min-connections > 0, you need to set a base-connection-backoff must be > 0 and max-connection-backoff must be > 10 millis " +
@@ -78,7 +85,11 @@ private[pekko] final case class ConnectionPoolSettingsImpl(
       idleTimeout: Duration = idleTimeout,
       keepAliveTimeout: Duration = keepAliveTimeout,
       connectionSettings: ClientConnectionSettings = connectionSettings,
-      responseEntitySubscriptionTimeout: Duration = responseEntitySubscriptionTimeout): ConnectionPoolSettings =
+      responseEntitySubscriptionTimeout: Duration = responseEntitySubscriptionTimeout,
+      retryBudgetRatio: Double = retryBudgetRatio,
+      retryBudgetMinRetries: Int = retryBudgetMinRetries,
+      adaptiveConcurrencyEnabled: Boolean = adaptiveConcurrencyEnabled,
+      adaptiveConcurrencyTolerance: Double = adaptiveConcurrencyTolerance): ConnectionPoolSettings =
     copy(
       maxConnections,
       minConnections,
@@ -92,6 +103,10 @@ private[pekko] final case class ConnectionPoolSettingsImpl(
       keepAliveTimeout,
       connectionSettings,
       responseEntitySubscriptionTimeout,
+      retryBudgetRatio,
+      retryBudgetMinRetries,
+      adaptiveConcurrencyEnabled,
+      adaptiveConcurrencyTolerance,
       hostOverrides = hostOverrides.map { case (k, v) => k -> mapHostOverrides(v) })
 
 }
@@ -115,6 +130,10 @@ private[pekko] object ConnectionPoolSettingsImpl
       c.getPotentiallyInfiniteDuration("keep-alive-timeout"),
       ClientConnectionSettingsImpl.fromSubConfig(root, c.getConfig("client")),
       c.getPotentiallyInfiniteDuration("response-entity-subscription-timeout"),
+      c.getPossiblyInfiniteDouble("retry-budget.ratio"),
+      c.getInt("retry-budget.min-retries"),
+      c.getBoolean("adaptive-concurrency.enabled"),
+      c.getDouble("adaptive-concurrency.tolerance"),
       List.empty)
   }
 
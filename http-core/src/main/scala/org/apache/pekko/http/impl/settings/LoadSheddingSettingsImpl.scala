@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.settings
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.impl.util._
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.{ Duration, FiniteDuration }
+
+/** INTERNAL API */
+@InternalApi
+private[http] final case class LoadSheddingSettingsImpl(
+    enabled: Boolean,
+    initialLimit: Int,
+    minLimit: Int,
+    maxLimit: Int,
+    latencyThreshold: FiniteDuration,
+    backoffRatio: Double,
+    retryAfter: FiniteDuration) extends pekko.http.scaladsl.settings.LoadSheddingSettings {
+
+  require(0 < minLimit, "min-limit must be > 0")
+  require(minLimit <= initialLimit && initialLimit <= maxLimit,
+    "initial-limit must be >= min-limit and <= max-limit")
+  require(latencyThreshold > Duration.Zero, "latency-threshold must be > 0")
+  require(0.0 < backoffRatio && backoffRatio < 1.0, "backoff-ratio must be > 0 and < 1")
+  require(retryAfter >= Duration.Zero, "retry-after must be >= 0")
+
+  override def productPrefix: String = "LoadSheddingSettings"
+}
+
+/** INTERNAL API */
+@InternalApi
+private[http] object LoadSheddingSettingsImpl
+    extends SettingsCompanionImpl[LoadSheddingSettingsImpl]("pekko.http.server.load-shedding") {
+  def fromSubConfig(root: Config, c: Config) = LoadSheddingSettingsImpl(
+    c.getBoolean("enabled"),
+    c.getInt("initial-limit"),
+    c.getInt("min-limit"),
+    c.getInt("max-limit"),
+    c.getFiniteDuration("latency-threshold"),
+    c.getDouble("backoff-ratio"),
+    c.getFiniteDuration("retry-after"))
+}
@@ -43,6 +43,7 @@ private[pekko] final case class ParserSettingsImpl(
     maxToStrictBytes: Long,
     maxChunkExtLength: Int,
     maxChunkSize: Int,
+    compactEntityBytes: Boolean,
     maxCommentParsingDepth: Int,
     uriParsingMode: Uri.ParsingMode,
     cookieParsingMode: CookieParsingMode,
@@ -55,6 +56,7 @@ private[pekko] final case class ParserSettingsImpl(
     headerValueCacheLimits: Map[String, Int],
     includeTlsSessionInfoHeader: Boolean,
     includeSslSessionAttribute: Boolean,
+    includeRequestTimingsAttribute: Boolean,
     modeledHeaderParsing: Boolean,
     customMethods: String => Option[HttpMethod],
     customStatusCodes: Int => Option[StatusCode],
@@ -111,6 +113,7 @@ object ParserSettingsImpl extends SettingsCompanionImpl[ParserSettingsImpl]("pek
       c.getPossiblyInfiniteBytes("max-to-strict-bytes"),
       c.getIntBytes("max-chunk-ext-length"),
       c.getIntBytes("max-chunk-size"),
+      c.getBoolean("compact-entity-bytes"),
       c.getInt("max-comment-parsing-depth"),
       Uri.ParsingMode(c.getString("uri-parsing-mode")),
       CookieParsingMode(c.getString("cookie-parsing-mode")),
@@ -123,6 +126,7 @@ object ParserSettingsImpl extends SettingsCompanionImpl[ParserSettingsImpl]("pek
       cacheConfig.entrySet.asScala.iterator.map(kvp => kvp.getKey -> cacheConfig.getInt(kvp.getKey)).toMap,
       c.getBoolean("tls-session-info-header"),
       c.getBoolean("ssl-session-attribute"),
+      c.getBoolean("request-timings-attribute"),
       c.getBoolean("modeled-header-parsing"),
       noCustomMethods,
       noCustomStatusCodes,
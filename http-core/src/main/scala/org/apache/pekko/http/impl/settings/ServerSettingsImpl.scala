@@ -60,12 +60,16 @@ private[pekko] final case class ServerSettingsImpl(
     defaultHttpsPort: Int,
     terminationDeadlineExceededResponse: HttpResponse,
     parsingErrorHandler: String,
-    streamCancellationDelay: FiniteDuration) extends ServerSettings {
+    streamCancellationDelay: FiniteDuration,
+    responseCoalescingMaxBytes: Int,
+    responseCoalescingMaxDelay: FiniteDuration,
+    loadSheddingSettings: LoadSheddingSettings) extends ServerSettings {
 
   require(0 < maxConnections, "max-connections must be > 0")
   require(0 < pipeliningLimit && pipeliningLimit <= 1024, "pipelining-limit must be > 0 and <= 1024")
   require(0 < responseHeaderSizeHint, "response-size-hint must be > 0")
   require(0 < backlog, "backlog must be > 0")
+  require(0 <= responseCoalescingMaxBytes, "response-coalescing.max-bytes must be >= 0")
   require(
     Try { parserSettings.maxContentLength }.isSuccess,
     "The provided ParserSettings is a generic object that does not contain the server-specific settings.")
@@ -130,7 +134,10 @@ private[http] object ServerSettingsImpl extends SettingsCompanionImpl[ServerSett
       c.getInt("default-https-port"),
       terminationDeadlineExceededResponseFrom(c),
       c.getString("parsing.error-handler"),
-      c.getFiniteDuration("stream-cancellation-delay"))
+      c.getFiniteDuration("stream-cancellation-delay"),
+      c.getIntBytes("response-coalescing.max-bytes"),
+      c.getFiniteDuration("response-coalescing.max-delay"),
+      LoadSheddingSettingsImpl.fromSubConfig(root, c.getConfig("load-shedding")))
   }
 
   private def terminationDeadlineExceededResponseFrom(c: Config): HttpResponse = {
@@ -19,6 +19,7 @@ import org.apache.pekko
 import pekko.annotation.InternalApi
 import pekko.http.impl.engine.ws.Randoms
 import pekko.http.impl.util._
+import pekko.http.scaladsl.model.ws.WebSocketConnectionStats
 import pekko.util.ByteString
 import com.typesafe.config.Config
 
@@ -31,7 +32,9 @@ private[pekko] final case class WebSocketSettingsImpl(
     periodicKeepAliveMode: String,
     periodicKeepAliveMaxIdle: Duration,
     periodicKeepAliveData: () => ByteString,
-    logFrames: Boolean)
+    logFrames: Boolean,
+    pingRoundTripTimeout: Duration,
+    connectionStatsListener: WebSocketConnectionStats => Unit)
     extends pekko.http.scaladsl.settings.WebSocketSettings {
 
   require(
@@ -53,6 +56,11 @@ private[pekko] object WebSocketSettingsImpl { // on purpose not extending Settin
   def hasNoCustomPeriodicKeepAliveData(settings: pekko.http.javadsl.settings.WebSocketSettings): Boolean =
     settings.asInstanceOf[WebSocketSettingsImpl].periodicKeepAliveData eq NoPeriodicKeepAliveData
 
+  // constant value used to identity check and avoid monitoring connections if no one is interested in their stats
+  private val NoConnectionStatsListener: WebSocketConnectionStats => Unit = _ => ()
+  def hasNoConnectionStatsListener(settings: pekko.http.javadsl.settings.WebSocketSettings): Boolean =
+    settings.asInstanceOf[WebSocketSettingsImpl].connectionStatsListener eq NoConnectionStatsListener
+
   def serverFromRoot(root: Config): WebSocketSettingsImpl =
     server(root.getConfig("pekko.http.server.websocket"))
   def server(config: Config): WebSocketSettingsImpl =
@@ -70,7 +78,9 @@ private[pekko] object WebSocketSettingsImpl { // on purpose not extending Settin
       c.getString("periodic-keep-alive-mode"), // mode could be extended to be a factory of pings, if we'd need control over the data field
       c.getPotentiallyInfiniteDuration("periodic-keep-alive-max-idle"),
       NoPeriodicKeepAliveData,
-      c.getBoolean("log-frames"))
+      c.getBoolean("log-frames"),
+      c.getPotentiallyInfiniteDuration("ping-round-trip-timeout"),
+      NoConnectionStatsListener)
   }
 
 }
@@ -41,6 +41,11 @@ private[http] class EnhancedConfig(val underlying: Config) extends AnyVal {
     case x          => underlying.getInt(path)
   }
 
+  def getPossiblyInfiniteDouble(path: String): Double = underlying.getString(path) match {
+    case "infinite" => Double.PositiveInfinity
+    case x          => underlying.getDouble(path)
+  }
+
   def getIntBytes(path: String): Int = {
     val value: Long = underlying.getBytes(path)
     if (value <= Int.MaxValue) value.toInt
@@ -235,6 +235,8 @@ private[http] object JavaMapping {
   implicit object ServerSettings extends Inherited[js.ServerSettings, pekko.http.scaladsl.settings.ServerSettings]
   implicit object PreviewServerSettings
       extends Inherited[js.PreviewServerSettings, pekko.http.scaladsl.settings.PreviewServerSettings]
+  implicit object LoadSheddingSettings
+      extends Inherited[js.LoadSheddingSettings, pekko.http.scaladsl.settings.LoadSheddingSettings]
   implicit object ServerSettingsT
       extends Inherited[js.ServerSettings.Timeouts, pekko.http.scaladsl.settings.ServerSettings.Timeouts]
   implicit object Http2ServerSettingT
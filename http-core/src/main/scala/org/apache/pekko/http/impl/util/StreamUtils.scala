@@ -192,6 +192,77 @@ private[http] object StreamUtils {
       }
     }
 
+  /**
+   * Returns a flow that merges consecutive ByteStrings into bigger ones to reduce the number of writes (and TLS records)
+   * further down the stream. Data is accumulated up to `maxBytes`:
+   *
+   *  - with `maxDelay` of zero, data is only accumulated as long as downstream backpressures, i.e. a single element is
+   *    never delayed when downstream could accept it immediately,
+   *  - with a positive `maxDelay`, data is held back until either `maxBytes` have been collected or the first
+   *    buffered element has been waiting for `maxDelay` (similar to Nagle's algorithm but in user space).
+   *
+   * `maxBytes` is a threshold rather than a hard limit: an element is appended to the buffered data as a whole, so a
+   * flushed ByteString can exceed `maxBytes` by up to the size of its last element. Elements are never split.
+   */
+  def coalesceByteStrings(maxBytes: Int, maxDelay: FiniteDuration): Flow[ByteString, ByteString, NotUsed] =
+    Flow.fromGraph(new CoalesceByteStringsStage(maxBytes, maxDelay))
+
+  final class CoalesceByteStringsStage(maxBytes: Int, maxDelay: FiniteDuration)
+      extends SimpleLinearGraphStage[ByteString] {
+    require(maxBytes > 0, "maxBytes must be > 0")
+    require(maxDelay >= Duration.Zero, "maxDelay must be >= 0")
+
+    override def initialAttributes = Attributes.name("coalesceByteStrings")
+
+    def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+      new TimerGraphStageLogic(shape) with InHandler with OutHandler {
+        setHandlers(in, out, this)
+
+        private val flushImmediately = maxDelay == Duration.Zero
+        private var buffer = ByteString.empty
+        private var deadlineReached = flushImmediately
+
+        def onPush(): Unit = {
+          val elem = grab(in)
+          if (buffer.isEmpty) {
+            buffer = elem
+            if (!flushImmediately) scheduleOnce(FlushTimer, maxDelay)
+          } else buffer ++= elem
+
+          tryFlush()
+          if (!isClosed(in) && buffer.size < maxBytes) pull(in)
+        }
+
+        def onPull(): Unit = {
+          tryFlush()
+          if (!isClosed(in) && !hasBeenPulled(in) && buffer.size < maxBytes) pull(in)
+        }
+
+        override def onUpstreamFinish(): Unit =
+          if (buffer.isEmpty) completeStage()
+          else tryFlush() // otherwise, completes after the final flush
+
+        override protected def onTimer(timerKey: Any): Unit = {
+          deadlineReached = true
+          tryFlush()
+        }
+
+        private def tryFlush(): Unit =
+          if (buffer.nonEmpty && isAvailable(out) && (deadlineReached || buffer.size >= maxBytes || isClosed(in))) {
+            push(out, buffer)
+            buffer = ByteString.empty
+            if (!flushImmediately) {
+              cancelTimer(FlushTimer)
+              deadlineReached = false
+            }
+            if (isClosed(in)) completeStage()
+          }
+      }
+
+    override def toString = "coalesceByteStrings"
+  }
+  private case object FlushTimer
+
   /**
    * Similar to Source.maybe but doesn't rely on materialization. Can only be used once.
    */
@@ -116,7 +116,23 @@ package util {
 
   import scala.concurrent.duration.FiniteDuration
 
-  private[http] class ToStrict(timeout: FiniteDuration, maxBytes: Option[Long], contentType: ContentType)
+  private[http] object ToStrict {
+
+    /**
+     * The most bytes allocated for an entity before its data arrives, as the expected length is declared by the peer.
+     */
+    final val MaxPresizedBytes = 64 * 1024
+  }
+
+  /**
+   * Collects all bytes into a single strict entity. If `expectedLength` is known in advance (e.g. from a
+   * `Content-Length` header), the data is copied into a single array while it is arriving, which starts with at most
+   * `ToStrict.MaxPresizedBytes` and grows with the data up to the expected length. This way, the received chunks can be
+   * released immediately and the resulting entity data is already compact, i.e. there is no need for a second full
+   * copy when the data is consumed later.
+   */
+  private[http] class ToStrict(timeout: FiniteDuration, maxBytes: Option[Long], contentType: ContentType,
+      expectedLength: Option[Long] = None)
       extends GraphStage[FlowShape[ByteString, HttpEntity.Strict]] {
 
     val byteStringIn = Inlet[ByteString]("ToStrict.byteStringIn")
@@ -130,6 +146,39 @@ package util {
       val bytes = ByteString.newBuilder
       private var emptyStream = false
 
+      private val expected: Int =
+        expectedLength match {
+          case Some(length) if length > 0 && length <= Int.MaxValue && maxBytes.forall(length <= _) => length.toInt
+          case _                                                                                   => -1
+        }
+      // target array, only used as long as the data fits into the expected length
+      private var array: Array[Byte] =
+        if (expected > 0) new Array[Byte](math.min(expected, ToStrict.MaxPresizedBytes)) else null
+      private var arrayFilled = 0
+
+      private def collect(data: ByteString): Unit =
+        if ((array ne null) && data.length <= expected - arrayFilled) {
+          if (data.length > array.length - arrayFilled) {
+            val newLength = math.max(arrayFilled + data.length, math.min(expected.toLong, array.length * 2L).toInt)
+            array = java.util.Arrays.copyOf(array, newLength)
+          }
+          data.copyToArray(array, arrayFilled)
+          arrayFilled += data.length
+        } else {
+          if (array ne null) {
+            // more data than expected, continue with the builder
+            bytes ++= ByteString.fromArrayUnsafe(array, 0, arrayFilled)
+            array = null
+          }
+          bytes ++= data
+        }
+
+      private def collectedLength: Long = if (array ne null) arrayFilled else bytes.length
+
+      private def result(): ByteString =
+        if (array ne null) ByteString.fromArrayUnsafe(array, 0, arrayFilled)
+        else bytes.result()
+
       override def preStart(): Unit = scheduleOnce("ToStrictTimeoutTimer", timeout)
 
       setHandler(httpEntityOut,
@@ -145,9 +194,9 @@ package util {
       setHandler(byteStringIn,
         new InHandler {
           override def onPush(): Unit = {
-            bytes ++= grab(byteStringIn)
+            collect(grab(byteStringIn))
             maxBytes match {
-              case Some(max) if bytes.length > max =>
+              case Some(max) if collectedLength > max =>
                 failStage(new EntityStreamException(new ErrorInfo("Request too large",
                   s"Request was longer than the maximum of $max")))
               case _ =>
@@ -156,7 +205,7 @@ package util {
           }
           override def onUpstreamFinish(): Unit = {
             if (isAvailable(httpEntityOut)) {
-              push(httpEntityOut, HttpEntity.Strict(contentType, bytes.result()))
+              push(httpEntityOut, HttpEntity.Strict(contentType, result()))
               completeStage()
             } else emptyStream = true
           }
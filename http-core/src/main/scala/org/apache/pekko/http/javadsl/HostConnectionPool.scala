@@ -17,8 +17,9 @@ import java.util.concurrent.CompletionStage
 
 import org.apache.pekko
 import pekko.Done
-import pekko.annotation.DoNotInherit
+import pekko.annotation.{ ApiMayChange, DoNotInherit }
 import pekko.http.impl.settings.HostConnectionPoolSetup
+import pekko.http.scaladsl.HostConnectionPoolSnapshot
 
 @DoNotInherit
 abstract class HostConnectionPool private[http] {
@@ -30,4 +31,13 @@ abstract class HostConnectionPool private[http] {
    * The produced [[CompletionStage]] is fulfilled when the shutdown has been completed.
    */
   def shutdown(): CompletionStage[Done]
+
+  /**
+   * API MAY CHANGE
+   *
+   * Takes a snapshot of the slots and the request queue of the pool. A pool that has not been started yet or was
+   * shut down is reported as not running.
+   */
+  @ApiMayChange
+  def snapshot(): CompletionStage[HostConnectionPoolSnapshot]
 }
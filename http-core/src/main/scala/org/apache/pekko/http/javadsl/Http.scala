@@ -25,12 +25,14 @@ import com.typesafe.sslconfig.pekko.PekkoSSLConfig
 import org.apache.pekko
 import pekko.{ stream, NotUsed }
 import pekko.actor.{ ActorSystem, ClassicActorSystemProvider, ExtendedActorSystem, ExtensionId, ExtensionIdProvider }
+import pekko.annotation.ApiMayChange
 import pekko.event.LoggingAdapter
 import pekko.http._
 import pekko.http.impl.util.JavaMapping
 import pekko.http.impl.util.JavaMapping.HttpsConnectionContext
 import pekko.http.impl.util.JavaMapping.Implicits._
 import pekko.http.javadsl.model._
+import pekko.http.scaladsl.HostConnectionPoolSnapshot
 import pekko.http.scaladsl.{ model => sm }
 import pekko.http.javadsl.model.ws._
 import pekko.http.javadsl.settings.{ ClientConnectionSettings, ConnectionPoolSettings, ServerSettings }
@@ -829,6 +831,27 @@ class Http(system: ExtendedActorSystem) extends pekko.actor.Extension {
   def setDefaultClientHttpsContext(context: HttpsConnectionContext): Unit =
     delegate.setDefaultClientHttpsContext(context.asScala)
 
+  /**
+   * API MAY CHANGE
+   *
+   * The metrics all server connections and client pools of this system report to, as configured by
+   * `pekko.http.metrics-class`.
+   */
+  @ApiMayChange
+  def getMetrics: HttpMetrics = delegate.metrics
+
+  /**
+   * API MAY CHANGE
+   *
+   * Takes snapshots of the slots and request queues of all host connection pools of this system that are running,
+   * e.g. to export them as metrics periodically. Pools that are shutting down are left out.
+   */
+  @ApiMayChange
+  def getPoolSnapshots: CompletionStage[java.util.List[HostConnectionPoolSnapshot]] = {
+    import scala.collection.JavaConverters._
+    delegate.poolSnapshots().map(_.asJava)(ec).toJava
+  }
+
   @deprecated("use ConnectionContext.httpsServer", since = "10.2.0")
   def createServerHttpsContext(sslConfig: PekkoSSLConfig): HttpsConnectionContext =
     delegate.createServerHttpsContext(sslConfig)
@@ -47,6 +47,18 @@ abstract class ConnectionPoolSettings private[pekko] () { self: ConnectionPoolSe
   @ApiMayChange
   def getResponseEntitySubscriptionTimeout: Duration = responseEntitySubscriptionTimeout
 
+  @ApiMayChange
+  def getRetryBudgetRatio: Double = retryBudgetRatio
+
+  @ApiMayChange
+  def getRetryBudgetMinRetries: Int = retryBudgetMinRetries
+
+  @ApiMayChange
+  def getAdaptiveConcurrencyEnabled: Boolean = adaptiveConcurrencyEnabled
+
+  @ApiMayChange
+  def getAdaptiveConcurrencyTolerance: Double = adaptiveConcurrencyTolerance
+
   // ---
 
   @ApiMayChange
@@ -79,6 +91,18 @@ abstract class ConnectionPoolSettings private[pekko] () { self: ConnectionPoolSe
   @ApiMayChange
   def withResponseEntitySubscriptionTimeout(newValue: Duration): ConnectionPoolSettings
 
+  @ApiMayChange
+  def withRetryBudgetRatio(newValue: Double): ConnectionPoolSettings
+
+  @ApiMayChange
+  def withRetryBudgetMinRetries(newValue: Int): ConnectionPoolSettings
+
+  @ApiMayChange
+  def withAdaptiveConcurrencyEnabled(newValue: Boolean): ConnectionPoolSettings
+
+  @ApiMayChange
+  def withAdaptiveConcurrencyTolerance(newValue: Double): ConnectionPoolSettings
+
   def withTransport(newValue: ClientTransport): ConnectionPoolSettings =
     withUpdatedConnectionSettings(_.withTransport(newValue.asScala))
 }
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.javadsl.settings
+
+import org.apache.pekko
+import pekko.actor.ActorSystem
+import pekko.annotation.{ ApiMayChange, DoNotInherit }
+import pekko.http.impl.settings.LoadSheddingSettingsImpl
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * Public API but not intended for subclassing
+ *
+ * Settings of the adaptive concurrency limit of a server, see `pekko.http.server.load-shedding` in `reference.conf`.
+ */
+@ApiMayChange @DoNotInherit
+abstract class LoadSheddingSettings private[pekko] () { self: LoadSheddingSettingsImpl =>
+
+  /**
+   * Whether requests exceeding the concurrency limit are answered with `503 Service Unavailable` instead of being
+   * passed to the handler.
+   */
+  def enabled: Boolean
+
+  /** The concurrency limit a server binding starts with */
+  def initialLimit: Int
+
+  /** The lowest value the concurrency limit is decreased to */
+  def minLimit: Int
+
+  /** The highest value the concurrency limit is increased to */
+  def maxLimit: Int
+
+  /** Responses taking longer than this decrease the concurrency limit, faster ones may increase it */
+  def latencyThreshold: FiniteDuration
+
+  /** The factor the concurrency limit is multiplied with for every response exceeding the latency threshold */
+  def backoffRatio: Double
+
+  /** The delay to send in the `Retry-After` header of rejected requests, or `0` to send no such header */
+  def retryAfter: FiniteDuration
+
+  // ---
+
+  def withEnabled(newValue: Boolean): LoadSheddingSettings = self.copy(enabled = newValue)
+  def withInitialLimit(newValue: Int): LoadSheddingSettings = self.copy(initialLimit = newValue)
+  def withMinLimit(newValue: Int): LoadSheddingSettings = self.copy(minLimit = newValue)
+  def withMaxLimit(newValue: Int): LoadSheddingSettings = self.copy(maxLimit = newValue)
+  def withLatencyThreshold(newValue: FiniteDuration): LoadSheddingSettings = self.copy(latencyThreshold = newValue)
+  def withBackoffRatio(newValue: Double): LoadSheddingSettings = self.copy(backoffRatio = newValue)
+  def withRetryAfter(newValue: FiniteDuration): LoadSheddingSettings = self.copy(retryAfter = newValue)
+}
+
+object LoadSheddingSettings extends SettingsCompanion[LoadSheddingSettings] {
+  override def create(config: Config): LoadSheddingSettings = LoadSheddingSettingsImpl(config)
+  override def create(configOverrides: String): LoadSheddingSettings = LoadSheddingSettingsImpl(configOverrides)
+  override def create(system: ActorSystem): LoadSheddingSettings = create(system.settings.config)
+}
@@ -45,6 +45,7 @@ abstract class ParserSettings private[pekko] () extends BodyPartParser.Settings
   def getMaxToStrictBytes: Long
   def getMaxChunkExtLength: Int
   def getMaxChunkSize: Int
+  def getCompactEntityBytes: Boolean
   def getMaxCommentParsingDepth: Int
   def getUriParsingMode: Uri.ParsingMode
   def getCookieParsingMode: ParserSettings.CookieParsingMode
@@ -57,6 +58,7 @@ abstract class ParserSettings private[pekko] () extends BodyPartParser.Settings
   def getHeaderValueCacheLimits: ju.Map[String, Int]
   def getIncludeTlsSessionInfoHeader: Boolean
   def getIncludeSslSessionAttribute: Boolean
+  def getIncludeRequestTimingsAttribute: Boolean
   def headerValueCacheLimits: Map[String, Int]
   def getCustomMethods: java.util.function.Function[String, Optional[HttpMethod]]
   def getCustomStatusCodes: java.util.function.Function[Int, Optional[StatusCode]]
@@ -75,6 +77,7 @@ abstract class ParserSettings private[pekko] () extends BodyPartParser.Settings
   def withMaxToStrictBytes(newValue: Long): ParserSettings = self.copy(maxToStrictBytes = newValue)
   def withMaxChunkExtLength(newValue: Int): ParserSettings = self.copy(maxChunkExtLength = newValue)
   def withMaxChunkSize(newValue: Int): ParserSettings = self.copy(maxChunkSize = newValue)
+  def withCompactEntityBytes(newValue: Boolean): ParserSettings = self.copy(compactEntityBytes = newValue)
   def withMaxCommentParsingDepth(newValue: Int): ParserSettings = self.copy(maxCommentParsingDepth = newValue)
   def withUriParsingMode(newValue: Uri.ParsingMode): ParserSettings = self.copy(uriParsingMode = newValue.asScala)
   def withCookieParsingMode(newValue: ParserSettings.CookieParsingMode): ParserSettings =
@@ -88,6 +91,8 @@ abstract class ParserSettings private[pekko] () extends BodyPartParser.Settings
     self.copy(includeTlsSessionInfoHeader = newValue)
   def withIncludeSslSessionAttribute(newValue: Boolean): ParserSettings =
     self.copy(includeSslSessionAttribute = newValue)
+  def withIncludeRequestTimingsAttribute(newValue: Boolean): ParserSettings =
+    self.copy(includeRequestTimingsAttribute = newValue)
   def withModeledHeaderParsing(newValue: Boolean): ParserSettings = self.copy(modeledHeaderParsing = newValue)
   def withIgnoreIllegalHeaderFor(newValue: List[String]): ParserSettings =
     self.copy(ignoreIllegalHeaderFor = newValue.map(_.toLowerCase).toSet)
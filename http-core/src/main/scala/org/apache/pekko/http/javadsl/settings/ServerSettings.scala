@@ -67,6 +67,9 @@ import scala.concurrent.duration.{ Duration, FiniteDuration }
   def getTerminationDeadlineExceededResponse: pekko.http.javadsl.model.HttpResponse
   def getParsingErrorHandler: String
   def getStreamCancellationDelay: FiniteDuration
+  def getResponseCoalescingMaxBytes: Int
+  def getResponseCoalescingMaxDelay: FiniteDuration
+  def getLoadSheddingSettings: LoadSheddingSettings
 
   // ---
 
@@ -106,6 +109,12 @@ import scala.concurrent.duration.{ Duration, FiniteDuration }
   def withParsingErrorHandler(newValue: String): ServerSettings = self.copy(parsingErrorHandler = parsingErrorHandler)
   def withStreamCancellationDelay(newValue: FiniteDuration): ServerSettings =
     self.copy(streamCancellationDelay = newValue)
+  def withResponseCoalescingMaxBytes(newValue: Int): ServerSettings =
+    self.copy(responseCoalescingMaxBytes = newValue)
+  def withResponseCoalescingMaxDelay(newValue: FiniteDuration): ServerSettings =
+    self.copy(responseCoalescingMaxDelay = newValue)
+  def withLoadSheddingSettings(newValue: LoadSheddingSettings): ServerSettings =
+    self.copy(loadSheddingSettings = newValue.asScala)
 }
 
 object ServerSettings extends SettingsCompanion[ServerSettings] {
@@ -14,12 +14,13 @@
 package org.apache.pekko.http.javadsl.settings
 
 import java.util.Random
-import java.util.function.Supplier
+import java.util.function.{ Consumer, Supplier }
 
 import org.apache.pekko
 import pekko.actor.ActorSystem
 import pekko.annotation.DoNotInherit
 import pekko.http.impl.settings.WebSocketSettingsImpl
+import pekko.http.scaladsl.model.ws.WebSocketConnectionStats
 import pekko.util.ByteString
 import com.typesafe.config.Config
 
@@ -52,6 +53,22 @@ trait WebSocketSettings { self: WebSocketSettingsImpl =>
 
   def logFrames: Boolean
   def withLogFrames(shouldLog: Boolean): WebSocketSettings
+
+  /**
+   * The time after which a connection is closed if the peer has not answered a keep-alive Ping frame.
+   * Only has an effect if `periodicKeepAliveMode` is `ping`.
+   */
+  def pingRoundTripTimeout: Duration
+  def withPingRoundTripTimeout(newValue: Duration): WebSocketSettings =
+    copy(pingRoundTripTimeout = newValue)
+
+  /**
+   * The provided consumer will be invoked once for each new connection with the live [[WebSocketConnectionStats]]
+   * of that connection, e.g. to register them with a metrics library.
+   */
+  def getConnectionStatsListener: Consumer[WebSocketConnectionStats]
+  def withConnectionStatsListener(newValue: Consumer[WebSocketConnectionStats]): WebSocketSettings =
+    copy(connectionStatsListener = stats => newValue.accept(stats))
 }
 
 object WebSocketSettings {
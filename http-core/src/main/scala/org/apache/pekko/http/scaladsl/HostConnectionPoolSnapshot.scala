@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl
+
+import java.time.{ Duration => JDuration }
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+import pekko.util.JavaDurationConverters._
+
+import scala.collection.JavaConverters._
+import scala.collection.immutable
+import scala.concurrent.duration.{ Duration, FiniteDuration }
+
+/**
+ * API MAY CHANGE
+ *
+ * The state of a host connection pool at one point in time, as returned by `HostConnectionPool.snapshot()` and
+ * `Http().poolSnapshots()`. Taking a snapshot is cheap enough to do it every few seconds.
+ *
+ * @param host the host the pool connects to
+ * @param port the port the pool connects to
+ * @param isRunning whether the pool was running, if not it has no slots and no queued requests
+ * @param slots the state of every slot of the pool, i.e. `max-connections` many
+ * @param queuedRequests the number of requests waiting in front of the pool for a slot, at most `max-open-requests`
+ * @param retryingRequests the number of failed requests waiting inside the pool to be retried
+ * @param connectionEmbargo how long new connection attempts are currently delayed after failed attempts
+ */
+@ApiMayChange
+final class HostConnectionPoolSnapshot private[http] (
+    val host: String,
+    val port: Int,
+    val isRunning: Boolean,
+    val slots: immutable.Seq[HostConnectionPoolSnapshot.Slot],
+    val queuedRequests: Int,
+    val retryingRequests: Int,
+    val connectionEmbargo: FiniteDuration) {
+  import HostConnectionPoolSnapshot._
+
+  /** The number of slots with an open connection that can take a request */
+  def idleSlots: Int = count(Status.Idle)
+
+  /** The number of slots that are connecting */
+  def connectingSlots: Int = count(Status.Connecting)
+
+  /** The number of slots with a request in flight */
+  def busySlots: Int = count(Status.Busy)
+
+  /** The number of slots waiting for the connection embargo to end before connecting */
+  def embargoedSlots: Int = count(Status.Embargoed)
+
+  /** The number of slots without a connection that can connect when a request arrives */
+  def unconnectedSlots: Int = count(Status.Unconnected)
+
+  /** The number of slots closing their connection */
+  def closingSlots: Int = count(Status.Closing)
+
+  private def count(status: Status): Int = slots.count(_.status == status)
+
+  /** Java API */
+  def getHost: String = host
+  /** Java API */
+  def getPort: Int = port
+  /** Java API */
+  def getSlots: java.util.List[Slot] = slots.asJava
+  /** Java API */
+  def getQueuedRequests: Int = queuedRequests
+  /** Java API */
+  def getRetryingRequests: Int = retryingRequests
+  /** Java API */
+  def getConnectionEmbargo: JDuration = connectionEmbargo.asJava
+  /** Java API */
+  def getIdleSlots: Int = idleSlots
+  /** Java API */
+  def getConnectingSlots: Int = connectingSlots
+  /** Java API */
+  def getBusySlots: Int = busySlots
+  /** Java API */
+  def getEmbargoedSlots: Int = embargoedSlots
+  /** Java API */
+  def getUnconnectedSlots: Int = unconnectedSlots
+  /** Java API */
+  def getClosingSlots: Int = closingSlots
+
+  override def toString: String =
+    s"HostConnectionPoolSnapshot($host:$port, idle = $idleSlots, connecting = $connectingSlots, busy = $busySlots, " +
+    s"embargoed = $embargoedSlots, unconnected = $unconnectedSlots, closing = $closingSlots, " +
+    s"queued = $queuedRequests, retrying = $retryingRequests, embargo = $connectionEmbargo)"
+}
+
+@ApiMayChange
+object HostConnectionPoolSnapshot {
+
+  /**
+   * API MAY CHANGE
+   *
+   * The status of a [[Slot]].
+   */
+  @ApiMayChange
+  sealed abstract class Status(val name: String) {
+
+    /** Java API */
+    def getName: String = name
+
+    override def toString: String = name
+  }
+  @ApiMayChange
+  object Status {
+    /** Without a connection, connects when a request arrives */
+    case object Unconnected extends Status("unconnected")
+
+    /** Waiting for the connection embargo to end before connecting */
+    case object Embargoed extends Status("embargoed")
+
+    /** Connecting */
+    case object Connecting extends Status("connecting")
+
+    /** With an open connection that can take a request */
+    case object Idle extends Status("idle")
+
+    /** With a request in flight */
+    case object Busy extends Status("busy")
+
+    /** Closing its connection */
+    case object Closing extends Status("closing")
+
+    val values: immutable.Seq[Status] = List(Unconnected, Embargoed, Connecting, Idle, Busy, Closing)
+  }
+
+  /** Java API */
+  def statusUnconnected: Status = Status.Unconnected
+  /** Java API */
+  def statusEmbargoed: Status = Status.Embargoed
+  /** Java API */
+  def statusConnecting: Status = Status.Connecting
+  /** Java API */
+  def statusIdle: Status = Status.Idle
+  /** Java API */
+  def statusBusy: Status = Status.Busy
+  /** Java API */
+  def statusClosing: Status = Status.Closing
+  /** Java API */
+  def getStatusValues: java.util.List[Status] = Status.values.asJava
+
+  /**
+   * API MAY CHANGE
+   *
+   * The state of a single slot of a pool.
+   *
+   * @param slotId the id of the slot, lower ids are preferred for new requests
+   * @param status the status of the slot
+   * @param state the name of the internal state of the slot, e.g. `WaitingForResponse`, which is more detailed than
+   *              the status but may change between versions
+   * @param timeInState how long the slot has been in its current state, e.g. to detect head-of-line blocking
+   */
+  @ApiMayChange
+  final class Slot private[http] (
+      val slotId: Int,
+      val status: Status,
+      val state: String,
+      val timeInState: FiniteDuration) {
+
+    /** Java API */
+    def getSlotId: Int = slotId
+    /** Java API */
+    def getStatus: Status = status
+    /** Java API */
+    def getState: String = state
+    /** Java API */
+    def getTimeInState: JDuration = timeInState.asJava
+
+    override def toString: String = s"Slot($slotId, $status, $state, $timeInState)"
+  }
+
+  private[http] def notRunning(host: String, port: Int): HostConnectionPoolSnapshot =
+    new HostConnectionPoolSnapshot(host, port, isRunning = false, Nil, 0, 0, Duration.Zero)
+}
@@ -18,9 +18,10 @@ import java.util.concurrent.CompletionStage
 import javax.net.ssl._
 import org.apache.pekko
 import pekko.actor._
-import pekko.annotation.{ DoNotInherit, InternalApi, InternalStableApi }
+import pekko.annotation.{ ApiMayChange, DoNotInherit, InternalApi, InternalStableApi }
 import pekko.dispatch.ExecutionContexts
 import pekko.event.{ Logging, LoggingAdapter }
+import pekko.http.HttpMetrics
 import pekko.http.impl.engine.HttpConnectionIdleTimeoutBidi
 import pekko.http.impl.engine.client._
 import pekko.http.impl.engine.http2.Http2
@@ -46,6 +47,7 @@ import pekko.util.ByteString
 import pekko.util.ManifestInfo
 
 import scala.annotation.nowarn
+import scala.collection.immutable
 import com.typesafe.config.Config
 import com.typesafe.sslconfig.pekko._
 import com.typesafe.sslconfig.pekko.util.PekkoLoggerFactory
@@ -103,6 +105,17 @@ class HttpExt @InternalStableApi /* constructor signature is hardcoded in Teleme
   // Date header rendering is shared across the system, so that date is only rendered once a second
   private[http] val dateHeaderRendering = DateHeaderRendering()
 
+  private[this] lazy val _metrics: HttpMetrics = HttpMetrics.create(system)
+
+  /**
+   * API MAY CHANGE
+   *
+   * The metrics all server connections and client pools of this system report to, as configured by
+   * `pekko.http.metrics-class`.
+   */
+  @ApiMayChange
+  def metrics: HttpMetrics = _metrics
+
   private type ServerLayerBidiFlow = BidiFlow[HttpResponse, ByteString, ByteString, HttpRequest, ServerTerminator]
   private type ServerLayerFlow = Flow[ByteString, ByteString, (Future[Done], ServerTerminator)]
 
@@ -397,8 +410,23 @@ class HttpExt @InternalStableApi /* constructor signature is hardcoded in Teleme
       settings: ServerSettings = ServerSettings(system),
       remoteAddress: Option[InetSocketAddress] = None,
       log: LoggingAdapter = system.log,
-      isSecureConnection: Boolean = false): ServerLayer = {
-    val server = HttpServerBluePrint(settings, log, isSecureConnection, dateHeaderRendering)
+      isSecureConnection: Boolean = false): ServerLayer =
+    serverLayerImpl(settings, remoteAddress, log, isSecureConnection,
+      AdmissionControl.limiter(settings, metrics))
+
+  /**
+   * INTERNAL API
+   *
+   * The `limiter` is shared by all materializations of the layer, and may also be shared with HTTP/2 connections.
+   */
+  @InternalApi
+  private[http] def serverLayerImpl(
+      settings: ServerSettings,
+      remoteAddress: Option[InetSocketAddress],
+      log: LoggingAdapter,
+      isSecureConnection: Boolean,
+      limiter: Option[AdmissionControl.ConcurrencyLimiter]): ServerLayer = {
+    val server = HttpServerBluePrint(settings, log, isSecureConnection, dateHeaderRendering, metrics, limiter)
       .addAttributes(HttpAttributes.remoteAddress(remoteAddress))
       .addAttributes(cancellationStrategyAttributeForDelay(settings.streamCancellationDelay))
 
@@ -858,6 +886,15 @@ class HttpExt @InternalStableApi /* constructor signature is hardcoded in Teleme
         TLSPlacebo() // if it's not HTTPS, we don't enable SSL/TLS
     }
 
+  /**
+   * API MAY CHANGE
+   *
+   * Takes snapshots of the slots and request queues of all host connection pools of this system that are running,
+   * e.g. to export them as metrics periodically. Pools that are shutting down are left out.
+   */
+  @ApiMayChange
+  def poolSnapshots(): Future[immutable.Seq[HostConnectionPoolSnapshot]] = poolMaster.snapshotAll()
+
   /**
    * INTERNAL API
    *
@@ -1104,9 +1141,19 @@ object Http extends ExtensionId[HttpExt] with ExtensionIdProvider {
      */
     def shutdown(): Future[Done]
 
+    /**
+     * API MAY CHANGE
+     *
+     * Takes a snapshot of the slots and the request queue of the pool. A pool that has not been started yet or was
+     * shut down is reported as not running.
+     */
+    @ApiMayChange
+    def snapshot(): Future[HostConnectionPoolSnapshot]
+
     private[http] def toJava = new pekko.http.javadsl.HostConnectionPool {
       override def setup = HostConnectionPool.this.setup
       def shutdown(): CompletionStage[Done] = HostConnectionPool.this.shutdown().toJava
+      def snapshot(): CompletionStage[HostConnectionPoolSnapshot] = HostConnectionPool.this.snapshot().toJava
     }
 
     override def productArity: Int = 1
@@ -1121,6 +1168,7 @@ object Http extends ExtensionId[HttpExt] with ExtensionIdProvider {
   final private[http] class HostConnectionPoolImpl(val poolId: PoolId, master: PoolMaster) extends HostConnectionPool {
     override def setup: HostConnectionPoolSetup = poolId.hcps
     override def shutdown(): Future[Done] = master.shutdown(poolId)
+    override def snapshot(): Future[HostConnectionPoolSnapshot] = master.snapshot(poolId)
 
     override def equals(obj: Any): Boolean = obj match {
       case i: HostConnectionPoolImpl if i.poolId == poolId => true
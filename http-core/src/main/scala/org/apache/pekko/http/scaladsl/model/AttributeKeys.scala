@@ -20,4 +20,5 @@ object AttributeKeys {
   val webSocketUpgrade = AttributeKey[WebSocketUpgrade](name = "upgrade-to-websocket")
   val sslSession = AttributeKey[SslSessionInfo](name = "ssl-session")
   val trailer = AttributeKey[Trailer](name = "trailer")
+  val requestTimings = AttributeKey[RequestTimings](name = "request-timings")
 }
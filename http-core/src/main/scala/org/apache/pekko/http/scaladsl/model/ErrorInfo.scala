@@ -14,7 +14,7 @@
 package org.apache.pekko.http.scaladsl.model
 
 import StatusCodes.ClientError
-import org.apache.pekko.annotation.InternalApi
+import org.apache.pekko.annotation.{ ApiMayChange, InternalApi }
 
 /**
  * Two-level model of error information.
@@ -147,3 +147,13 @@ final case class EntityStreamSizeException(limit: Long, actualSize: Option[Long]
 }
 
 case class RequestTimeoutException(request: HttpRequest, message: String) extends RuntimeException(message)
+
+/**
+ * The request failed with the given cause and would have been retried, but the `retry-budget` of its host connection
+ * pool was used up, see `pekko.http.host-connection-pool.retry-budget`.
+ */
+@ApiMayChange
+final case class RetryBudgetExhaustedException(request: HttpRequest, cause: Throwable)
+    extends RuntimeException(
+      s"Request to [${request.uri}] was not retried because the retry budget of its pool is used up: " +
+      cause.getMessage, cause)
@@ -103,7 +103,7 @@ sealed trait HttpEntity extends jm.HttpEntity {
           s"Request of size $contentLength was longer than the maximum of $maxBytes")))
       case _ =>
         dataBytes
-          .via(new pekko.http.impl.util.ToStrict(timeout, Some(maxBytes), contentType))
+          .via(new pekko.http.impl.util.ToStrict(timeout, Some(maxBytes), contentType, contentLengthOption))
           .runWith(Sink.head)
     }
 
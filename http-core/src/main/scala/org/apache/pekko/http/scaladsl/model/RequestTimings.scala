@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.model
+
+import org.apache.pekko
+import pekko.annotation.ApiMayChange
+
+/**
+ * API MAY CHANGE
+ *
+ * The times an HTTP/1 request passed the phases of its processing on the server, attached to the request as the
+ * [[AttributeKeys.requestTimings]] attribute if `pekko.http.server.parsing.request-timings-attribute` is enabled.
+ *
+ * All times are taken from `System.nanoTime()` and are `0` as long as the request did not reach the phase. The
+ * `routed` time is only set when the request is handled by a `Route`. The timings are complete once the metrics
+ * configured with `pekko.http.metrics-class` are notified through `serverRequestPhases`.
+ */
+@ApiMayChange
+final class RequestTimings private[http] (
+    /** When the parser started to read the request */
+    val parseStarted: Long) {
+  @volatile private var _parsed = 0L
+  @volatile private var _dispatched = 0L
+  @volatile private var _routed = 0L
+  @volatile private var _responded = 0L
+  @volatile private var _rendered = 0L
+  @volatile private var _completed = 0L
+
+  /** When the request head was parsed */
+  def parsed: Long = _parsed
+
+  /** When the request was handed to the handler */
+  def dispatched: Long = _dispatched
+
+  /** When the route tree returned the future of its result */
+  def routed: Long = _routed
+
+  /** When the response of the handler arrived at the server */
+  def responded: Long = _responded
+
+  /** When the response head was rendered */
+  def rendered: Long = _rendered
+
+  /** When the last byte of the response was handed to the network */
+  def completed: Long = _completed
+
+  /** The time it took to parse the request head in nanoseconds */
+  def parseNanos: Long = between(parseStarted, parsed)
+
+  /** The time the request waited for the handler, e.g. because of pipelining, in nanoseconds */
+  def queueNanos: Long = between(parsed, dispatched)
+
+  /** The time the route tree took to return the future of its result in nanoseconds */
+  def routeNanos: Long = between(dispatched, routed)
+
+  /** The time it took the handler to produce the response after routing in nanoseconds */
+  def handlerNanos: Long = between(if (routed != 0L) routed else dispatched, responded)
+
+  /** The time it took to render the response head in nanoseconds */
+  def renderNanos: Long = between(responded, rendered)
+
+  /** The time it took to send the response entity after its head in nanoseconds */
+  def flushNanos: Long = between(rendered, completed)
+
+  /** The time from starting to parse the request until the last byte of the response was sent in nanoseconds */
+  def totalNanos: Long = between(parseStarted, completed)
+
+  /** Java API */
+  def getParseNanos: Long = parseNanos
+  /** Java API */
+  def getQueueNanos: Long = queueNanos
+  /** Java API */
+  def getRouteNanos: Long = routeNanos
+  /** Java API */
+  def getHandlerNanos: Long = handlerNanos
+  /** Java API */
+  def getRenderNanos: Long = renderNanos
+  /** Java API */
+  def getFlushNanos: Long = flushNanos
+  /** Java API */
+  def getTotalNanos: Long = totalNanos
+
+  private[http] def markParsed(): Unit = _parsed = System.nanoTime()
+  private[http] def markDispatched(): Unit = _dispatched = System.nanoTime()
+  private[http] def markRouted(): Unit = _routed = System.nanoTime()
+  private[http] def markResponded(): Unit = _responded = System.nanoTime()
+  private[http] def markRendered(): Unit = _rendered = System.nanoTime()
+  private[http] def markCompleted(): Unit = _completed = System.nanoTime()
+
+  private def between(from: Long, to: Long): Long = if (from == 0L || to == 0L) 0L else to - from
+
+  override def toString: String =
+    s"RequestTimings(parse = $parseNanos, queue = $queueNanos, route = $routeNanos, handler = $handlerNanos, " +
+    s"render = $renderNanos, flush = $flushNanos)"
+}
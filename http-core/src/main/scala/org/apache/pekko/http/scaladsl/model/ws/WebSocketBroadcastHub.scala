@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.model.ws
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.http.impl.engine.ws.MessageToFrameRenderer
+import pekko.stream.OverflowStrategy
+import pekko.stream.scaladsl.{ BroadcastHub, Flow, Keep, Sink, Source }
+
+/**
+ * Broadcasts strict WebSocket messages to many server-side connections, e.g. to all clients subscribed to a topic.
+ *
+ * Every text message is encoded into its frame once, when it enters the hub, so that all connections the message is
+ * sent to reuse the encoded frame instead of each encoding the text again. Binary frames share the message data anyway.
+ *
+ * So that a single slow client cannot hold up all others, every subscriber gets its own buffer together with a
+ * [[WebSocketBroadcastHub.SlowSubscriberPolicy]] deciding what happens when that buffer is full.
+ *
+ * Create a hub by materializing [[WebSocketBroadcastHub.sink]] once and use [[subscribe]] as the source of outgoing
+ * messages of each connection's handler flow.
+ */
+final class WebSocketBroadcastHub private (messages: Source[Message, NotUsed]) {
+  import WebSocketBroadcastHub.SlowSubscriberPolicy
+
+  /**
+   * A source of all messages broadcast after it was materialized, buffering up to `bufferSize` messages that the
+   * connection has not yet been able to write. Materialize it once per connection.
+   */
+  def subscribe(bufferSize: Int, policy: SlowSubscriberPolicy): Source[Message, NotUsed] = {
+    require(bufferSize > 0, "bufferSize must be > 0")
+    messages.buffer(bufferSize, policy.overflowStrategy)
+  }
+}
+
+object WebSocketBroadcastHub {
+
+  /**
+   * Decides what happens to a subscriber that does not keep up with the messages broadcast.
+   */
+  sealed abstract class SlowSubscriberPolicy(private[ws] val overflowStrategy: OverflowStrategy)
+  object SlowSubscriberPolicy {
+
+    /** Drops the oldest buffered message to make room for the new one, the subscriber misses messages. */
+    case object DropOldest extends SlowSubscriberPolicy(OverflowStrategy.dropHead)
+
+    /**
+     * Fails the subscriber's stream with a [[pekko.stream.BufferOverflowException]], which closes its connection.
+     */
+    case object Disconnect extends SlowSubscriberPolicy(OverflowStrategy.fail)
+  }
+
+  /**
+   * A sink that broadcasts all strict messages it receives to the subscribers of the materialized hub. Streamed
+   * messages cannot be broadcast and fail the sink with an [[IllegalArgumentException]].
+   *
+   * As with [[pekko.stream.scaladsl.BroadcastHub]], `bufferSize` must be a power of two and the sink is backpressured
+   * while this many messages have not yet been taken over into the subscriber buffers, as well as while there are no
+   * subscribers.
+   */
+  def sink(bufferSize: Int): Sink[Message, WebSocketBroadcastHub] =
+    Flow[Message]
+      .map(prerender)
+      .toMat(BroadcastHub.sink[Message](bufferSize))(Keep.right)
+      .mapMaterializedValue(new WebSocketBroadcastHub(_))
+
+  private def prerender(message: Message): Message = {
+    message match {
+      case m: TextMessage.Strict   => MessageToFrameRenderer.share(m)
+      case _: BinaryMessage.Strict =>
+      case m                       => throw new IllegalArgumentException(s"Only strict messages can be broadcast, got $m")
+    }
+    message
+  }
+}
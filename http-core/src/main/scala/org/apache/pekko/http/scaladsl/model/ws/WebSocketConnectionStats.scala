@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.model.ws
+
+import java.util.Optional
+
+import scala.concurrent.duration._
+
+/**
+ * Live statistics of a single WebSocket connection, see
+ * [[org.apache.pekko.http.scaladsl.settings.WebSocketSettings.connectionStatsListener]].
+ *
+ * The values are updated by the connection's stream as frames pass and can be read from any thread at any time.
+ * Message and byte rates can be derived by sampling the counters periodically.
+ *
+ * Only data frames are counted, control frames like Ping, Pong and Close are not.
+ */
+final class WebSocketConnectionStats private[http] () {
+  @volatile private[http] var _lastPingRoundTripNanos: Long = -1L
+  @volatile private[http] var _messagesReceived: Long = 0L
+  @volatile private[http] var _messagesSent: Long = 0L
+  @volatile private[http] var _bytesReceived: Long = 0L
+  @volatile private[http] var _bytesSent: Long = 0L
+  @volatile private[http] var _closed: Boolean = false
+
+  /**
+   * The time between sending the last answered keep-alive Ping frame and receiving the Pong frame for it, or `None`
+   * if no Ping frame was answered yet.
+   */
+  def lastPingRoundTrip: Option[FiniteDuration] = {
+    val nanos = _lastPingRoundTripNanos
+    if (nanos >= 0) Some(nanos.nanos) else None
+  }
+  def messagesReceived: Long = _messagesReceived
+  def messagesSent: Long = _messagesSent
+  def bytesReceived: Long = _bytesReceived
+  def bytesSent: Long = _bytesSent
+
+  /** Whether the connection has been closed, after which the statistics don't change anymore */
+  def isClosed: Boolean = _closed
+
+  /** Java API */
+  def getLastPingRoundTrip: Optional[java.time.Duration] = {
+    val nanos = _lastPingRoundTripNanos
+    if (nanos >= 0) Optional.of(java.time.Duration.ofNanos(nanos)) else Optional.empty()
+  }
+  /** Java API */
+  def getMessagesReceived: Long = messagesReceived
+  /** Java API */
+  def getMessagesSent: Long = messagesSent
+  /** Java API */
+  def getBytesReceived: Long = bytesReceived
+  /** Java API */
+  def getBytesSent: Long = bytesSent
+
+  override def toString: String =
+    s"WebSocketConnectionStats(lastPingRoundTrip = $lastPingRoundTrip, messagesReceived = $messagesReceived, " +
+    s"messagesSent = $messagesSent, bytesReceived = $bytesReceived, bytesSent = $bytesSent, isClosed = $isClosed)"
+}
@@ -62,6 +62,25 @@ abstract class ConnectionPoolSettings extends js.ConnectionPoolSettings { self:
   @ApiMayChange
   def responseEntitySubscriptionTimeout: Duration
 
+  /**
+   * The number of retries the pool allows for every request sent through it, or infinity if retries are only limited by
+   * `maxRetries`
+   */
+  @ApiMayChange
+  def retryBudgetRatio: Double
+
+  /** The number of retries the pool allows regardless of `retryBudgetRatio`, e.g. right after it was started */
+  @ApiMayChange
+  def retryBudgetMinRetries: Int
+
+  /** Whether the pool limits the number of requests it runs concurrently below `maxConnections` when latency grows */
+  @ApiMayChange
+  def adaptiveConcurrencyEnabled: Boolean
+
+  /** The factor by which response times may exceed their long-term average before the concurrency limit is decreased */
+  @ApiMayChange
+  def adaptiveConcurrencyTolerance: Double
+
   // ---
 
   @ApiMayChange
@@ -98,6 +117,22 @@ abstract class ConnectionPoolSettings extends js.ConnectionPoolSettings { self:
   override def withResponseEntitySubscriptionTimeout(newValue: Duration): ConnectionPoolSettings =
     self.copyDeep(_.withResponseEntitySubscriptionTimeout(newValue), responseEntitySubscriptionTimeout = newValue)
 
+  @ApiMayChange
+  override def withRetryBudgetRatio(newValue: Double): ConnectionPoolSettings =
+    self.copyDeep(_.withRetryBudgetRatio(newValue), retryBudgetRatio = newValue)
+
+  @ApiMayChange
+  override def withRetryBudgetMinRetries(newValue: Int): ConnectionPoolSettings =
+    self.copyDeep(_.withRetryBudgetMinRetries(newValue), retryBudgetMinRetries = newValue)
+
+  @ApiMayChange
+  override def withAdaptiveConcurrencyEnabled(newValue: Boolean): ConnectionPoolSettings =
+    self.copyDeep(_.withAdaptiveConcurrencyEnabled(newValue), adaptiveConcurrencyEnabled = newValue)
+
+  @ApiMayChange
+  override def withAdaptiveConcurrencyTolerance(newValue: Double): ConnectionPoolSettings =
+    self.copyDeep(_.withAdaptiveConcurrencyTolerance(newValue), adaptiveConcurrencyTolerance = newValue)
+
   /**
    * Since 10.1.0, the transport is configured in [[ClientConnectionSettings]]. This method is a shortcut for
    * `withUpdatedConnectionSettings(_.withTransport(newTransport))`.
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.settings
+
+import org.apache.pekko
+import pekko.annotation.{ ApiMayChange, DoNotInherit }
+import pekko.http.impl.settings.LoadSheddingSettingsImpl
+import com.typesafe.config.Config
+
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * Public API but not intended for subclassing
+ *
+ * Settings of the adaptive concurrency limit of a server, see `pekko.http.server.load-shedding` in `reference.conf`.
+ */
+@ApiMayChange @DoNotInherit
+abstract class LoadSheddingSettings private[pekko] ()
+    extends pekko.http.javadsl.settings.LoadSheddingSettings {
+  self: LoadSheddingSettingsImpl =>
+  override def enabled: Boolean
+  override def initialLimit: Int
+  override def minLimit: Int
+  override def maxLimit: Int
+  override def latencyThreshold: FiniteDuration
+  override def backoffRatio: Double
+  override def retryAfter: FiniteDuration
+
+  // --
+  // override for more specific return type
+  override def withEnabled(newValue: Boolean): LoadSheddingSettings = self.copy(enabled = newValue)
+  override def withInitialLimit(newValue: Int): LoadSheddingSettings = self.copy(initialLimit = newValue)
+  override def withMinLimit(newValue: Int): LoadSheddingSettings = self.copy(minLimit = newValue)
+  override def withMaxLimit(newValue: Int): LoadSheddingSettings = self.copy(maxLimit = newValue)
+  override def withLatencyThreshold(newValue: FiniteDuration): LoadSheddingSettings =
+    self.copy(latencyThreshold = newValue)
+  override def withBackoffRatio(newValue: Double): LoadSheddingSettings = self.copy(backoffRatio = newValue)
+  override def withRetryAfter(newValue: FiniteDuration): LoadSheddingSettings = self.copy(retryAfter = newValue)
+}
+
+object LoadSheddingSettings extends SettingsCompanion[LoadSheddingSettings] {
+  def fromSubConfig(root: Config, c: Config) =
+    LoadSheddingSettingsImpl.fromSubConfig(root, c)
+
+  override def apply(config: Config): LoadSheddingSettings = LoadSheddingSettingsImpl(config)
+  override def apply(configOverrides: String): LoadSheddingSettings = LoadSheddingSettingsImpl(configOverrides)
+}
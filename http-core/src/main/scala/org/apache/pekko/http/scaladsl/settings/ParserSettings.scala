@@ -46,6 +46,7 @@ abstract class ParserSettings private[pekko] () extends pekko.http.javadsl.setti
   def maxToStrictBytes: Long
   def maxChunkExtLength: Int
   def maxChunkSize: Int
+  def compactEntityBytes: Boolean
   def maxCommentParsingDepth: Int
   def uriParsingMode: Uri.ParsingMode
   def cookieParsingMode: ParserSettings.CookieParsingMode
@@ -58,6 +59,7 @@ abstract class ParserSettings private[pekko] () extends pekko.http.javadsl.setti
   def headerValueCacheLimits: Map[String, Int]
   def includeTlsSessionInfoHeader: Boolean
   def includeSslSessionAttribute: Boolean
+  def includeRequestTimingsAttribute: Boolean
   def customMethods: String => Option[HttpMethod]
   def customStatusCodes: Int => Option[StatusCode]
   def customMediaTypes: MediaTypes.FindCustom
@@ -74,10 +76,12 @@ abstract class ParserSettings private[pekko] () extends pekko.http.javadsl.setti
   override def getMaxHeaderValueLength = maxHeaderValueLength
   override def getIncludeTlsSessionInfoHeader = includeTlsSessionInfoHeader
   override def getIncludeSslSessionAttribute = includeSslSessionAttribute
+  override def getIncludeRequestTimingsAttribute = includeRequestTimingsAttribute
   override def getIllegalHeaderWarnings = illegalHeaderWarnings
   override def getIgnoreIllegalHeaderFor = ignoreIllegalHeaderFor
   override def getMaxHeaderNameLength = maxHeaderNameLength
   override def getMaxChunkSize = maxChunkSize
+  override def getCompactEntityBytes = compactEntityBytes
   override def getMaxResponseReasonLength = maxResponseReasonLength
   override def getMaxUriLength = maxUriLength
   override def getMaxMethodLength = maxMethodLength
@@ -114,6 +118,7 @@ abstract class ParserSettings private[pekko] () extends pekko.http.javadsl.setti
   override def withMaxToStrictBytes(newValue: Long): ParserSettings = self.copy(maxToStrictBytes = newValue)
   override def withMaxChunkExtLength(newValue: Int): ParserSettings = self.copy(maxChunkExtLength = newValue)
   override def withMaxChunkSize(newValue: Int): ParserSettings = self.copy(maxChunkSize = newValue)
+  override def withCompactEntityBytes(newValue: Boolean): ParserSettings = self.copy(compactEntityBytes = newValue)
   override def withMaxCommentParsingDepth(newValue: Int): ParserSettings = self.copy(maxCommentParsingDepth = newValue)
   override def withIllegalHeaderWarnings(newValue: Boolean): ParserSettings =
     self.copy(illegalHeaderWarnings = newValue)
@@ -121,6 +126,8 @@ abstract class ParserSettings private[pekko] () extends pekko.http.javadsl.setti
     self.copy(includeTlsSessionInfoHeader = newValue)
   override def withIncludeSslSessionAttribute(newValue: Boolean): ParserSettings =
     self.copy(includeSslSessionAttribute = newValue)
+  override def withIncludeRequestTimingsAttribute(newValue: Boolean): ParserSettings =
+    self.copy(includeRequestTimingsAttribute = newValue)
   override def withModeledHeaderParsing(newValue: Boolean): ParserSettings = self.copy(modeledHeaderParsing = newValue)
   override def withIgnoreIllegalHeaderFor(newValue: List[String]): ParserSettings =
     self.copy(ignoreIllegalHeaderFor = newValue.map(_.toLowerCase).toSet)
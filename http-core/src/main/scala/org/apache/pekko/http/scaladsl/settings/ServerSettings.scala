@@ -68,6 +68,9 @@ abstract class ServerSettings private[pekko] () extends pekko.http.javadsl.setti
   def terminationDeadlineExceededResponse: HttpResponse
   def parsingErrorHandler: String
   def streamCancellationDelay: FiniteDuration
+  def responseCoalescingMaxBytes: Int
+  def responseCoalescingMaxDelay: FiniteDuration
+  def loadSheddingSettings: LoadSheddingSettings
 
   /* Java APIs */
 
@@ -98,6 +101,9 @@ abstract class ServerSettings private[pekko] () extends pekko.http.javadsl.setti
     terminationDeadlineExceededResponse
   override def getParsingErrorHandler: String = parsingErrorHandler
   override def getStreamCancellationDelay: FiniteDuration = streamCancellationDelay
+  override def getResponseCoalescingMaxBytes: Int = responseCoalescingMaxBytes
+  override def getResponseCoalescingMaxDelay: FiniteDuration = responseCoalescingMaxDelay
+  override def getLoadSheddingSettings: pekko.http.javadsl.settings.LoadSheddingSettings = loadSheddingSettings
   // ---
 
   // override for more specific return type
@@ -131,6 +137,12 @@ abstract class ServerSettings private[pekko] () extends pekko.http.javadsl.setti
   override def withParsingErrorHandler(newValue: String) = self.copy(parsingErrorHandler = newValue)
   override def withStreamCancellationDelay(newValue: FiniteDuration): ServerSettings =
     self.copy(streamCancellationDelay = newValue)
+  override def withResponseCoalescingMaxBytes(newValue: Int): ServerSettings =
+    self.copy(responseCoalescingMaxBytes = newValue)
+  override def withResponseCoalescingMaxDelay(newValue: FiniteDuration): ServerSettings =
+    self.copy(responseCoalescingMaxDelay = newValue)
+  def withLoadSheddingSettings(newValue: LoadSheddingSettings): ServerSettings =
+    self.copy(loadSheddingSettings = newValue)
 
   // overloads for Scala idiomatic use
   def withTimeouts(newValue: ServerSettings.Timeouts): ServerSettings = self.copy(timeouts = newValue)
@@ -158,6 +170,8 @@ abstract class ServerSettings private[pekko] () extends pekko.http.javadsl.setti
   def mapWebsocketSettings(f: WebSocketSettings => WebSocketSettings): ServerSettings =
     withWebsocketSettings(f(websocketSettings))
   def mapTimeouts(f: ServerSettings.Timeouts => ServerSettings.Timeouts): ServerSettings = withTimeouts(f(timeouts))
+  def mapLoadSheddingSettings(f: LoadSheddingSettings => LoadSheddingSettings): ServerSettings =
+    withLoadSheddingSettings(f(loadSheddingSettings))
 
   /**
    * INTERNAL API
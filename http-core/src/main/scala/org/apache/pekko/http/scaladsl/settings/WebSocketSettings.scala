@@ -13,11 +13,12 @@
 
 package org.apache.pekko.http.scaladsl.settings
 import java.util.Random
-import java.util.function.Supplier
+import java.util.function.{ Consumer, Supplier }
 
 import org.apache.pekko
 import pekko.annotation.DoNotInherit
 import pekko.http.impl.settings.WebSocketSettingsImpl
+import pekko.http.scaladsl.model.ws.WebSocketConnectionStats
 import pekko.util.ByteString
 
 import scala.concurrent.duration._
@@ -52,4 +53,19 @@ abstract class WebSocketSettings extends pekko.http.javadsl.settings.WebSocketSe
 
   def logFrames: Boolean
   override def withLogFrames(shouldLog: Boolean): WebSocketSettings = copy(logFrames = shouldLog)
+
+  override def pingRoundTripTimeout: Duration
+  override def withPingRoundTripTimeout(newValue: Duration): WebSocketSettings =
+    copy(pingRoundTripTimeout = newValue)
+
+  /**
+   * The provided function will be invoked once for each new connection with the live [[WebSocketConnectionStats]]
+   * of that connection, e.g. to register them with a metrics library.
+   */
+  def connectionStatsListener: WebSocketConnectionStats => Unit
+  final def getConnectionStatsListener: Consumer[WebSocketConnectionStats] = new Consumer[WebSocketConnectionStats] {
+    override def accept(stats: WebSocketConnectionStats): Unit = connectionStatsListener(stats)
+  }
+  def withConnectionStatsListener(newValue: WebSocketConnectionStats => Unit): WebSocketSettings =
+    copy(connectionStatsListener = newValue)
 }
@@ -36,7 +36,7 @@ import pekko.http.scaladsl.model.HttpEntity.{ Chunk, ChunkStreamPart, Chunked, L
 import pekko.http.scaladsl.model.{ HttpEntity, _ }
 import pekko.http.scaladsl.model.headers._
 import pekko.http.scaladsl.settings.{ ClientConnectionSettings, ConnectionPoolSettings, ServerSettings }
-import pekko.http.scaladsl.{ ClientTransport, ConnectionContext, Http }
+import pekko.http.scaladsl.{ ClientTransport, ConnectionContext, HostConnectionPoolSnapshot, Http }
 import pekko.stream.Attributes
 import pekko.stream.{ OverflowStrategy, QueueOfferResult }
 import pekko.stream.TLSProtocol._
@@ -203,6 +203,34 @@ class NewConnectionPoolSpec extends PekkoSpecWithMaterializer("""
       connNr(response2) shouldEqual 1
     }
 
+    "report the state of its slots in snapshots" in new TestSetup {
+      val (requestIn, responseOut, responseOutSub, hcp) = cachedHostConnectionPool[Int]()
+
+      val before = hcp.snapshot().awaitResult(3.seconds)
+      before.isRunning shouldBe false
+      before.slots shouldBe empty
+
+      requestIn.sendNext(HttpRequest(uri = "/a") -> 42)
+      responseOutSub.request(1)
+      acceptIncomingConnection()
+      val (Success(_), 42) = responseOut.expectNext()
+
+      awaitAssert {
+        val snapshot = hcp.snapshot().awaitResult(3.seconds)
+        snapshot.isRunning shouldBe true
+        snapshot.host shouldEqual serverHostName
+        snapshot.port shouldEqual serverPort
+        snapshot.slots.map(_.slotId) shouldEqual Seq(0, 1)
+        import HostConnectionPoolSnapshot.Status
+        snapshot.slots.map(_.status) shouldEqual Seq(Status.Idle, Status.Unconnected)
+        snapshot.idleSlots shouldEqual 1
+        snapshot.unconnectedSlots shouldEqual 1
+        snapshot.queuedRequests shouldEqual 0
+      }
+
+      Http().poolSnapshots().awaitResult(3.seconds).map(_.port) should contain(serverPort)
+    }
+
     "be able to handle 500 requests against the test server" in new TestSetup {
       val settings = ConnectionPoolSettings(system).withMaxConnections(4).withPipeliningLimit(2)
       val poolFlow = Http().cachedHostConnectionPool[Int](serverHostName, serverPort, settings = settings)
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.client.pool
+
+import org.apache.pekko
+import pekko.http.scaladsl.settings.ConnectionPoolSettings
+import pekko.testkit.PekkoSpec
+
+import scala.concurrent.duration._
+
+class PoolLimitsSpec extends PekkoSpec {
+  val settings = ConnectionPoolSettings(system).withMaxConnections(8)
+
+  "The retry budget of a pool" should {
+    "allow min-retries retries and then one per request multiplied with the ratio" in {
+      val budget = new PoolLimits.RetryBudget(settings.withRetryBudgetRatio(0.5).withRetryBudgetMinRetries(2))
+
+      budget.tryWithdraw() shouldBe true
+      budget.tryWithdraw() shouldBe true
+      budget.tryWithdraw() shouldBe false
+
+      budget.deposit()
+      budget.tryWithdraw() shouldBe false
+      budget.deposit()
+      budget.tryWithdraw() shouldBe true
+    }
+    "not save up more than min-retries retries" in {
+      val budget = new PoolLimits.RetryBudget(settings.withRetryBudgetRatio(1).withRetryBudgetMinRetries(2))
+      (1 to 10).foreach(_ => budget.deposit())
+      budget.balance shouldBe 2.0
+    }
+    "allow any number of retries with an infinite ratio" in {
+      val budget = new PoolLimits.RetryBudget(settings.withRetryBudgetRatio(Double.PositiveInfinity))
+      (1 to 100).map(_ => budget.tryWithdraw()).forall(identity) shouldBe true
+    }
+  }
+
+  "The concurrency limit of a pool" should {
+    "stay at max-connections if adaptive-concurrency is disabled" in {
+      val limit = new PoolLimits.ConcurrencyLimit(settings, _ => fail("limit must not change"))
+      (1 to 8).foreach(_ => limit.acquire())
+      limit.hasCapacity shouldBe false
+      limit.release(10.seconds.toNanos, failed = true) shouldBe false
+      limit.limit shouldBe 8
+      limit.hasCapacity shouldBe true
+    }
+    "decrease while responses get slower or fail and recover when they get fast again" in {
+      var reported = List.empty[Int]
+      val limit = new PoolLimits.ConcurrencyLimit(
+        settings.withAdaptiveConcurrencyEnabled(true).withAdaptiveConcurrencyTolerance(2.0),
+        newLimit => reported ::= newLimit)
+      def respond(latency: FiniteDuration, failed: Boolean = false): Boolean = {
+        limit.acquire()
+        limit.release(latency.toNanos, failed)
+      }
+
+      (1 to 10).foreach(_ => respond(10.millis))
+      limit.limit shouldBe 8
+
+      (1 to 10).foreach(_ => respond(100.millis))
+      limit.limit should be < 8
+      val afterSlowResponses = limit.limit
+
+      (1 to 5).foreach(_ => respond(10.millis, failed = true))
+      limit.limit should be < afterSlowResponses
+      limit.limit should be >= 1
+      reported.head shouldBe limit.limit
+
+      // only grows while at least half of the limit is in use
+      val decreased = limit.limit
+      (1 to limit.limit).foreach(_ => limit.acquire())
+      (1 to 50).foreach(_ => respond(10.millis))
+      limit.limit should be > decreased
+      limit.limit should be <= 8
+    }
+    "report when a place frees up after the limit was reached" in {
+      val limit = new PoolLimits.ConcurrencyLimit(settings.withAdaptiveConcurrencyEnabled(true), _ => ())
+      (1 to 8).foreach(_ => limit.acquire())
+      limit.hasCapacity shouldBe false
+      limit.release(10.millis.toNanos, failed = false) shouldBe true
+      limit.release(10.millis.toNanos, failed = false) shouldBe false
+    }
+  }
+}
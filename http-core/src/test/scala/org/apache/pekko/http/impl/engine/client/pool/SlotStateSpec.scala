@@ -22,7 +22,7 @@ import pekko.http.impl.engine.client.pool.SlotState._
 import pekko.http.scaladsl.Http
 import pekko.http.scaladsl.model.ContentTypes
 import pekko.http.scaladsl.model.HttpEntity
-import pekko.http.scaladsl.model.{ headers, HttpRequest, HttpResponse }
+import pekko.http.scaladsl.model.{ headers, HttpRequest, HttpResponse, RetryBudgetExhaustedException }
 import pekko.http.scaladsl.settings.ConnectionPoolSettings
 import pekko.stream.scaladsl.Source
 import pekko.testkit.PekkoSpec
@@ -30,7 +30,7 @@ import pekko.util.ByteString
 
 import scala.concurrent.Promise
 import scala.concurrent.duration.Duration
-import scala.util.Try
+import scala.util.{ Failure, Try }
 
 class SlotStateSpec extends PekkoSpec {
   val outgoingConnection = Http.OutgoingConnection(
@@ -163,6 +163,29 @@ class SlotStateSpec extends PekkoSpec {
       state = state.onRequestEntityCompleted(context)
       state.isIdle should be(true)
     }
+
+    "fail a request that could be retried when the retry budget of the pool is used up" in {
+      val retriableRequest = TheRequestContext.copy(retriesLeft = 1)
+      val cause = new RuntimeException("connection reset")
+      var state: SlotState = Unconnected
+      val context = new MockSlotContext(system.log)
+      context.retryBudgetUsedUp = true
+      state = context.expectOpenConnection {
+        state.onPreConnect(context)
+      }
+      state = state.onNewRequest(context, retriableRequest)
+      state = state.onConnectionAttemptSucceeded(context, outgoingConnection)
+      state = state.onRequestDispatched(context)
+      state = state.onRequestEntityCompleted(context)
+
+      state = state.onConnectionFailed(context, cause)
+      state should be(WaitingForResponseDispatch(retriableRequest.copy(retriesLeft = 0),
+        Failure(RetryBudgetExhaustedException(retriableRequest.request, cause)), waitingForEndOfRequestEntity = false))
+      context.dispatchedResponse should be(None)
+
+      state = state.onResponseDispatchable(context)
+      context.dispatchedResponse should be(Some(Failure(RetryBudgetExhaustedException(retriableRequest.request, cause))))
+    }
   }
 
   class MockSlotContext(
@@ -173,6 +196,7 @@ class SlotStateSpec extends PekkoSpec {
     var connectionOpenRequested = false
     var pushedRequest: Option[HttpRequest] = None
     var dispatchedResponse: Option[Try[HttpResponse]] = None
+    var retryBudgetUsedUp = false
 
     override def openConnection(): Unit = {
       connectionOpenRequested should be(false)
@@ -184,6 +208,8 @@ class SlotStateSpec extends PekkoSpec {
     override def dispatchResponseResult(req: PoolFlow.RequestContext, result: Try[HttpResponse]): Unit =
       dispatchedResponse = Some(result)
 
+    override def withdrawRetry(): Boolean = !retryBudgetUsedUp
+
     override def willCloseAfter(response: HttpResponse): Boolean =
       response.header[headers.Connection].exists(_.hasClose)
 
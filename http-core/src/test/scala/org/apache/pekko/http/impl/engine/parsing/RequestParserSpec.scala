@@ -157,6 +157,36 @@ abstract class RequestParserSpec(mode: String, newLine: String) extends AnyFreeS
         closeAfterResponseCompletion shouldEqual Seq(false)
       }
 
+      "byte-by-byte with compact-entity-bytes = off" in new Test {
+        override protected def parserSettings: ParserSettings =
+          super.parserSettings.withCompactEntityBytes(false)
+
+        prep {
+          """PUT /resource/yes HTTP/1.1
+            |Content-length:    4
+            |Host: x
+            |
+            |ABCD"""
+        }.toCharArray.map(_.toString).toSeq should rawMultiParseTo(
+          HttpRequest(PUT, "/resource/yes", List(Host("x")), "ABCD".getBytes))
+        closeAfterResponseCompletion shouldEqual Seq(false)
+
+        // the body part arriving together with the head is passed on as a slice of the received bytes
+        val parts =
+          Source(List(prep("""PUT /resource/yes HTTP/1.1
+              |Content-length:    4
+              |Host: x
+              |
+              |AB"""), "CD"))
+            .map(bytes => SessionBytes(TLSPlacebo.dummySession, ByteString(bytes)))
+            .via(newParser)
+            .collect { case EntityPart(data) => data }
+            .runWith(Sink.seq)
+            .awaitResult(awaitAtMost)
+        parts.map(_.utf8String) shouldEqual Seq("AB", "CD")
+        parts.head.isCompact shouldEqual false
+      }
+
       "with a custom HTTP method" in new Test {
         override protected def parserSettings: ParserSettings =
           super.parserSettings.withCustomMethods(BOLT)
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.server
+
+import org.apache.pekko
+import pekko.http.InMemoryHttpMetrics
+import pekko.http.impl.engine.http2.Http2
+import pekko.http.impl.util.PekkoSpecWithMaterializer
+import pekko.http.scaladsl.model._
+import pekko.http.scaladsl.model.headers.`Retry-After`
+import pekko.http.scaladsl.settings.{ LoadSheddingSettings, ServerSettings }
+import pekko.stream.scaladsl.{ Flow, Sink, Source }
+import pekko.stream.testkit.{ TestPublisher, TestSubscriber }
+
+import scala.concurrent.duration._
+
+class AdmissionControlSpec extends PekkoSpecWithMaterializer {
+  "The server admission control" should {
+    "answer requests exceeding the limit with 503 in the order of the requests" in new TestSetup(ordered = true) {
+      requestIn.sendNext(HttpRequest(uri = "/a"))
+      requestOut.expectNext().uri.path.toString shouldBe "/a"
+      requestIn.sendNext(HttpRequest(uri = "/b"))
+      requestOut.expectNoMessage(100.millis)
+      responseOut.expectNoMessage(100.millis)
+      metrics.serverRequestsShed shouldBe 1
+
+      responseIn.sendNext(HttpResponse())
+      responseOut.expectNext().status shouldBe StatusCodes.OK
+      val shed = responseOut.expectNext()
+      shed.status shouldBe StatusCodes.ServiceUnavailable
+      shed.header[`Retry-After`] shouldBe Some(`Retry-After`(1))
+      limiter.inFlight shouldBe 0
+
+      requestIn.sendNext(HttpRequest(uri = "/c"))
+      requestOut.expectNext().uri.path.toString shouldBe "/c"
+    }
+    "answer HTTP/2 requests exceeding the limit with 503 right away" in new TestSetup(ordered = false) {
+      requestIn.sendNext(HttpRequest().addAttribute(Http2.streamId, 1))
+      requestOut.expectNext()
+      requestIn.sendNext(HttpRequest().addAttribute(Http2.streamId, 3))
+      val shed = responseOut.expectNext()
+      shed.status shouldBe StatusCodes.ServiceUnavailable
+      shed.attribute(Http2.streamId) shouldBe Some(3)
+
+      responseIn.sendNext(HttpResponse().addAttribute(Http2.streamId, 1))
+      responseOut.expectNext().attribute(Http2.streamId) shouldBe Some(1)
+      limiter.inFlight shouldBe 0
+    }
+    "free the places of unanswered requests when the connection is closed" in new TestSetup(ordered = true) {
+      requestIn.sendNext(HttpRequest())
+      requestOut.expectNext()
+      limiter.inFlight shouldBe 1
+
+      requestIn.sendError(new RuntimeException("connection reset"))
+      awaitAssert(limiter.inFlight shouldBe 0)
+    }
+  }
+  "The concurrency limiter" should {
+    "increase the limit while in use and decrease it for slow responses" in {
+      val metrics = new InMemoryHttpMetrics
+      val limiter = new AdmissionControl.ConcurrencyLimiter(
+        LoadSheddingSettings(system).withInitialLimit(4).withMinLimit(2).withMaxLimit(5)
+          .withLatencyThreshold(1.second).withBackoffRatio(0.5),
+        metrics)
+
+      (1 to 4).map(_ => limiter.tryAcquire()) shouldBe Seq(true, true, true, true)
+      limiter.tryAcquire() shouldBe false
+
+      limiter.release(1.millis.toNanos)
+      limiter.limit shouldBe 5
+      metrics.serverConcurrencyLimit shouldBe 5
+      limiter.release(1.millis.toNanos)
+      limiter.limit shouldBe 5 // max-limit
+
+      limiter.release(2.seconds.toNanos)
+      limiter.limit shouldBe 2
+      limiter.release(2.seconds.toNanos)
+      limiter.limit shouldBe 2 // min-limit
+      limiter.inFlight shouldBe 0
+    }
+  }
+
+  class TestSetup(ordered: Boolean) {
+    val metrics = new InMemoryHttpMetrics
+    val settings = ServerSettings(system).mapLoadSheddingSettings(
+      _.withEnabled(true).withInitialLimit(1).withMinLimit(1).withRetryAfter(500.millis))
+    val limiter = AdmissionControl.limiter(settings, metrics).get
+
+    val requestIn = TestPublisher.probe[HttpRequest]()
+    val requestOut = TestSubscriber.probe[HttpRequest]()
+    val responseIn = TestPublisher.probe[HttpResponse]()
+    val responseOut = TestSubscriber.probe[HttpResponse]()
+
+    Source.fromPublisher(requestIn)
+      .via(AdmissionControl(Some(limiter), settings, metrics, ordered).reversed
+        .join(Flow.fromSinkAndSource(Sink.fromSubscriber(requestOut), Source.fromPublisher(responseIn))))
+      .runWith(Sink.fromSubscriber(responseOut))
+
+    requestOut.request(10)
+    responseOut.request(10)
+  }
+}
@@ -1220,6 +1220,48 @@ class HttpServerSpec extends PekkoSpec(
       shutdownBlueprint()
     })
 
+    "record the request timings if request-timings-attribute is enabled" in assertAllStagesStopped(new TestSetup {
+      override def settings: ServerSettings =
+        super.settings.withParserSettings(super.settings.parserSettings.withIncludeRequestTimingsAttribute(true))
+
+      send("""GET / HTTP/1.1
+             |Host: example.com
+             |
+             |""")
+
+      val timings = expectRequest().attribute(AttributeKeys.requestTimings).get
+      timings.parsed should be >= timings.parseStarted
+      timings.dispatched should be >= timings.parsed
+      timings.completed shouldBe 0L
+
+      responses.sendNext(HttpResponse(entity = "yeah"))
+      expectResponseWithWipedDate(
+        """HTTP/1.1 200 OK
+          |Server: pekko-http/test
+          |Date: XXXX
+          |Content-Type: text/plain; charset=UTF-8
+          |Content-Length: 4
+          |
+          |yeah""")
+
+      timings.responded should be >= timings.dispatched
+      timings.rendered should be >= timings.responded
+      awaitAssert(timings.completed should be >= timings.rendered)
+      timings.routed shouldBe 0L
+      timings.totalNanos should be >= timings.parseNanos
+      shutdownBlueprint()
+    })
+
+    "not record request timings by default" in assertAllStagesStopped(new TestSetup {
+      send("""GET / HTTP/1.1
+             |Host: example.com
+             |
+             |""")
+
+      expectRequest().attribute(AttributeKeys.requestTimings) shouldBe None
+      shutdownBlueprint()
+    })
+
     "don't leak stages when connection is closed for request".which {
       "uses GET method with an unread empty chunked entity" in assertAllStagesStopped(new TestSetup {
         send("""GET / HTTP/1.1
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.server
+
+import org.apache.pekko
+import pekko.actor.{ ActorSystem, ExtendedActorSystem }
+import pekko.http.{ HttpMetrics, InMemoryHttpMetrics }
+import pekko.http.impl.engine.http2.Http2
+import pekko.http.impl.util.PekkoSpecWithMaterializer
+import pekko.http.scaladsl.model._
+import pekko.stream.scaladsl.{ Flow, Sink, Source }
+import pekko.stream.testkit.{ TestPublisher, TestSubscriber }
+import pekko.testkit.TestKit
+import com.typesafe.config.ConfigFactory
+
+class ServerMetricsSpec extends PekkoSpecWithMaterializer {
+  "The server request metrics" should {
+    "report requests with the response they were answered with" in new TestSetup {
+      requestIn.sendNext(HttpRequest(uri = "/a"))
+      requestOut.expectNext().uri.path.toString shouldBe "/a"
+      metrics.openServerConnections shouldBe 1
+      metrics.serverRequests shouldBe 1
+
+      responseIn.sendNext(HttpResponse(StatusCodes.NotFound))
+      responseOut.expectNext().status shouldBe StatusCodes.NotFound
+      metrics.serverResponses(4) shouldBe 1
+      metrics.serverRequestDurations.count shouldBe 1
+
+      requestIn.sendComplete()
+      requestOut.expectComplete()
+      responseIn.sendComplete()
+      responseOut.expectComplete()
+      awaitAssert(metrics.openServerConnections shouldBe 0)
+    }
+    "match HTTP/2 responses to their requests by the stream id" in new TestSetup {
+      requestIn.sendNext(HttpRequest().addAttribute(Http2.streamId, 1))
+      requestIn.sendNext(HttpRequest().addAttribute(Http2.streamId, 3))
+      requestOut.expectNext()
+      requestOut.expectNext()
+
+      responseIn.sendNext(HttpResponse(StatusCodes.InternalServerError).addAttribute(Http2.streamId, 3))
+      responseOut.expectNext()
+      metrics.serverResponses(5) shouldBe 1
+      responseIn.sendNext(HttpResponse().addAttribute(Http2.streamId, 1))
+      responseOut.expectNext()
+      metrics.serverResponses(2) shouldBe 1
+      metrics.serverRequestDurations.count shouldBe 2
+    }
+  }
+  "The in-memory histogram" should {
+    "return values at percentiles within the precision of its buckets" in {
+      val histogram = new InMemoryHttpMetrics.Histogram
+      (1L to 1000L).foreach(histogram.record)
+
+      histogram.count shouldBe 1000
+      histogram.valueAtPercentile(50) shouldBe (500L +- 16L)
+      histogram.valueAtPercentile(99) shouldBe (990L +- 32L)
+      histogram.valueAtPercentile(100) shouldBe (1000L +- 32L)
+    }
+  }
+
+  "Creating the configured metrics" should {
+    "not hide an exception thrown by the constructor taking the actor system" in {
+      val metricsSystem = ActorSystem("ServerMetricsSpec-failing-metrics",
+        ConfigFactory.parseString(s"pekko.http.metrics-class = ${classOf[ServerMetricsSpec.FailingMetrics].getName}")
+          .withFallback(system.settings.config))
+      try {
+        val extendedSystem = metricsSystem.asInstanceOf[ExtendedActorSystem]
+        val thrown = the[IllegalStateException] thrownBy HttpMetrics.create(extendedSystem)
+        thrown.getMessage shouldBe "no metrics for ServerMetricsSpec-failing-metrics"
+      } finally TestKit.shutdownActorSystem(metricsSystem)
+    }
+  }
+
+  class TestSetup {
+    val metrics = new InMemoryHttpMetrics
+    val requestIn = TestPublisher.probe[HttpRequest]()
+    val requestOut = TestSubscriber.probe[HttpRequest]()
+    val responseIn = TestPublisher.probe[HttpResponse]()
+    val responseOut = TestSubscriber.probe[HttpResponse]()
+
+    Source.fromPublisher(requestIn)
+      .via(ServerMetrics.requests(metrics, HttpProtocols.`HTTP/1.1`).reversed
+        .join(Flow.fromSinkAndSource(Sink.fromSubscriber(requestOut), Source.fromPublisher(responseIn))))
+      .runWith(Sink.fromSubscriber(responseOut))
+
+    requestOut.request(10)
+    responseOut.request(10)
+  }
+}
+
+object ServerMetricsSpec {
+  class FailingMetrics(system: ActorSystem) extends HttpMetrics {
+    throw new IllegalStateException(s"no metrics for ${system.name}")
+  }
+}
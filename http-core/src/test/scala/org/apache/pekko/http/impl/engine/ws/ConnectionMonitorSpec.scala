@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.engine.ws
+
+import java.util.concurrent.TimeoutException
+
+import org.apache.pekko
+import pekko.http.impl.engine.ws.Protocol.Opcode
+import pekko.http.impl.util.PekkoSpecWithMaterializer
+import pekko.http.scaladsl.model.ws.WebSocketConnectionStats
+import pekko.stream.scaladsl.{ BidiFlow, Flow, Sink, Source }
+import pekko.stream.testkit.{ TestPublisher, TestSubscriber }
+import pekko.util.ByteString
+
+import scala.concurrent.Promise
+import scala.concurrent.duration._
+
+class ConnectionMonitorSpec extends PekkoSpecWithMaterializer {
+  "The WebSocket ConnectionMonitor" should {
+    "measure Ping round trips and count data frames" in new TestSetup(Duration.Inf) {
+      appIn.sendNext(FrameEvent.fullFrame(Opcode.Ping, None, ByteString.empty, fin = true))
+      val ping = netOut.expectNext().asInstanceOf[FrameStart]
+      ping.header.opcode shouldBe Opcode.Ping
+      ping.data should not be empty
+      stats.lastPingRoundTrip shouldBe None
+
+      val pong = FrameEvent.fullFrame(Opcode.Pong, None, ping.data, fin = true)
+      netIn.sendNext(pong)
+      appOut.expectNext(pong)
+      stats.lastPingRoundTrip shouldBe defined
+
+      val text = FrameEvent.fullFrame(Opcode.Text, None, ByteString("abc"), fin = true)
+      appIn.sendNext(text)
+      netOut.expectNext(text)
+      val binaryStart = FrameEvent.fullFrame(Opcode.Binary, None, ByteString("12345"), fin = false)
+      val binaryEnd = FrameEvent.fullFrame(Opcode.Continuation, None, ByteString("678"), fin = true)
+      netIn.sendNext(binaryStart)
+      netIn.sendNext(binaryEnd)
+      appOut.expectNext(binaryStart, binaryEnd)
+
+      stats.bytesSent shouldBe 3
+      stats.messagesSent shouldBe 1
+      stats.bytesReceived shouldBe 8
+      stats.messagesReceived shouldBe 1
+      stats.isClosed shouldBe false
+
+      netIn.sendComplete()
+      appOut.expectComplete()
+      appIn.sendComplete()
+      netOut.expectComplete()
+      awaitAssert(stats.isClosed shouldBe true)
+    }
+    "keep the payload of Pings that have one" in new TestSetup(Duration.Inf) {
+      val ping = FrameEvent.fullFrame(Opcode.Ping, None, ByteString("custom"), fin = true)
+      appIn.sendNext(ping)
+      netOut.expectNext(ping)
+
+      val pong = FrameEvent.fullFrame(Opcode.Pong, None, ByteString("custom"), fin = true)
+      netIn.sendNext(pong)
+      appOut.expectNext(pong)
+      stats.lastPingRoundTrip shouldBe defined
+    }
+    "close the connection if a Ping is not answered in time" in new TestSetup(100.millis) {
+      appIn.sendNext(FrameEvent.fullFrame(Opcode.Ping, None, ByteString.empty, fin = true))
+      netOut.expectNext().asInstanceOf[FrameStart].header.opcode shouldBe Opcode.Ping
+
+      appOut.expectError() shouldBe a[TimeoutException]
+      val close = netOut.expectNext().asInstanceOf[FrameStart]
+      close.header.opcode shouldBe Opcode.Close
+      FrameEventParser.parseCloseCode(close.data) shouldBe Some((Protocol.CloseCodes.GoingAway,
+        "Ping was not answered in time"))
+      netOut.expectComplete()
+    }
+    "not take an unsolicited Pong as the answer to a Ping" in new TestSetup(300.millis) {
+      appIn.sendNext(FrameEvent.fullFrame(Opcode.Ping, None, ByteString.empty, fin = true))
+      netOut.expectNext()
+
+      val unsolicited = FrameEvent.fullFrame(Opcode.Pong, None, ByteString.empty, fin = true)
+      netIn.sendNext(unsolicited)
+      appOut.expectNext(unsolicited)
+      stats.lastPingRoundTrip shouldBe None
+
+      appOut.expectError() shouldBe a[TimeoutException]
+      netOut.expectNext().asInstanceOf[FrameStart].header.opcode shouldBe Opcode.Close
+    }
+  }
+
+  class TestSetup(pingRoundTripTimeout: Duration) {
+    val netIn = TestPublisher.probe[FrameEventOrError]()
+    val appOut = TestSubscriber.probe[FrameEventOrError]()
+    val appIn = TestPublisher.probe[FrameEvent]()
+    val netOut = TestSubscriber.probe[FrameEvent]()
+
+    private val statsPromise = Promise[WebSocketConnectionStats]()
+    Source.fromPublisher(netIn)
+      .via(BidiFlow.fromGraph(new ConnectionMonitor(pingRoundTripTimeout, statsPromise.success(_)))
+        .join(Flow.fromSinkAndSource(Sink.fromSubscriber(appOut), Source.fromPublisher(appIn))))
+      .runWith(Sink.fromSubscriber(netOut))
+    val stats = statsPromise.future.futureValue
+
+    appOut.request(10)
+    netOut.request(10)
+  }
+}
@@ -301,6 +301,30 @@ class FramingSpec extends PekkoSpecWithMaterializer {
     }
   }
 
+  "Masking" should {
+    def maskBytewise(data: ByteString, mask: Int): ByteString =
+      ByteString(data.toArray.zipWithIndex.map {
+        case (b, i) => (b ^ (mask >> (24 - (i % 4) * 8))).toByte
+      })
+
+    "mask data of all lengths like masking each byte separately" in {
+      val mask = 0xFEDCBA09
+      (0 to 40).foreach { length =>
+        val data = ByteString(Array.tabulate[Byte](length)(i => (i * 7).toByte))
+        val (masked, newMask) = FrameEventParser.mask(data, mask)
+        masked shouldEqual maskBytewise(data, mask)
+        newMask shouldEqual Integer.rotateLeft(mask, (length % 4) * 8)
+      }
+    }
+    "continue masking with the returned mask across chunks" in {
+      val mask = 0x12345678
+      val data = ByteString(Array.tabulate[Byte](1000)(_.toByte))
+      val (chunk1, nextMask) = FrameEventParser.mask(data.take(13), mask)
+      val (chunk2, _) = FrameEventParser.mask(data.drop(13), nextMask)
+      (chunk1 ++ chunk2) shouldEqual maskBytewise(data, mask)
+    }
+  }
+
   private def parseTo(events: FrameEvent*): Matcher[ByteString] =
     parseMultipleTo(events: _*).compose(Seq(_))
 
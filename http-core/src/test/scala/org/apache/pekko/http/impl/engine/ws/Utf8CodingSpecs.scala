@@ -47,6 +47,21 @@ class Utf8CodingSpecs extends PekkoSpecWithMaterializer with ScalaCheckPropertyC
         decodeUtf8(encodeUtf8(utf16)) shouldEqual utf16
       }
     }
+    "work for ASCII runs around multi-byte sequences split at any position" in {
+      val text = "plain ascii text, " * 3 + "äöü € 😀" + " more ascii text" * 3
+      val bytes = ByteString(text, "UTF-8")
+      (0 to bytes.size).foreach { split =>
+        val decoder = Utf8Decoder.create()
+        val (first, second) = bytes.splitAt(split)
+        val decoded =
+          decoder.decode(first, endOfInput = false).get + decoder.decode(second, endOfInput = true).get
+        decoded shouldEqual text
+      }
+    }
+    "fail for invalid or truncated input after an ASCII run" in {
+      Utf8Decoder.decode(ByteString("0123456789") ++ ByteString(0xFF.toByte)).isFailure shouldBe true
+      Utf8Decoder.decode(ByteString("0123456789") ++ ByteString(0xC3.toByte)).isFailure shouldBe true
+    }
   }
 
   def encodeUtf8(str: String): ByteString =
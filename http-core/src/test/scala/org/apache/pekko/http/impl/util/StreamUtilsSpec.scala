@@ -15,7 +15,8 @@ package org.apache.pekko.http.impl.util
 
 import org.apache.pekko
 import pekko.stream.{ ActorMaterializer, Attributes }
-import pekko.stream.scaladsl.{ Sink, Source }
+import pekko.stream.scaladsl.{ Keep, Sink, Source }
+import pekko.stream.testkit.scaladsl.{ TestSink, TestSource }
 import pekko.util.ByteString
 import pekko.testkit._
 import org.scalatest.concurrent.ScalaFutures
@@ -94,4 +95,71 @@ class StreamUtilsSpec extends PekkoSpec with ScalaFutures {
       Await.result(whenCompleted, 3.seconds.dilated) should be(length)
     }
   }
+
+  "coalesceByteStrings" should {
+    "pass elements through immediately when downstream is ready and no delay is configured" in {
+      val (pub, sub) =
+        TestSource.probe[ByteString]
+          .via(StreamUtils.coalesceByteStrings(maxBytes = 100, maxDelay = Duration.Zero))
+          .toMat(TestSink.probe[ByteString])(Keep.both)
+          .run()
+
+      sub.request(1)
+      pub.sendNext(ByteString("abc"))
+      sub.expectNext(ByteString("abc"))
+
+      pub.sendComplete()
+      sub.expectComplete()
+    }
+    "merge elements while downstream backpressures" in {
+      val (pub, sub) =
+        TestSource.probe[ByteString]
+          .via(StreamUtils.coalesceByteStrings(maxBytes = 100, maxDelay = Duration.Zero))
+          .toMat(TestSink.probe[ByteString])(Keep.both)
+          .run()
+
+      pub.sendNext(ByteString("abc"))
+      pub.sendNext(ByteString("def"))
+      pub.sendNext(ByteString("ghi"))
+      pub.sendComplete()
+
+      sub.request(1)
+      sub.expectNext(ByteString("abcdefghi"))
+      sub.expectComplete()
+    }
+    "not merge more than maxBytes" in {
+      val (pub, sub) =
+        TestSource.probe[ByteString]
+          .via(StreamUtils.coalesceByteStrings(maxBytes = 4, maxDelay = Duration.Zero))
+          .toMat(TestSink.probe[ByteString])(Keep.both)
+          .run()
+
+      pub.sendNext(ByteString("ab"))
+      pub.sendNext(ByteString("cd"))
+      sub.request(1)
+      sub.expectNext(ByteString("abcd"))
+
+      pub.sendNext(ByteString("ef"))
+      pub.sendComplete()
+      sub.request(1)
+      sub.expectNext(ByteString("ef"))
+      sub.expectComplete()
+    }
+    "hold back data for at most maxDelay" in {
+      val (pub, sub) =
+        TestSource.probe[ByteString]
+          .via(StreamUtils.coalesceByteStrings(maxBytes = 100, maxDelay = 300.millis.dilated))
+          .toMat(TestSink.probe[ByteString])(Keep.both)
+          .run()
+
+      sub.request(2)
+      pub.sendNext(ByteString("abc"))
+      pub.sendNext(ByteString("def"))
+      sub.expectNoMessage(100.millis)
+      sub.expectNext(ByteString("abcdef"))
+
+      pub.sendComplete()
+      sub.expectComplete()
+    }
+  }
 }
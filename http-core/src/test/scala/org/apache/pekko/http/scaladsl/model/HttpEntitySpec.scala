@@ -77,6 +77,30 @@ class HttpEntitySpec extends PekkoSpecWithMaterializer {
         Default(tpe, 11, source(abc, de, fgh, ijk)) should
         strictifyTo(Strict(tpe, abc ++ de ++ fgh ++ ijk))
       }
+      "Default into compact data" in {
+        Await.result(Default(tpe, 11, source(abc, de, fgh, ijk)).toStrict(awaitAtMost), awaitAtMost)
+          .data.isCompact shouldBe true
+      }
+      "Default with more data than announced" in {
+        // the length isn't validated by `toStrict` itself, make sure no data is lost
+        Default(tpe, 5, source(abc, de, fgh, ijk)) should
+        strictifyTo(Strict(tpe, abc ++ de ++ fgh ++ ijk))
+      }
+      "Default with less data than announced" in {
+        Default(tpe, 20, source(abc, de, fgh, ijk)) should
+        strictifyTo(Strict(tpe, abc ++ de ++ fgh ++ ijk))
+      }
+      "Default with a huge announced length without allocating it up front" in {
+        Await.result(Default(tpe, Int.MaxValue - 8L, source(abc, de)).toStrict(awaitAtMost, Long.MaxValue),
+          awaitAtMost).data shouldEqual abc ++ de
+      }
+      "Default with more data than allocated up front into compact data" in {
+        val chunks = Seq.tabulate(20)(i => ByteString(Array.fill[Byte](10 * 1024)(i.toByte)))
+        val strict = Await.result(Default(tpe, chunks.map(_.length).sum, source(chunks: _*)).toStrict(awaitAtMost),
+          awaitAtMost)
+        strict.data shouldEqual chunks.reduce(_ ++ _)
+        strict.data.isCompact shouldBe true
+      }
       "CloseDelimited" in {
         CloseDelimited(tpe, source(abc, de, fgh, ijk)) should
         strictifyTo(Strict(tpe, abc ++ de ++ fgh ++ ijk))
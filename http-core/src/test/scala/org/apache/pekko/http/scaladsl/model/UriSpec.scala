@@ -864,6 +864,27 @@ class UriSpec extends AnyWordSpec with Matchers {
         "http://example.com//foo/bar?query=1#frag").toHttpRequestTargetOriginForm.toString shouldEqual "//foo/bar?query=1"
     }
 
+    "be parsed from HTTP request targets in origin-form" in {
+      import Uri.ParsingMode.{ Relaxed, Strict }
+      def target(string: String, mode: Uri.ParsingMode = Strict) = Uri.parseHttpRequestTarget(string, mode = mode)
+
+      target("/") shouldEqual Uri(path = Path./)
+      target("//") shouldEqual Uri(path = Path./ / "")
+      target("/foo/bar/") shouldEqual Uri(path = Path / "foo" / "bar" / "")
+      target("/foo:bar@baz") shouldEqual Uri(path = Path / "foo:bar@baz")
+      target("/foo?") shouldEqual Uri(path = Path / "foo", queryString = Some(""))
+      target("/foo?a=1&b=%20c") shouldEqual Uri(path = Path / "foo", queryString = Some("a=1&b=%20c"))
+      target("/foo?a/b?c") shouldEqual Uri(path = Path / "foo", queryString = Some("a/b?c"))
+      target("/f%C3%BC%C3%BC") shouldEqual Uri(path = Path / "füü")
+      target("/foo?a=\"b\"", Relaxed) shouldEqual Uri(path = Path / "foo", queryString = Some("a=%22b%22"))
+      target("/foo\"bar", Relaxed) shouldEqual Uri(path = Path / "foo\"bar")
+
+      an[IllegalUriException] should be thrownBy target("/foo?a=%2")
+      an[IllegalUriException] should be thrownBy target("/foo?a=\"b\"")
+      an[IllegalUriException] should be thrownBy target("/foo\"bar")
+      an[IllegalUriException] should be thrownBy target("/foo#bar")
+    }
+
     "properly render query strings with invalid values" in {
       val uri = Uri("http://host/path?query#fragment")
       uri.withQuery(Query("param1" -> "val\"ue1")).toString shouldEqual "http://host/path?param1=val%22ue1#fragment"
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.model.ws
+
+import org.apache.pekko
+import pekko.http.impl.engine.ws.MessageToFrameRenderer
+import pekko.http.impl.util.PekkoSpecWithMaterializer
+import pekko.http.scaladsl.model.ws.WebSocketBroadcastHub.SlowSubscriberPolicy
+import pekko.stream.BufferOverflowException
+import pekko.stream.scaladsl.{ Keep, Sink, Source }
+import pekko.stream.testkit.scaladsl.TestSink
+import pekko.util.ByteString
+
+class WebSocketBroadcastHubSpec extends PekkoSpecWithMaterializer {
+  "WebSocketBroadcastHub" should {
+    "send the same encoded frames to all subscribers" in {
+      val messages = Vector(TextMessage("äöü"), BinaryMessage(ByteString(1, 2, 3)), TextMessage("x" * 70000))
+      val (first, hub) =
+        Source.maybe[Message].concat(Source(messages.tail)).toMat(WebSocketBroadcastHub.sink(8))(Keep.both).run()
+      def toFrames = MessageToFrameRenderer.create(serverSide = true)
+      val subscriber1 = hub.subscribe(8, SlowSubscriberPolicy.DropOldest).via(toFrames).runWith(Sink.seq)
+      val subscriber2 = hub.subscribe(8, SlowSubscriberPolicy.Disconnect).via(toFrames).runWith(Sink.seq)
+      // ensure subscription of the sinks, there is no event to wait for
+      Thread.sleep(100)
+      first.success(Some(messages.head))
+
+      val frames1 = subscriber1.futureValue
+      val frames2 = subscriber2.futureValue
+      frames1.size shouldBe messages.size
+      frames1.zip(frames2).foreach { case (frame1, frame2) => frame1.data should be theSameInstanceAs frame2.data }
+
+      val separatelyRendered = Source(messages.map {
+        case TextMessage.Strict(text)   => TextMessage(text)
+        case BinaryMessage.Strict(data) => BinaryMessage(data)
+        case other                      => other
+      }).via(toFrames).runWith(Sink.seq).futureValue
+      frames1 shouldBe separatelyRendered
+    }
+    "disconnect a slow subscriber with the Disconnect policy" in {
+      val (first, hub) =
+        Source.maybe[Message].concat(Source(1.to(10).map(n => TextMessage(n.toString))))
+          .toMat(WebSocketBroadcastHub.sink(16))(Keep.both).run()
+      val slow = hub.subscribe(2, SlowSubscriberPolicy.Disconnect).runWith(TestSink.probe[Message])
+      slow.ensureSubscription()
+      Thread.sleep(100)
+      first.success(Some(TextMessage("0")))
+
+      slow.expectError() shouldBe a[BufferOverflowException]
+    }
+    "fail when a streamed message is broadcast" in {
+      val (first, hub) = Source.maybe[Message].toMat(WebSocketBroadcastHub.sink(8))(Keep.both).run()
+      val subscriber = hub.subscribe(8, SlowSubscriberPolicy.DropOldest).runWith(Sink.seq)
+      Thread.sleep(100)
+      first.success(Some(TextMessage(Source.single("streamed"))))
+
+      subscriber.failed.futureValue shouldBe an[IllegalArgumentException]
+    }
+  }
+}
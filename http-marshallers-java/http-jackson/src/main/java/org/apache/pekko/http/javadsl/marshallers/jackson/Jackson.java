@@ -15,6 +15,7 @@ package org.apache.pekko.http.javadsl.marshallers.jackson;
 
 import java.io.IOException;
 
+import org.apache.pekko.http.javadsl.model.ContentTypes;
 import org.apache.pekko.http.javadsl.model.HttpEntity;
 import org.apache.pekko.http.javadsl.model.MediaTypes;
 import org.apache.pekko.http.javadsl.model.RequestEntity;
@@ -25,9 +26,16 @@ import org.apache.pekko.http.scaladsl.model.ExceptionWithErrorInfo;
 import org.apache.pekko.http.scaladsl.model.ErrorInfo;
 
 import org.apache.pekko.util.ByteString;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.pekko.util.ByteStringBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import scala.compat.java8.FutureConverters;
 
 public class Jackson {
   private static final ObjectMapper defaultObjectMapper =
@@ -47,9 +55,10 @@ public class Jackson {
   }
 
   public static <T> Marshaller<T, RequestEntity> marshaller(ObjectMapper mapper) {
+    final ObjectWriter writer = mapper.writer();
     return Marshaller.wrapEntity(
-      u -> toJSON(mapper, u),
-      Marshaller.stringToEntity(),
+      u -> toJSON(writer, u),
+      Marshaller.byteStringMarshaller(ContentTypes.APPLICATION_JSON),
       MediaTypes.APPLICATION_JSON
     );
   }
@@ -63,27 +72,111 @@ public class Jackson {
   }
 
   public static <T> Unmarshaller<HttpEntity, T> unmarshaller(ObjectMapper mapper, Class<T> expectedType) {
-    return Unmarshaller.forMediaType(MediaTypes.APPLICATION_JSON, Unmarshaller.entityToString())
-                       .thenApply(s -> fromJSON(mapper, s, expectedType));
+    final ObjectReader reader = mapper.readerFor(expectedType);
+    return Unmarshaller.forMediaType(MediaTypes.APPLICATION_JSON, Unmarshaller.entityToByteString())
+                       .thenApply(bytes -> fromJSON(reader, bytes, expectedType));
   }
   
+  public static <T> Unmarshaller<HttpEntity, T> incrementalUnmarshaller(Class<T> expectedType) {
+    return incrementalUnmarshaller(defaultObjectMapper, expectedType);
+  }
+
+  /**
+   * Unmarshaller that parses the JSON while the entity data arrives, instead of collecting the whole entity first.
+   * The parsed tokens are buffered and bound to the expected type once the entity is complete. Memory use is therefore
+   * not bounded: all tokens of the entity are held until its end, and each chunk is copied once into an array for the
+   * parser. Compared to {@link #unmarshaller(ObjectMapper, Class)} parsing overlaps with receiving the entity.
+   */
+  public static <T> Unmarshaller<HttpEntity, T> incrementalUnmarshaller(ObjectMapper mapper, Class<T> expectedType) {
+    final ObjectReader reader = mapper.readerFor(expectedType);
+    final Unmarshaller<HttpEntity, T> parseIncrementally = Unmarshaller.fromScala(
+      org.apache.pekko.http.scaladsl.unmarshalling.Unmarshaller.<HttpEntity, T>withMaterializer(ec -> mat -> entity ->
+        FutureConverters.toScala(
+          entity.getDataBytes()
+            .runFold(new IncrementalParser<>(reader, expectedType), IncrementalParser::feed, mat)
+            .thenApply(IncrementalParser::finish))));
+    return Unmarshaller.forMediaType(MediaTypes.APPLICATION_JSON, parseIncrementally);
+  }
+
   public static <T> Unmarshaller<ByteString, T> byteStringUnmarshaller(ObjectMapper mapper, Class<T> expectedType) {
-    return Unmarshaller.sync(s -> fromJSON(mapper, s.utf8String(), expectedType));
+    final ObjectReader reader = mapper.readerFor(expectedType);
+    return Unmarshaller.sync(bytes -> fromJSON(reader, bytes, expectedType));
   }
 
-  private static String toJSON(ObjectMapper mapper, Object object) {
+  /**
+   * Writes the UTF-8 encoded JSON directly into a ByteString, without rendering it to a String first.
+   */
+  private static ByteString toJSON(ObjectWriter writer, Object object) {
+    final ByteStringBuilder builder = new ByteStringBuilder();
     try {
-      return mapper.writeValueAsString(object);
-    } catch (JsonProcessingException e) {
+      writer.writeValue(builder.asOutputStream(), object);
+    } catch (IOException e) {
       throw new IllegalArgumentException("Cannot marshal to JSON: " + object, e);
     }
+    return builder.result();
   }
 
-  private static <T> T fromJSON(ObjectMapper mapper, String json, Class<T> expectedType) {
+  /**
+   * Reads the JSON directly from the bytes, without decoding them to a String first.
+   */
+  private static <T> T fromJSON(ObjectReader reader, ByteString json, Class<T> expectedType) {
     try {
-      return mapper.readerFor(expectedType).readValue(json);
+      return reader.readValue(json.iterator().asInputStream());
     } catch (IOException e) {
       throw new JacksonUnmarshallingException(expectedType, e);
     }
   }
+
+  /**
+   * Feeds chunks of JSON into Jackson's non-blocking parser and buffers the parsed tokens.
+   */
+  private static final class IncrementalParser<T> {
+    private final ObjectReader reader;
+    private final Class<T> expectedType;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+
+    IncrementalParser(ObjectReader reader, Class<T> expectedType) {
+      this.reader = reader;
+      this.expectedType = expectedType;
+      try {
+        this.parser = reader.getFactory().createNonBlockingByteArrayParser();
+      } catch (IOException e) {
+        throw new JacksonUnmarshallingException(expectedType, e);
+      }
+      this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+      this.tokens = new TokenBuffer(parser);
+    }
+
+    IncrementalParser<T> feed(ByteString chunk) {
+      if (!chunk.isEmpty()) {
+        try {
+          final byte[] bytes = chunk.toArray();
+          feeder.feedInput(bytes, 0, bytes.length);
+          bufferAvailableTokens();
+        } catch (IOException e) {
+          throw new JacksonUnmarshallingException(expectedType, e);
+        }
+      }
+      return this;
+    }
+
+    T finish() {
+      try {
+        feeder.endOfInput();
+        bufferAvailableTokens();
+        return reader.readValue(tokens.asParser());
+      } catch (IOException e) {
+        throw new JacksonUnmarshallingException(expectedType, e);
+      }
+    }
+
+    private void bufferAvailableTokens() throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+        tokens.copyCurrentEvent(parser);
+      }
+    }
+  }
 }
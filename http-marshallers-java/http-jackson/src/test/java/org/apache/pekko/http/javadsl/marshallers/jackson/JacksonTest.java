@@ -30,10 +30,14 @@ import org.apache.pekko.http.javadsl.settings.RoutingSettings;
 import org.apache.pekko.http.javadsl.testkit.JUnitRouteTest;
 import org.apache.pekko.stream.ActorMaterializer;
 import org.apache.pekko.stream.Materializer;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 
 import org.junit.Test;
 import org.scalatestplus.junit.JUnitSuite;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -83,4 +87,40 @@ public class JacksonTest extends JUnitRouteTest {
     runRoute(route.seal(), HttpRequest.PUT("/").withEntity(invalidEntity))
       .assertEntity("The request content was malformed:\nCannot unmarshal JSON as SomeData");
   }
+
+  @Test
+  public void shouldRoundTripNonAsciiContentAsUtf8Bytes() throws Exception {
+    String json = "{\"field\":\"gr\u00fc\u00dfe \u2603\"}";
+    Route route = entity(Jackson.unmarshaller(SomeData.class), theData -> completeOK(theData, Jackson.marshaller()));
+
+    runRoute(route, HttpRequest.PUT("/").withEntity(HttpEntities.create(ContentTypes.APPLICATION_JSON, json)))
+      .assertContentType(ContentTypes.APPLICATION_JSON)
+      .assertEntityBytes(ByteString.fromString(json, "UTF-8"));
+  }
+
+  @Test
+  public void shouldUnmarshalChunkedEntitiesIncrementally() throws Exception {
+    ByteString json = ByteString.fromString("{\"field\":\"gr\u00fc\u00dfe \u2603\"}", "UTF-8");
+    // single bytes, so that the multi-byte characters are split across chunks
+    List<ByteString> chunks = new ArrayList<>();
+    for (int i = 0; i < json.length(); i++) chunks.add(json.slice(i, i + 1));
+
+    SomeData result =
+      Jackson.incrementalUnmarshaller(SomeData.class)
+        .unmarshal(HttpEntities.createChunked(ContentTypes.APPLICATION_JSON, Source.from(chunks)), system())
+        .toCompletableFuture().get(3, TimeUnit.SECONDS);
+
+    assertEquals("gr\u00fc\u00dfe \u2603", result.field);
+  }
+
+  @Test
+  public void failingToUnmarshallIncrementallyShouldProvideFailureDetails() throws Exception {
+    try {
+      Jackson.incrementalUnmarshaller(SomeData.class).unmarshal(invalidEntity, system())
+        .toCompletableFuture().get(3, TimeUnit.SECONDS);
+      throw new AssertionError("Invalid json should not parse to object");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause().getMessage().startsWith("Cannot unmarshal JSON as SomeData: Unrecognized field \"droids\""));
+    }
+  }
 }
@@ -13,7 +13,9 @@
 
 package org.apache.pekko.http.scaladsl.marshallers.sprayjson
 
+import java.nio.ByteBuffer
 import java.nio.charset.StandardCharsets
+import java.util
 
 import org.apache.pekko
 import pekko.annotation.InternalApi
@@ -25,10 +27,28 @@ import spray.json.ParserInput.IndexedBytesParserInput
  *
  * ParserInput reading directly off a ByteString. (Based on the ByteArrayBasedParserInput)
  * that avoids a separate decoding step.
+ *
+ * The ByteString does not need to be compact: the parser reads the bytes mostly sequentially, so the
+ * segment of the last access is remembered and only looked up again when the parser moves past it.
  */
 @InternalApi
 private[sprayjson] final class SprayJsonByteStringParserInput(bytes: ByteString) extends IndexedBytesParserInput {
-  protected def byteAt(offset: Int): Byte = bytes(offset)
+  private[this] val segments: Array[ByteBuffer] = bytes.asByteBuffers.filter(_.hasRemaining).toArray
+  private[this] val segmentStarts: Array[Int] = segments.scanLeft(0)(_ + _.remaining).dropRight(1)
+  private[this] var current = 0
+  private[this] var currentStart = 0
+  private[this] var currentEnd = if (segments.isEmpty) 0 else segments(0).remaining
+
+  protected def byteAt(offset: Int): Byte = {
+    if (offset < currentStart || offset >= currentEnd) {
+      val found = util.Arrays.binarySearch(segmentStarts, offset)
+      current = if (found >= 0) found else -found - 2
+      currentStart = segmentStarts(current)
+      currentEnd = currentStart + segments(current).remaining
+    }
+    val segment = segments(current)
+    segment.get(segment.position + offset - currentStart)
+  }
 
   override def length: Int = bytes.size
   override def sliceString(start: Int, end: Int): String =
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.marshallers.sprayjson
+
+import java.nio.charset.StandardCharsets
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.util.{ ByteString, ByteStringBuilder }
+import spray.json._
+
+/**
+ * INTERNAL API
+ *
+ * Renders a JsValue like the spray-json `CompactPrinter` does but directly into UTF-8 encoded bytes,
+ * avoiding an intermediate String.
+ */
+@InternalApi
+private[sprayjson] object SprayJsonByteStringPrinter {
+
+  def apply(value: JsValue): ByteString = {
+    val builder = new ByteStringBuilder
+    print(value, builder)
+    builder.result()
+  }
+
+  def print(value: JsValue, builder: ByteStringBuilder): Unit = value match {
+    case JsObject(fields) =>
+      builder.putByte('{'.toByte)
+      var first = true
+      fields.foreach { field =>
+        if (first) first = false else builder.putByte(','.toByte)
+        printString(field._1, builder)
+        builder.putByte(':'.toByte)
+        print(field._2, builder)
+      }
+      builder.putByte('}'.toByte)
+    case JsArray(elements) =>
+      builder.putByte('['.toByte)
+      var first = true
+      elements.foreach { element =>
+        if (first) first = false else builder.putByte(','.toByte)
+        print(element, builder)
+      }
+      builder.putByte(']'.toByte)
+    case leaf => printLeaf(leaf, builder)
+  }
+
+  /**
+   * Renders the value in chunks of about `chunkSize` bytes. A chunk only exceeds `chunkSize` by the size of the
+   * last leaf value (e.g. a long string) that was rendered into it. The iterator renders lazily, so that the
+   * rendered bytes of the whole value never need to be held in memory at once.
+   */
+  def chunks(value: JsValue, chunkSize: Int): Iterator[ByteString] = new ChunkIterator(value, chunkSize)
+
+  private final class ChunkIterator(value: JsValue, chunkSize: Int) extends Iterator[ByteString] {
+    private[this] val builder = new ByteStringBuilder
+    // the arrays and objects that are currently being rendered, innermost first
+    private[this] var open: List[Container] = Nil
+    private[this] var started = false
+
+    def hasNext: Boolean = !started || open.nonEmpty
+
+    def next(): ByteString = {
+      if (!hasNext) throw new NoSuchElementException("next on empty iterator")
+      if (!started) {
+        started = true
+        printNested(value)
+      }
+      while (open.nonEmpty && builder.length < chunkSize) open.head.printNext()
+      val chunk = builder.result()
+      builder.clear()
+      chunk
+    }
+
+    private def printNested(value: JsValue): Unit = value match {
+      case JsObject(fields) if fields.nonEmpty =>
+        builder.putByte('{'.toByte)
+        // the key of a field is rendered when the iterator advances to it, i.e. after the separating comma
+        open = new Container('}'.toByte, fields.iterator.map { field =>
+          printString(field._1, builder)
+          builder.putByte(':'.toByte)
+          field._2
+        }) :: open
+      case JsArray(elements) if elements.nonEmpty =>
+        builder.putByte('['.toByte)
+        open = new Container(']'.toByte, elements.iterator) :: open
+      case other => print(other, builder)
+    }
+
+    private final class Container(close: Byte, elements: Iterator[JsValue]) {
+      private[this] var first = true
+
+      def printNext(): Unit =
+        if (elements.hasNext) {
+          if (first) first = false else builder.putByte(','.toByte)
+          printNested(elements.next())
+        } else {
+          builder.putByte(close)
+          open = open.tail
+        }
+    }
+  }
+
+  private def printLeaf(value: JsValue, builder: ByteStringBuilder): Unit = value match {
+    case JsNull      => putAscii("null", builder)
+    case JsTrue      => putAscii("true", builder)
+    case JsFalse     => putAscii("false", builder)
+    case JsNumber(x) => putAscii(x.toString, builder)
+    case JsString(x) => printString(x, builder)
+    case _           => throw new IllegalStateException
+  }
+
+  private def putAscii(s: String, builder: ByteStringBuilder): Unit = {
+    var i = 0
+    while (i < s.length) {
+      builder.putByte(s.charAt(i).toByte)
+      i += 1
+    }
+  }
+
+  /** Escapes like `JsonPrinter.printString` and encodes non-ASCII chars to UTF-8 */
+  private def printString(s: String, builder: ByteStringBuilder): Unit = {
+    builder.putByte('"'.toByte)
+    var i = 0
+    while (i < s.length) {
+      val c = s.charAt(i)
+      if (c >= 0x80) {
+        // encode the whole run of non-ASCII chars at once so that surrogate pairs stay together
+        var end = i + 1
+        while (end < s.length && s.charAt(end) >= 0x80) end += 1
+        builder.putBytes(s.substring(i, end).getBytes(StandardCharsets.UTF_8))
+        i = end
+      } else {
+        if (c >= 0x20 && c != '"' && c != '\\') builder.putByte(c.toByte)
+        else c match {
+          case '"'  => putAscii("\\\"", builder)
+          case '\\' => putAscii("\\\\", builder)
+          case '\b' => putAscii("\\b", builder)
+          case '\f' => putAscii("\\f", builder)
+          case '\n' => putAscii("\\n", builder)
+          case '\r' => putAscii("\\r", builder)
+          case '\t' => putAscii("\\t", builder)
+          case x if x <= 0xF => putAscii("\\u000" + Integer.toHexString(x), builder)
+          case x => putAscii("\\u00" + Integer.toHexString(x), builder)
+        }
+        i += 1
+      }
+    }
+    builder.putByte('"'.toByte)
+  }
+}
@@ -17,6 +17,7 @@ import org.apache.pekko
 import pekko.http.javadsl.{ common, model => jm }
 import pekko.NotUsed
 import pekko.event.Logging
+import pekko.http.impl.util.ParallelLineFraming
 import pekko.http.scaladsl.common.EntityStreamingSupport
 import pekko.http.scaladsl.marshalling._
 import pekko.http.scaladsl.model.MediaTypes.`application/json`
@@ -47,10 +48,8 @@ trait SprayJsonSupport {
   implicit def sprayJsValueByteStringUnmarshaller[T]: FromByteStringUnmarshaller[JsValue] =
     Unmarshaller.withMaterializer[ByteString, JsValue](_ =>
       _ => { bs =>
-        // .compact so addressing into any address is very fast (also for large chunks)
-        // TODO we could optimise ByteStrings to better handle linear access like this (or provide ByteStrings.linearAccessOptimised)
-        // TODO IF it's worth it.
-        val parserInput = new SprayJsonByteStringParserInput(bs.compact)
+        // no .compact: the parser input reads the received chunks in place, so they are not copied again
+        val parserInput = new SprayJsonByteStringParserInput(bs)
         FastFuture.successful(JsonParser(parserInput))
       })
   implicit def sprayJsonByteStringUnmarshaller[T](implicit reader: RootJsonReader[T]): FromByteStringUnmarshaller[T] =
@@ -80,7 +79,30 @@ trait SprayJsonSupport {
       implicit writer: RootJsonWriter[T], printer: JsonPrinter = CompactPrinter): ToEntityMarshaller[T] =
     sprayJsValueMarshaller.compose(writer.write)
   implicit def sprayJsValueMarshaller(implicit printer: JsonPrinter = CompactPrinter): ToEntityMarshaller[JsValue] =
-    Marshaller.StringMarshaller.wrap(MediaTypes.`application/json`)(printer)
+    if (printer eq CompactPrinter)
+      // render directly into bytes instead of into a String that would need to be encoded afterwards
+      Marshaller.byteStringMarshaller(ContentTypes.`application/json`).compose(SprayJsonByteStringPrinter(_))
+    else Marshaller.StringMarshaller.wrap(MediaTypes.`application/json`)(printer)
+
+  /**
+   * Marshals values to chunked `application/json` entities, which are rendered lazily in chunks of about
+   * `chunkSize` bytes while they are sent. Use it for large values like big arrays, to avoid rendering the whole
+   * JSON document into memory at once.
+   */
+  def sprayJsonChunkedMarshaller[T](chunkSize: Int)(implicit writer: RootJsonWriter[T]): ToEntityMarshaller[T] =
+    sprayJsValueChunkedMarshaller(chunkSize).compose(writer.write)
+
+  /**
+   * Marshals JsValues to chunked `application/json` entities, which are rendered lazily in chunks of about
+   * `chunkSize` bytes while they are sent.
+   */
+  def sprayJsValueChunkedMarshaller(chunkSize: Int): ToEntityMarshaller[JsValue] = {
+    require(chunkSize > 0, "chunkSize must be > 0")
+    Marshaller.withFixedContentType(ContentTypes.`application/json`) { value =>
+      HttpEntity(ContentTypes.`application/json`,
+        Source.fromIterator(() => SprayJsonByteStringPrinter.chunks(value, chunkSize)))
+    }
+  }
 }
 object SprayJsonSupport extends SprayJsonSupport
 
@@ -125,9 +147,14 @@ final class JsonEntityStreamingSupport private[pekko] (
     val contentType: ContentType,
     val framingRenderer: Flow[ByteString, ByteString, NotUsed],
     val parallelism: Int,
-    val unordered: Boolean) extends common.JsonEntityStreamingSupport {
+    val unordered: Boolean,
+    framingParallelism: Int) extends common.JsonEntityStreamingSupport {
   import pekko.http.impl.util.JavaMapping.Implicits._
 
+  private[pekko] def this(maxObjectSize: Int, supported: ContentTypeRange, contentType: ContentType,
+      framingRenderer: Flow[ByteString, ByteString, NotUsed], parallelism: Int, unordered: Boolean) =
+    this(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered, 0)
+
   def this(maxObjectSize: Int) =
     this(
       maxObjectSize,
@@ -137,20 +164,30 @@ final class JsonEntityStreamingSupport private[pekko] (
       1, false)
 
   override val framingDecoder: Flow[ByteString, ByteString, NotUsed] =
-    pekko.stream.scaladsl.JsonFraming.objectScanner(maxObjectSize)
+    if (framingParallelism > 0)
+      ParallelLineFraming(maxObjectSize, framingParallelism, allowTruncation = true)
+        .filterNot(ParallelLineFraming.isBlankLine)
+    else pekko.stream.scaladsl.JsonFraming.objectScanner(maxObjectSize)
 
   override def withFramingRendererFlow(
       framingRendererFlow: pekko.stream.javadsl.Flow[ByteString, ByteString, NotUsed]): JsonEntityStreamingSupport =
     withFramingRenderer(framingRendererFlow.asScala)
   def withFramingRenderer(framingRendererFlow: Flow[ByteString, ByteString, NotUsed]): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRendererFlow, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRendererFlow, parallelism, unordered,
+      framingParallelism)
 
   override def withContentType(ct: jm.ContentType): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, ct.asScala, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, ct.asScala, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withSupported(range: jm.ContentTypeRange): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, range.asScala, contentType, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, range.asScala, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withParallelMarshalling(parallelism: Int, unordered: Boolean): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
+  override def withParallelFraming(parallelism: Int): JsonEntityStreamingSupport =
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, ParallelLineFraming.lineRenderer,
+      this.parallelism, unordered, parallelism)
 
   override def toString = s"""${Logging.simpleName(getClass)}($maxObjectSize, $supported, $contentType)"""
 
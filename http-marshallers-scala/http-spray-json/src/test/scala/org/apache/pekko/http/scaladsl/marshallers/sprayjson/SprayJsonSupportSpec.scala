@@ -18,12 +18,13 @@ import scala.concurrent.ExecutionContext
 import org.apache.pekko
 import pekko.actor.ActorSystem
 import pekko.http.scaladsl.marshalling.Marshal
-import pekko.http.scaladsl.model.MessageEntity
+import pekko.http.scaladsl.model.{ ContentTypes, HttpEntity, MessageEntity }
 import pekko.http.scaladsl.unmarshalling.Unmarshal
 import pekko.stream.ActorMaterializer
+import pekko.stream.scaladsl.Sink
 import pekko.util.ByteString
 import org.scalatest.concurrent.ScalaFutures
-import spray.json.{ JsArray, JsString, JsValue }
+import spray.json.{ CompactPrinter, JsArray, JsFalse, JsNull, JsNumber, JsObject, JsString, JsValue }
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
@@ -64,6 +65,37 @@ class SprayJsonSupportSpec extends AnyWordSpec with Matchers with ScalaFutures {
 
       example should ===(init)
     }
+    "allow Unmarshalling from a ByteString consisting of many chunks -> case class" in {
+      val init = Example(TestString)
+      val bytes = ByteString(s"""{"username": "$TestString"}""")
+      // single bytes, so that the multi-byte characters are split across chunks
+      val js = bytes.grouped(1).foldLeft(ByteString.empty)(_ ++ _)
+      val example = Unmarshal(js).to[Example].futureValue
+
+      example should ===(init)
+    }
+    "render JsValues into the same bytes as the CompactPrinter" in {
+      val init = JsObject(
+        "string" -> JsString(TestString + " \"quoted\" \\ \n\t\u0001"),
+        "array" -> JsArray(JsNumber(1), JsNumber(BigDecimal("1.5e300")), JsNull, JsFalse, JsArray(), JsObject()))
+
+      val entity = Marshal(init: JsValue).to[MessageEntity].futureValue
+
+      entity.contentType should ===(ContentTypes.`application/json`)
+      entity.asInstanceOf[HttpEntity.Strict].data should ===(ByteString(CompactPrinter(init)))
+    }
+    "render large values lazily in bounded chunks with the chunked marshaller" in {
+      val init = JsArray((1 to 1000).map(i => JsObject("id" -> JsNumber(i), "name" -> JsString(TestString))): _*)
+      val chunkedMarshaller = sprayJsValueChunkedMarshaller(chunkSize = 1024)
+
+      val entity = Marshal(init: JsValue).to[MessageEntity](chunkedMarshaller, ec).futureValue
+      val chunks = entity.dataBytes.runWith(Sink.seq).futureValue
+
+      entity.isChunked should ===(true)
+      chunks.size should be > 1
+      all(chunks.map(_.size)) should be < 1024 + TestString.length * 4
+      chunks.reduce(_ ++ _) should ===(ByteString(CompactPrinter(init)))
+    }
   }
 }
 
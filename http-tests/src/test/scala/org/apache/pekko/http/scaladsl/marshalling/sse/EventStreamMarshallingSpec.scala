@@ -41,5 +41,15 @@ final class EventStreamMarshallingSpec extends AnyWordSpec with Matchers with Ro
         Await.result(responseEntity.dataBytes.runWith(Sink.seq), 3.seconds) shouldBe events.map(_.encode)
       }
     }
+    "be marshallable to a HTTP response writing several events per chunk" in {
+      val events = 1.to(666).map(n => ServerSentEvent(n.toString))
+      val route = complete(Source(events))(toBatchedEventStream(100.millis, 1024))
+      Get() ~> route ~> check {
+        mediaType shouldBe `text/event-stream`
+        val chunks = Await.result(responseEntity.dataBytes.runWith(Sink.seq), 3.seconds)
+        chunks.size should be < events.size
+        chunks.reduce(_ ++ _) shouldBe events.map(_.encode).reduce(_ ++ _)
+      }
+    }
   }
 }
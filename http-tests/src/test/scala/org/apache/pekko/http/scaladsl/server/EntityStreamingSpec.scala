@@ -18,7 +18,11 @@ import scala.concurrent.duration._
 
 import org.apache.pekko
 import pekko.NotUsed
-import pekko.http.scaladsl.common.{ EntityStreamingSupport, JsonEntityStreamingSupport }
+import pekko.http.scaladsl.common.{
+  EntityStreamingSupport,
+  JsonEntityStreamingSupport,
+  LengthPrefixedEntityStreamingSupport
+}
 import pekko.http.scaladsl.marshalling._
 import pekko.http.scaladsl.model._
 import pekko.http.scaladsl.model.headers._
@@ -177,6 +181,130 @@ class EntityStreamingSpec extends RoutingSpec with ScalaFutures {
 
   }
 
+  "client-consume-streaming-ndjson-with-parallel-framing" in {
+    import MyJsonProtocol._
+    import pekko.http.scaladsl.unmarshalling._
+
+    implicit val jsonStreamingSupport: JsonEntityStreamingSupport =
+      EntityStreamingSupport.json().withParallelFraming(4)
+
+    val input = (1 to 100).map(i => s"""{"uid":$i,"txt":"tweet number $i"}""").mkString("", "\n", "\n\n")
+    // chunks of odd sizes, so that lines span several chunks and chunks contain several lines
+    val chunks = Source(ByteString(input).grouped(7).toList)
+    val response = HttpResponse(entity = HttpEntity(ContentTypes.`application/json`, chunks))
+
+    val all = Source.futureSource(Unmarshal(response).to[Source[Tweet, NotUsed]]).runWith(Sink.seq).futureValue
+    all should ===((1 to 100).map(i => Tweet(i, s"tweet number $i")))
+  }
+
+  "client-consume-streaming-ndjson-with-parallel-framing without a trailing newline" in {
+    import pekko.http.scaladsl.unmarshalling._
+
+    implicit val jsonStreamingSupport: JsonEntityStreamingSupport =
+      EntityStreamingSupport.json().withParallelFraming(4)
+
+    val input = (1 to 10).map(i => s"""{"uid":$i,"txt":"tweet number $i"}""").mkString("\n")
+    val chunks = Source(ByteString(input).grouped(7).toList)
+    val response = HttpResponse(entity = HttpEntity(ContentTypes.`application/json`, chunks))
+
+    val all = Source.futureSource(Unmarshal(response).to[Source[Tweet, NotUsed]]).runWith(Sink.seq).futureValue
+    all should ===((1 to 10).map(i => Tweet(i, s"tweet number $i")))
+  }
+
+  "read back ndjson written with the same parallel framing support" in {
+    import MyJsonProtocol._
+
+    implicit val jsonStreamingSupport: JsonEntityStreamingSupport =
+      EntityStreamingSupport.json().withParallelFraming(4)
+
+    val route =
+      path("tweets") {
+        get {
+          complete(getTweets)
+        } ~
+        post {
+          entity(asSourceOf[Tweet]) { source =>
+            complete(source.runFold(0)(_ + _.uid).map(_.toString))
+          }
+        }
+      }
+
+    val body = Get("/tweets") ~> route ~> check {
+      responseAs[String]
+    }
+    body.split('\n').toList should have size tweets.size
+
+    Post("/tweets").withEntity(HttpEntity(ContentTypes.`application/json`, body)) ~> route ~> check {
+      responseAs[String] should ===(tweets.map(_.uid).sum.toString)
+    }
+  }
+
+  "fail parallel framing of csv on a last line without a line terminator, like framing without parallelism" in {
+    val input = Source(List(ByteString("a,b\nc,"), ByteString("d")))
+    for (support <- List(EntityStreamingSupport.csv(), EntityStreamingSupport.csv().withParallelFraming(2))) {
+      input.via(support.framingDecoder).runWith(Sink.seq).failed.futureValue shouldBe a[Framing.FramingException]
+    }
+  }
+
+  "fail parallel framing on lines exceeding the maximum length" in {
+    val framing = EntityStreamingSupport.csv(maxLineLength = 10).withParallelFraming(2).framingDecoder
+    val result = Source(List(ByteString("short\nand a very long"), ByteString(" line\n"))).via(framing).runWith(Sink.seq)
+
+    result.failed.futureValue shouldBe a[Framing.FramingException]
+  }
+
+  "length-prefixed-binary-streaming" in {
+    import pekko.http.scaladsl.unmarshalling._
+
+    implicit val measurementToBytes: ToByteStringMarshaller[Measurement] =
+      Marshaller.opaque(m => ByteString(s"${m.id}:${m.value}"))
+    implicit val bytesToMeasurement: FromByteStringUnmarshaller[Measurement] =
+      Unmarshaller.strict { bytes =>
+        val Array(id, value) = bytes.utf8String.split(':')
+        Measurement(id, value.toInt)
+      }
+
+    for (support <- List(EntityStreamingSupport.lengthPrefixed(1024), EntityStreamingSupport.varintLengthPrefixed(1024))) {
+      implicit val streamingSupport: LengthPrefixedEntityStreamingSupport = support
+
+      // the long ids need a length prefix of more than one byte as a varint
+      val measurements = (1 to 50).map(i => Measurement("sensor-" + ("x" * i * 3), i))
+      val route =
+        path("measurements") {
+          get {
+            complete(Source(measurements))
+          } ~
+          post {
+            entity(asSourceOf[Measurement]) { source =>
+              complete(source.runFold(0)(_ + _.value).map(_.toString))
+            }
+          }
+        }
+
+      val body = Get("/measurements") ~> route ~> check {
+        contentType should ===(ContentTypes.`application/octet-stream`)
+        responseAs[ByteString]
+      }
+      val decoded =
+        Source.single(body).via(support.framingDecoder).mapAsync(1)(Unmarshal(_).to[Measurement]).runWith(Sink.seq)
+      decoded.futureValue should ===(measurements)
+
+      // chunks of odd sizes, so that length prefixes and frames span several chunks
+      val chunks = Source(body.grouped(7).toList)
+      Post("/measurements").withEntity(HttpEntity(ContentTypes.`application/octet-stream`, chunks)) ~> route ~> check {
+        responseAs[String] should ===(measurements.map(_.value).sum.toString)
+      }
+    }
+  }
+
+  "fail length-prefixed framing on frames exceeding the maximum length" in {
+    val framing = EntityStreamingSupport.varintLengthPrefixed(maxFrameLength = 100).framingDecoder
+    val result = Source.single(ByteString(0x80.toByte, 0x01.toByte) ++ ByteString(new Array[Byte](128)))
+      .via(framing).runWith(Sink.seq)
+
+    result.failed.futureValue shouldBe a[Framing.FramingException]
+  }
+
   "csv-example" in {
     implicit val tweetAsCsv = Marshaller.strict[Tweet, ByteString] { t =>
       Marshalling.WithFixedContentType(ContentTypes.`text/csv(UTF-8)`,
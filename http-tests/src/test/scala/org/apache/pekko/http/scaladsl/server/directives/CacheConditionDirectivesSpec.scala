@@ -207,4 +207,58 @@ class CacheConditionDirectivesSpec extends RoutingSpec {
     }
   }
 
+  "the `autoETag` directive" should {
+    val entity = HttpEntity("content")
+    def tagged = autoETag { complete(entity) }
+    def eTagOf(route: Route): EntityTag = Get() ~> route ~> check(header[ETag].get.etag)
+
+    "add the same ETag for the same content" in {
+      eTagOf(tagged) shouldEqual eTagOf(autoETag { complete(HttpEntity("content")) })
+      eTagOf(tagged) should not equal eTagOf(autoETag { complete(HttpEntity("other content")) })
+    }
+
+    "compute the ETag of an entity completed with repeatedly only once" in {
+      val tag = eTagOf(tagged)
+      // the tag remembered for the bytes of the entity instead of hashing them again
+      eTagOf(tagged) should be theSameInstanceAs tag
+      val equalTag = eTagOf(autoETag { complete(HttpEntity("content")) })
+      equalTag shouldEqual tag
+      equalTag should not be theSameInstanceAs(tag)
+    }
+
+    "return NotModified if `If-None-Match` matches the ETag" in {
+      val tag = eTagOf(tagged)
+      Get() ~> `If-None-Match`(tag) ~> tagged ~> check {
+        status shouldEqual NotModified
+        header[ETag] shouldEqual Some(ETag(tag))
+        responseEntity shouldEqual HttpEntity.Empty
+      }
+    }
+
+    "return OK if `If-None-Match` does not match the ETag" in {
+      Get() ~> `If-None-Match`(EntityTag("old")) ~> tagged ~> check {
+        status shouldEqual OK
+        responseAs[String] shouldEqual "content"
+      }
+    }
+
+    "keep an ETag added by the inner route" in {
+      Get() ~> `If-None-Match`(EntityTag("own")) ~> autoETag {
+        respondWithHeader(ETag("own")) { complete(entity) }
+      } ~> check {
+        status shouldEqual OK
+        header[ETag] shouldEqual Some(ETag("own"))
+      }
+    }
+
+    "not add an ETag to unsuccessful responses or responses to other methods" in {
+      Get() ~> autoETag { complete(StatusCodes.NotFound, "missing") } ~> check {
+        header[ETag] shouldEqual None
+      }
+      Post() ~> tagged ~> check {
+        header[ETag] shouldEqual None
+      }
+    }
+  }
+
 }
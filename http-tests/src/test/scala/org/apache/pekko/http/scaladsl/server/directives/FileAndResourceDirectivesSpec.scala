@@ -15,6 +15,8 @@ package org.apache.pekko.http.scaladsl.server
 package directives
 
 import java.io.File
+import java.nio.file.{ Files, StandardCopyOption }
+import java.nio.file.attribute.BasicFileAttributes
 
 import org.apache.pekko
 import pekko.http.scaladsl.settings.RoutingSettings
@@ -44,6 +46,8 @@ class FileAndResourceDirectivesSpec extends RoutingSpec with Inspectors with Ins
     pekko.http.routing.range-coalescing-threshold = 1
   """
 
+  lazy val fileKeySettings = RoutingSettings(system).withFileGetETagIncludesFileKey(true)
+
   def writeAllText(text: String, file: File): Unit =
     java.nio.file.Files.write(file.toPath, text.getBytes("UTF-8"))
 
@@ -142,6 +146,77 @@ class FileAndResourceDirectivesSpec extends RoutingSpec with Inspectors with Ins
         }
       } finally file.delete
     }
+
+    "tag the file with its size and modification time" in {
+      val file = File.createTempFile("pekkoHttpTest", null)
+      try {
+        writeAllText("ABC", file)
+        val attributes = Files.readAttributes(file.toPath, classOf[BasicFileAttributes])
+        val expectedTag = java.lang.Long.toHexString(
+          attributes.lastModifiedTime.toMillis ^ java.lang.Long.reverse(attributes.size))
+        Get() ~> getFromFile(file) ~> check {
+          header[ETag] shouldEqual Some(ETag(EntityTag(expectedTag)))
+        }
+        Get() ~> addHeader(`If-None-Match`(EntityTag(expectedTag))) ~> getFromFile(file) ~> check {
+          status shouldEqual StatusCodes.NotModified
+        }
+      } finally file.delete
+    }
+
+    "tag the file with its file system identity too if enabled" in {
+      val file = File.createTempFile("pekkoHttpTest", null)
+      try {
+        writeAllText("ABC", file)
+        val attributes = Files.readAttributes(file.toPath, classOf[BasicFileAttributes])
+        val sizeAndTime = java.lang.Long.toHexString(
+          attributes.lastModifiedTime.toMillis ^ java.lang.Long.reverse(attributes.size))
+        val expectedTag =
+          if (attributes.fileKey eq null) sizeAndTime
+          else sizeAndTime + "-" + Integer.toHexString(attributes.fileKey.hashCode)
+        Get() ~> withSettings(fileKeySettings)(getFromFile(file)) ~> check {
+          header[ETag] shouldEqual Some(ETag(EntityTag(expectedTag)))
+        }
+        Get() ~> addHeader(`If-None-Match`(EntityTag(expectedTag))) ~> withSettings(fileKeySettings)(
+          getFromFile(file)) ~> check {
+          status shouldEqual StatusCodes.NotModified
+        }
+      } finally file.delete
+    }
+
+    "change the tag of a file replaced by one of the same size and modification time if enabled" in {
+      val file = File.createTempFile("pekkoHttpTest", null)
+      val replacement = File.createTempFile("pekkoHttpTest", null, file.getParentFile)
+      try {
+        assume(Files.readAttributes(file.toPath, classOf[BasicFileAttributes]).fileKey ne null,
+          "the file system does not provide file keys")
+        val lastModified = (System.currentTimeMillis - 60000) / 1000 * 1000
+        writeAllText("ABC", file)
+        file.setLastModified(lastModified)
+        writeAllText("XYZ", replacement)
+        replacement.setLastModified(lastModified)
+
+        def tag(): Option[ETag] = Get() ~> withSettings(fileKeySettings)(getFromFile(file)) ~> check {
+          responseAs[String]
+          header[ETag]
+        }
+
+        val originalTag = tag()
+        originalTag should not be empty
+        Files.move(replacement.toPath, file.toPath, StandardCopyOption.REPLACE_EXISTING)
+        file.lastModified shouldEqual lastModified
+        val replacedTag = tag()
+        replacedTag should not be empty
+        replacedTag should not equal originalTag
+        Get() ~> addHeader(`If-None-Match`(originalTag.get.etag)) ~> withSettings(fileKeySettings)(
+          getFromFile(file)) ~> check {
+          status shouldEqual StatusCodes.OK
+          responseAs[String] shouldEqual "XYZ"
+        }
+      } finally {
+        file.delete
+        replacement.delete
+      }
+    }
   }
 
   "getFromDirectory" should {
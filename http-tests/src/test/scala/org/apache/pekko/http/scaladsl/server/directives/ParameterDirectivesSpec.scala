@@ -214,6 +214,18 @@ class ParameterDirectivesSpec extends AnyFreeSpec with GenericRoutingSpec with I
         }
       } ~> check { responseAs[String] shouldEqual "EllenSome(Parsons)29None" }
     }
+    "extract the same values as Uri.Query from a wide query with duplicate keys" in {
+      val query = (1 to 40).map(i => s"p${i % 15}=$i").mkString("/?", "&", "")
+      Get(query) ~> {
+        parameters("p1", "p2".repeated, "p14".as[Int]) { (p1, p2, p14) =>
+          parameterMap { map =>
+            parameterMultiMap { multiMap =>
+              complete(s"$p1 $p2 $p14 ${map("p1")} ${multiMap("p1")}")
+            }
+          }
+        }
+      } ~> check { responseAs[String] shouldEqual "1 List(32, 17, 2) 14 31 List(1, 16, 31)" }
+    }
   }
 
   "The 'parameter' requirement directive should" - {
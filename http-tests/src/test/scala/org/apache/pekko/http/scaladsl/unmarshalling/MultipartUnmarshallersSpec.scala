@@ -211,6 +211,45 @@ trait MultipartUnmarshallersSpec extends PekkoSpecWithMaterializer {
           Multipart.General.BodyPart.Strict(HttpEntity(`application/octet-stream`,
             ByteString("second part, explicitly typed"))))
       }
+      "a big part received in chunks of different sizes" in {
+        // contains many near-boundaries that only differ from the real one in the last char
+        val data = ("0123456789abcdef" * 1000).grouped(1000).mkString(s"$lineFeed--1234$lineFeed")
+        val content = ByteString(s"""--12345
+                                    |
+                                    |$data
+                                    |--12345--""".stripMarginWithNewline(lineFeed))
+        val chunkSizes = Seq(1, 7, 13, 100, 1021)
+        val chunks =
+          Iterator.from(0)
+            .scanLeft((0, 0)) { case ((_, end), i) => (end, end + chunkSizes(i % chunkSizes.size)) }
+            .drop(1)
+            .takeWhile(_._1 < content.length)
+            .map { case (start, end) => content.slice(start, end).compact }
+            .toList
+        Unmarshal(HttpEntity.Default(`multipart/mixed`.withBoundary("12345"), content.length, Source(chunks)))
+          .to[Multipart.General] should haveParts(
+          Multipart.General.BodyPart.Strict(HttpEntity(ContentTypes.`text/plain(UTF-8)`, data)))
+      }
+      "a big part received in chunks as views of the received chunks" in {
+        val data = "0123456789abcdef" * 1000
+        val pieces = data.grouped(1000).toVector
+        val arrays =
+          (s"--12345$lineFeed$lineFeed${pieces.head}" +: pieces.tail.init :+ s"${pieces.last}$lineFeed--12345--")
+            .map(_.getBytes("ASCII"))
+        val entity =
+          HttpEntity.Default(`multipart/mixed`.withBoundary("12345"), arrays.map(_.length.toLong).sum,
+            Source(arrays.map(ByteString.fromArrayUnsafe)))
+        val partData =
+          Unmarshal(entity).to[Multipart.General]
+            .flatMap(_.parts.flatMapConcat(_.entity.dataBytes).runWith(Sink.seq))
+            .awaitResult(3.seconds.dilated)
+        partData.map(_.utf8String).mkString shouldEqual data
+        all(partData.map(_.asByteBuffers.size)) shouldEqual 1
+
+        // the emitted data share the arrays of the received chunks instead of copying them
+        arrays.foreach(java.util.Arrays.fill(_, 'X'.toByte))
+        partData.map(_.utf8String).mkString shouldEqual "X" * data.length
+      }
       "a boundary with spaces" in {
         Unmarshal(HttpEntity(
           `multipart/mixed`.withBoundary("simple boundary"),
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.util
+
+import java.nio.ByteOrder
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.annotation.InternalApi
+import pekko.stream.{ Attributes, FlowShape, Inlet, Outlet }
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Framing.FramingException
+import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+import pekko.util.{ ByteString, ByteStringBuilder }
+
+/**
+ * INTERNAL API
+ *
+ * Framing of binary records that are each prefixed with their length, either as a varint (as written by protobuf's
+ * `writeDelimitedTo`) or as a 4-byte big-endian integer. Decoded frames do not contain the length prefix.
+ */
+@InternalApi
+private[http] object LengthPrefixedFraming {
+
+  def varintDecoder(maxFrameLength: Int): Flow[ByteString, ByteString, NotUsed] =
+    Flow.fromGraph(new DecoderStage(maxFrameLength, varint = true))
+
+  def int32Decoder(maxFrameLength: Int): Flow[ByteString, ByteString, NotUsed] =
+    Flow.fromGraph(new DecoderStage(maxFrameLength, varint = false))
+
+  val varintRenderer: Flow[ByteString, ByteString, NotUsed] =
+    Flow[ByteString].map { frame =>
+      val builder = new ByteStringBuilder
+      var length = frame.length
+      while (length >= 0x80) {
+        builder.putByte(((length & 0x7F) | 0x80).toByte)
+        length >>>= 7
+      }
+      builder.putByte(length.toByte)
+      builder.result() ++ frame
+    }
+
+  val int32Renderer: Flow[ByteString, ByteString, NotUsed] =
+    Flow[ByteString].map(frame => new ByteStringBuilder().putInt(frame.length)(ByteOrder.BIG_ENDIAN).result() ++ frame)
+
+  private final class DecoderStage(maxFrameLength: Int, varint: Boolean)
+      extends GraphStage[FlowShape[ByteString, ByteString]] {
+    val in = Inlet[ByteString]("LengthPrefixedFraming.in")
+    val out = Outlet[ByteString]("LengthPrefixedFraming.out")
+    override val shape = FlowShape(in, out)
+
+    override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+      new GraphStageLogic(shape) with InHandler with OutHandler {
+        private var buffer = ByteString.empty
+        // set by `parseHeader`
+        private var headerLength = 0
+        private var frameLength = 0
+
+        override def onPush(): Unit = {
+          buffer ++= grab(in)
+          tryPush()
+        }
+
+        override def onPull(): Unit = tryPush()
+
+        override def onUpstreamFinish(): Unit =
+          if (buffer.isEmpty) completeStage()
+          else if (isAvailable(out)) tryPush()
+        // else wait for the next pull to push the remaining frames
+
+        private def tryPush(): Unit =
+          if (parseHeader() && buffer.length >= headerLength + frameLength) {
+            push(out, buffer.slice(headerLength, headerLength + frameLength))
+            buffer = buffer.drop(headerLength + frameLength)
+            if (isClosed(in) && buffer.isEmpty) completeStage()
+          } else if (isClosed(out)) () // the stage has been failed by `parseHeader`
+          else if (isClosed(in))
+            failStage(new FramingException("Stream finished but there was a truncated final frame in the buffer"))
+          else pull(in)
+
+        /** Returns false if the buffer does not contain the complete header yet, fails the stage on invalid headers */
+        private def parseHeader(): Boolean = {
+          val complete = if (varint) parseVarint() else parseInt32()
+          if (complete && (frameLength < 0 || frameLength > maxFrameLength)) {
+            failStage(new FramingException(
+              s"Maximum allowed frame length is $maxFrameLength but decoded frame header reported length $frameLength"))
+            false
+          } else complete
+        }
+
+        private def parseInt32(): Boolean =
+          buffer.length >= 4 && {
+            headerLength = 4
+            frameLength = buffer.iterator.getInt(ByteOrder.BIG_ENDIAN)
+            true
+          }
+
+        private def parseVarint(): Boolean = {
+          var value = 0
+          var i = 0
+          var complete = false
+          while (!complete && i < buffer.length && i < 5) {
+            val b = buffer(i)
+            value |= (b & 0x7F) << (7 * i)
+            i += 1
+            complete = (b & 0x80) == 0
+          }
+          headerLength = i
+          frameLength = value
+          if (!complete && i == 5) {
+            failStage(new FramingException("Length prefix of frame is not a valid 32-bit varint"))
+            false
+          } else complete
+        }
+
+        setHandlers(in, out, this)
+      }
+  }
+}
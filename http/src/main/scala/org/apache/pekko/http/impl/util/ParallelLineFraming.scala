@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.impl.util
+
+import java.nio.ByteBuffer
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.annotation.InternalApi
+import pekko.stream.{ Attributes, FlowShape, Inlet, Outlet }
+import pekko.stream.scaladsl.Flow
+import pekko.stream.scaladsl.Framing.FramingException
+import pekko.stream.stage.{ GraphStage, GraphStageLogic, InHandler, OutHandler }
+import pekko.util.ByteString
+
+import scala.collection.immutable.VectorBuilder
+import scala.collection.mutable
+
+/**
+ * INTERNAL API
+ *
+ * Splits a stream of bytes into `\n` separated lines like `Framing.delimiter(ByteString("\n"), maxLineLength)`.
+ * A last line without a line terminator fails the stream like `Framing.delimiter` does, unless `allowTruncation` is
+ * set (as JSON Lines allow), in which case it is emitted as well.
+ *
+ * Framing runs in its own asynchronous island with an input buffer of (at least) `parallelism` chunks, so that
+ * scanning chunks for line ends overlaps with receiving the entity and with processing the framed lines downstream.
+ * The scan itself looks at eight bytes at a time and is done inline when a chunk is pushed.
+ */
+@InternalApi
+private[http] object ParallelLineFraming {
+
+  def apply(maxLineLength: Int, parallelism: Int, allowTruncation: Boolean): Flow[ByteString, ByteString, NotUsed] = {
+    require(parallelism > 0, "parallelism must be > 0")
+    // buffer sizes of async boundaries must be powers of two
+    val bufferSize = if (Integer.bitCount(parallelism) == 1) parallelism else Integer.highestOneBit(parallelism) << 1
+    Flow.fromGraph(new LineFramingStage(maxLineLength, allowTruncation))
+      .addAttributes(Attributes.inputBuffer(bufferSize, bufferSize))
+      .async
+  }
+
+  /** Renders each element as a line, i.e. the format that the framing reads */
+  val lineRenderer: Flow[ByteString, ByteString, NotUsed] = {
+    val newline = ByteString("\n")
+    Flow[ByteString].map(_ ++ newline)
+  }
+
+  /** Whether the line only consists of whitespace, used to skip blank lines between JSON Lines */
+  def isBlankLine(line: ByteString): Boolean = line.forall(b => b == ' ' || b == '\t' || b == '\r')
+
+  private final val Newline = '\n'.toByte
+  private final val NewlineWord = 0x0A0A0A0A0A0A0A0AL
+  private final val LowBits = 0x0101010101010101L
+  private final val HighBits = 0x8080808080808080L
+
+  /**
+   * Returns the indices of all `\n` bytes. Looks at eight bytes at a time and only checks the single bytes of words
+   * that contain a newline.
+   */
+  private[util] def lineEnds(bytes: ByteString): Array[Int] = {
+    val result = new mutable.ArrayBuilder.ofInt
+    var offset = 0
+    bytes.asByteBuffers.foreach { buffer =>
+      val start = buffer.position
+      val end = buffer.limit
+      var i = start
+      while (i + 8 <= end) {
+        val word = buffer.getLong(i) ^ NewlineWord
+        if (((word - LowBits) & ~word & HighBits) != 0) collect(buffer, i, i + 8, offset - start, result)
+        i += 8
+      }
+      collect(buffer, i, end, offset - start, result)
+      offset += end - start
+    }
+    result.result()
+  }
+
+  private def collect(buffer: ByteBuffer, from: Int, until: Int, shift: Int, result: mutable.ArrayBuilder.ofInt): Unit = {
+    var i = from
+    while (i < until) {
+      if (buffer.get(i) == Newline) result += i + shift
+      i += 1
+    }
+  }
+
+  private final class LineFramingStage(maxLineLength: Int, allowTruncation: Boolean)
+      extends GraphStage[FlowShape[ByteString, ByteString]] {
+    val in = Inlet[ByteString]("ParallelLineFraming.in")
+    val out = Outlet[ByteString]("ParallelLineFraming.out")
+    override val shape = FlowShape(in, out)
+
+    override def createLogic(inheritedAttributes: Attributes): GraphStageLogic =
+      new GraphStageLogic(shape) with InHandler with OutHandler {
+        // the start of a line that continues in the next chunk
+        private var partial = ByteString.empty
+
+        override def onPush(): Unit = {
+          val bytes = grab(in)
+          val ends = lineEnds(bytes)
+          val lines = new VectorBuilder[ByteString]
+          var lineStart = 0
+          var i = 0
+          while (i < ends.length && !isClosed(out)) {
+            val lineEnd = ends(i)
+            val line = partial ++ bytes.slice(lineStart, lineEnd)
+            partial = ByteString.empty
+            checkLength(line)
+            lines += line
+            lineStart = lineEnd + 1
+            i += 1
+          }
+          partial ++= bytes.drop(lineStart)
+          checkLength(partial)
+
+          if (!isClosed(out)) {
+            val framed = lines.result()
+            if (framed.isEmpty) pull(in)
+            else emitMultiple(out, framed, () => if (!isClosed(in) && !hasBeenPulled(in)) pull(in))
+          }
+        }
+
+        override def onPull(): Unit = if (!hasBeenPulled(in)) pull(in)
+
+        override def onUpstreamFinish(): Unit =
+          if (partial.isEmpty) complete(out)
+          else if (allowTruncation) {
+            emit(out, partial)
+            partial = ByteString.empty
+            complete(out)
+          } else
+            failStage(new FramingException(
+              "Stream finished but there was a truncated final frame in the buffer"))
+
+        private def checkLength(line: ByteString): Unit =
+          if (line.length > maxLineLength)
+            failStage(new FramingException(
+              s"Read ${line.length} bytes which is more than $maxLineLength without seeing a line terminator"))
+
+        setHandlers(in, out, this)
+      }
+  }
+}
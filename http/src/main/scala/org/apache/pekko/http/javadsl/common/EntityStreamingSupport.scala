@@ -23,7 +23,8 @@ import pekko.util.ByteString
 /**
  * Entity streaming support trait allowing rendering and receiving incoming ``Source[T, _]`` from HTTP entities.
  *
- * See [[JsonEntityStreamingSupport]] or [[CsvEntityStreamingSupport]] for default implementations.
+ * See [[JsonEntityStreamingSupport]], [[CsvEntityStreamingSupport]] or [[LengthPrefixedEntityStreamingSupport]] for
+ * default implementations.
  */
 abstract class EntityStreamingSupport {
 
@@ -150,6 +151,26 @@ object EntityStreamingSupport {
    * Provides framing and rendering of `\n` separated lines and marshalling Sources into such values.
    */
   def csv(maxLineLength: Int): CsvEntityStreamingSupport = common.EntityStreamingSupport.csv(maxLineLength)
+
+  /**
+   * Default `application/octet-stream` entity streaming support for binary records that are each prefixed with their
+   * length as a 4-byte big-endian integer.
+   *
+   * The records themselves are not interpreted, so this can be used with any binary codec, e.g. protobuf or CBOR.
+   * Use `withContentType` and `withSupported` to use a more specific content type.
+   */
+  def lengthPrefixed(maxFrameLength: Int): LengthPrefixedEntityStreamingSupport =
+    common.EntityStreamingSupport.lengthPrefixed(maxFrameLength)
+
+  /**
+   * Default `application/octet-stream` entity streaming support for binary records that are each prefixed with their
+   * length as a varint, as written by protobuf's `writeDelimitedTo` and read by `parseDelimitedFrom`.
+   *
+   * The records themselves are not interpreted, so this can be used with any binary codec.
+   * Use `withContentType` and `withSupported` to use a more specific content type.
+   */
+  def varintLengthPrefixed(maxFrameLength: Int): LengthPrefixedEntityStreamingSupport =
+    common.EntityStreamingSupport.varintLengthPrefixed(maxFrameLength)
 }
 
 // extends Scala base, in order to get linearization right and (as we can't go into traits here, because companion object needed)
@@ -165,6 +186,19 @@ abstract class JsonEntityStreamingSupport extends common.EntityStreamingSupport
    * and for rendering a new-line separated CSV simply `Flow[ByteString].intersperse(ByteString("\n"))`.
    */
   def withFramingRendererFlow(flow: Flow[ByteString, ByteString, NotUsed]): JsonEntityStreamingSupport
+
+  /**
+   * Frames entities as lines (i.e. newline-delimited JSON) instead of as a JSON array.
+   *
+   * Read-side, incoming entities are split into lines instead of being scanned for JSON objects. Framing runs
+   * asynchronously with a buffer of `parallelism` chunks, so that it overlaps with unmarshalling the elements, while
+   * their order is preserved. Only use this for entities that contain exactly one JSON value per line. Blank lines are
+   * skipped and a last line without a line terminator is accepted.
+   *
+   * Write-side, the framing renderer is replaced with one that terminates each element with a newline, so that
+   * entities written with this support can be read with it as well.
+   */
+  def withParallelFraming(parallelism: Int): JsonEntityStreamingSupport
 }
 
 // extends Scala base, in order to get linearization right and (as we can't go into traits here, because companion object needed)
@@ -180,4 +214,22 @@ abstract class CsvEntityStreamingSupport extends common.EntityStreamingSupport {
    * and for rendering a new-line separated CSV simply `Flow[ByteString].intersperse(ByteString("\n"))`.
    */
   def withFramingRendererFlow(flow: Flow[ByteString, ByteString, NotUsed]): CsvEntityStreamingSupport
+
+  /**
+   * Read-side, frames incoming entities asynchronously with a buffer of `parallelism` chunks, so that framing
+   * overlaps with unmarshalling the lines, while their order is preserved. A last line without a line terminator fails
+   * the stream, as without parallel framing.
+   */
+  def withParallelFraming(parallelism: Int): CsvEntityStreamingSupport
+}
+
+// extends Scala base, in order to get linearization right and (as we can't go into traits here, because companion object needed)
+abstract class LengthPrefixedEntityStreamingSupport extends common.EntityStreamingSupport {
+
+  /**
+   * Java API: Write-side, apply framing to outgoing entity stream.
+   *
+   * By default every element is prefixed with its length.
+   */
+  def withFramingRendererFlow(flow: Flow[ByteString, ByteString, NotUsed]): LengthPrefixedEntityStreamingSupport
 }
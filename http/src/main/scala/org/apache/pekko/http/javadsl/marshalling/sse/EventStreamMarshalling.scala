@@ -21,6 +21,7 @@ import pekko.NotUsed
 import pekko.http.javadsl.model.RequestEntity
 import pekko.http.javadsl.model.sse.ServerSentEvent
 import pekko.stream.javadsl.Source
+import pekko.util.JavaDurationConverters._
 
 /**
  * Using `eventStreamMarshaller` lets a source of [[ServerSentEvent]]s be marshalled to a `HttpResponse`.
@@ -35,4 +36,17 @@ object EventStreamMarshalling {
       eventStream.asScala.map(_.asInstanceOf[scaladsl.model.sse.ServerSentEvent])
     Marshaller.fromScala(scaladsl.marshalling.sse.EventStreamMarshalling.toEventStream.compose(asScala))
   }
+
+  /**
+   * Lets a source of [[ServerSentEvent]]s be marshalled to a `HttpResponse`, writing events that are emitted shortly
+   * after each other together: the first event of a chunk waits at most `maxDelay` for more events until up to
+   * `maxBytes` bytes are collected.
+   */
+  def toBatchedEventStream(
+      maxDelay: java.time.Duration, maxBytes: Int): Marshaller[Source[ServerSentEvent, NotUsed], RequestEntity] = {
+    def asScala(eventStream: Source[ServerSentEvent, NotUsed]) =
+      eventStream.asScala.map(_.asInstanceOf[scaladsl.model.sse.ServerSentEvent])
+    Marshaller.fromScala(
+      scaladsl.marshalling.sse.EventStreamMarshalling.toBatchedEventStream(maxDelay.asScala, maxBytes).compose(asScala))
+  }
 }
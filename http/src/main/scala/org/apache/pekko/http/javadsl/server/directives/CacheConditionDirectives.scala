@@ -88,4 +88,19 @@ abstract class CacheConditionDirectives extends BasicDirectives {
       D.conditional(eTag.asScala.map(_.asScala), lastModified.asScala.map(_.asScala)) { inner.get.delegate }
     }
 
+  /**
+   * Adds an `ETag` header derived from the entity bytes to `200 OK` responses with strict entities and answers
+   * `GET` and `HEAD` requests with `304 Not Modified` if their `If-None-Match` header matches it.
+   *
+   * The inner route still produces the complete response, but an unchanged entity is neither rendered nor sent.
+   * Responses that already have an `ETag` header are left alone. The tag of an entity that is completed with
+   * repeatedly, e.g. a precomputed `HttpEntity.Strict`, is only computed once.
+   *
+   * Note: the tag is derived from the entity as the inner route produces it, so this directive should be put
+   * *inside* of directives that change the entity, like `encodeResponse`.
+   */
+  def autoETag(inner: Supplier[Route]): Route = RouteAdapter {
+    D.autoETag { inner.get.delegate }
+  }
+
 }
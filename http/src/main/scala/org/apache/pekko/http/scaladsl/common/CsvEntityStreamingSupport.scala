@@ -16,6 +16,7 @@ package org.apache.pekko.http.scaladsl.common
 import org.apache.pekko
 import pekko.NotUsed
 import pekko.event.Logging
+import pekko.http.impl.util.ParallelLineFraming
 import pekko.http.javadsl.{ common, model => jm }
 import pekko.http.scaladsl.model.{ ContentType, ContentTypeRange, ContentTypes }
 import pekko.stream.scaladsl.{ Flow, Framing }
@@ -27,9 +28,14 @@ final class CsvEntityStreamingSupport private[pekko] (
     val contentType: ContentType,
     val framingRenderer: Flow[ByteString, ByteString, NotUsed],
     val parallelism: Int,
-    val unordered: Boolean) extends common.CsvEntityStreamingSupport {
+    val unordered: Boolean,
+    framingParallelism: Int) extends common.CsvEntityStreamingSupport {
   import pekko.http.impl.util.JavaMapping.Implicits._
 
+  private[pekko] def this(maxLineLength: Int, supported: ContentTypeRange, contentType: ContentType,
+      framingRenderer: Flow[ByteString, ByteString, NotUsed], parallelism: Int, unordered: Boolean) =
+    this(maxLineLength, supported, contentType, framingRenderer, parallelism, unordered, 0)
+
   def this(maxObjectSize: Int) =
     this(
       maxObjectSize,
@@ -39,20 +45,28 @@ final class CsvEntityStreamingSupport private[pekko] (
       1, false)
 
   override val framingDecoder: Flow[ByteString, ByteString, NotUsed] =
-    Framing.delimiter(ByteString("\n"), maxLineLength)
+    if (framingParallelism > 0) ParallelLineFraming(maxLineLength, framingParallelism, allowTruncation = false)
+    else Framing.delimiter(ByteString("\n"), maxLineLength)
 
   override def withFramingRendererFlow(
       framingRendererFlow: pekko.stream.javadsl.Flow[ByteString, ByteString, NotUsed]): CsvEntityStreamingSupport =
     withFramingRenderer(framingRendererFlow.asScala)
   def withFramingRenderer(framingRendererFlow: Flow[ByteString, ByteString, NotUsed]): CsvEntityStreamingSupport =
-    new CsvEntityStreamingSupport(maxLineLength, supported, contentType, framingRendererFlow, parallelism, unordered)
+    new CsvEntityStreamingSupport(maxLineLength, supported, contentType, framingRendererFlow, parallelism, unordered,
+      framingParallelism)
 
   override def withContentType(ct: jm.ContentType): CsvEntityStreamingSupport =
-    new CsvEntityStreamingSupport(maxLineLength, supported, ct.asScala, framingRenderer, parallelism, unordered)
+    new CsvEntityStreamingSupport(maxLineLength, supported, ct.asScala, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withSupported(range: jm.ContentTypeRange): CsvEntityStreamingSupport =
-    new CsvEntityStreamingSupport(maxLineLength, range.asScala, contentType, framingRenderer, parallelism, unordered)
+    new CsvEntityStreamingSupport(maxLineLength, range.asScala, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withParallelMarshalling(parallelism: Int, unordered: Boolean): CsvEntityStreamingSupport =
-    new CsvEntityStreamingSupport(maxLineLength, supported, contentType, framingRenderer, parallelism, unordered)
+    new CsvEntityStreamingSupport(maxLineLength, supported, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
+  override def withParallelFraming(parallelism: Int): CsvEntityStreamingSupport =
+    new CsvEntityStreamingSupport(maxLineLength, supported, contentType, framingRenderer, this.parallelism, unordered,
+      parallelism)
 
   override def toString = s"""${Logging.simpleName(getClass)}($maxLineLength, $supported, $contentType)"""
 }
@@ -23,7 +23,8 @@ import pekko.util.ByteString
 /**
  * Entity streaming support trait allowing rendering and receiving incoming ``Source[T, _]`` from HTTP entities.
  *
- * See [[JsonEntityStreamingSupport]] or [[CsvEntityStreamingSupport]] for default implementations.
+ * See [[JsonEntityStreamingSupport]], [[CsvEntityStreamingSupport]] or [[LengthPrefixedEntityStreamingSupport]] for
+ * default implementations.
  */
 abstract class EntityStreamingSupport extends common.EntityStreamingSupport {
 
@@ -152,4 +153,24 @@ object EntityStreamingSupport {
    * Provides framing and rendering of `\n` separated lines and marshalling Sources into such values.
    */
   def csv(maxLineLength: Int): CsvEntityStreamingSupport = new CsvEntityStreamingSupport(maxLineLength)
+
+  /**
+   * Default `application/octet-stream` entity streaming support for binary records that are each prefixed with their
+   * length as a 4-byte big-endian integer.
+   *
+   * The records themselves are not interpreted, so this can be used with any binary codec, e.g. protobuf or CBOR.
+   * Use `withContentType` and `withSupported` to use a more specific content type.
+   */
+  def lengthPrefixed(maxFrameLength: Int): LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix = false)
+
+  /**
+   * Default `application/octet-stream` entity streaming support for binary records that are each prefixed with their
+   * length as a varint, as written by protobuf's `writeDelimitedTo` and read by `parseDelimitedFrom`.
+   *
+   * The records themselves are not interpreted, so this can be used with any binary codec.
+   * Use `withContentType` and `withSupported` to use a more specific content type.
+   */
+  def varintLengthPrefixed(maxFrameLength: Int): LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix = true)
 }
@@ -16,6 +16,7 @@ package org.apache.pekko.http.scaladsl.common
 import org.apache.pekko
 import pekko.NotUsed
 import pekko.event.Logging
+import pekko.http.impl.util.ParallelLineFraming
 import pekko.http.javadsl.{ common, model => jm }
 import pekko.http.scaladsl.model.{ ContentType, ContentTypeRange, ContentTypes }
 import pekko.stream.scaladsl.Flow
@@ -27,9 +28,14 @@ final class JsonEntityStreamingSupport private[pekko] (
     val contentType: ContentType,
     val framingRenderer: Flow[ByteString, ByteString, NotUsed],
     val parallelism: Int,
-    val unordered: Boolean) extends common.JsonEntityStreamingSupport {
+    val unordered: Boolean,
+    framingParallelism: Int) extends common.JsonEntityStreamingSupport {
   import pekko.http.impl.util.JavaMapping.Implicits._
 
+  private[pekko] def this(maxObjectSize: Int, supported: ContentTypeRange, contentType: ContentType,
+      framingRenderer: Flow[ByteString, ByteString, NotUsed], parallelism: Int, unordered: Boolean) =
+    this(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered, 0)
+
   def this(maxObjectSize: Int) =
     this(
       maxObjectSize,
@@ -39,20 +45,30 @@ final class JsonEntityStreamingSupport private[pekko] (
       1, false)
 
   override val framingDecoder: Flow[ByteString, ByteString, NotUsed] =
-    pekko.stream.scaladsl.JsonFraming.objectScanner(maxObjectSize)
+    if (framingParallelism > 0)
+      ParallelLineFraming(maxObjectSize, framingParallelism, allowTruncation = true)
+        .filterNot(ParallelLineFraming.isBlankLine)
+    else pekko.stream.scaladsl.JsonFraming.objectScanner(maxObjectSize)
 
   override def withFramingRendererFlow(
       framingRendererFlow: pekko.stream.javadsl.Flow[ByteString, ByteString, NotUsed]): JsonEntityStreamingSupport =
     withFramingRenderer(framingRendererFlow.asScala)
   def withFramingRenderer(framingRendererFlow: Flow[ByteString, ByteString, NotUsed]): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRendererFlow, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRendererFlow, parallelism, unordered,
+      framingParallelism)
 
   override def withContentType(ct: jm.ContentType): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, ct.asScala, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, ct.asScala, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withSupported(range: jm.ContentTypeRange): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, range.asScala, contentType, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, range.asScala, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
   override def withParallelMarshalling(parallelism: Int, unordered: Boolean): JsonEntityStreamingSupport =
-    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered)
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, framingRenderer, parallelism, unordered,
+      framingParallelism)
+  override def withParallelFraming(parallelism: Int): JsonEntityStreamingSupport =
+    new JsonEntityStreamingSupport(maxObjectSize, supported, contentType, ParallelLineFraming.lineRenderer,
+      this.parallelism, unordered, parallelism)
 
   override def toString = s"""${Logging.simpleName(getClass)}($maxObjectSize, $supported, $contentType)"""
 
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.common
+
+import org.apache.pekko
+import pekko.NotUsed
+import pekko.event.Logging
+import pekko.http.impl.util.LengthPrefixedFraming
+import pekko.http.javadsl.{ common, model => jm }
+import pekko.http.scaladsl.model.{ ContentType, ContentTypeRange, ContentTypes }
+import pekko.stream.scaladsl.Flow
+import pekko.util.ByteString
+
+final class LengthPrefixedEntityStreamingSupport private[pekko] (
+    maxFrameLength: Int,
+    varintPrefix: Boolean,
+    val supported: ContentTypeRange,
+    val contentType: ContentType,
+    val framingRenderer: Flow[ByteString, ByteString, NotUsed],
+    val parallelism: Int,
+    val unordered: Boolean) extends common.LengthPrefixedEntityStreamingSupport {
+  import pekko.http.impl.util.JavaMapping.Implicits._
+
+  def this(maxFrameLength: Int, varintPrefix: Boolean) =
+    this(
+      maxFrameLength,
+      varintPrefix,
+      ContentTypeRange(ContentTypes.`application/octet-stream`),
+      ContentTypes.`application/octet-stream`,
+      if (varintPrefix) LengthPrefixedFraming.varintRenderer else LengthPrefixedFraming.int32Renderer,
+      1, false)
+
+  override val framingDecoder: Flow[ByteString, ByteString, NotUsed] =
+    if (varintPrefix) LengthPrefixedFraming.varintDecoder(maxFrameLength)
+    else LengthPrefixedFraming.int32Decoder(maxFrameLength)
+
+  override def withFramingRendererFlow(framingRendererFlow: pekko.stream.javadsl.Flow[ByteString, ByteString, NotUsed])
+      : LengthPrefixedEntityStreamingSupport =
+    withFramingRenderer(framingRendererFlow.asScala)
+  def withFramingRenderer(framingRendererFlow: Flow[ByteString, ByteString, NotUsed])
+      : LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix, supported, contentType, framingRendererFlow,
+      parallelism, unordered)
+
+  override def withContentType(ct: jm.ContentType): LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix, supported, ct.asScala, framingRenderer,
+      parallelism, unordered)
+  override def withSupported(range: jm.ContentTypeRange): LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix, range.asScala, contentType, framingRenderer,
+      parallelism, unordered)
+  override def withParallelMarshalling(parallelism: Int, unordered: Boolean): LengthPrefixedEntityStreamingSupport =
+    new LengthPrefixedEntityStreamingSupport(maxFrameLength, varintPrefix, supported, contentType, framingRenderer,
+      parallelism, unordered)
+
+  override def toString = {
+    val prefix = if (varintPrefix) "varint" else "int32"
+    s"""${Logging.simpleName(getClass)}($maxFrameLength, $prefix, $supported, $contentType)"""
+  }
+}
@@ -18,11 +18,14 @@ package sse
 
 import org.apache.pekko
 import pekko.annotation.ApiMayChange
+import pekko.http.impl.util.StreamUtils
 import pekko.http.scaladsl.model.HttpEntity
 import pekko.http.scaladsl.model.MediaTypes.`text/event-stream`
 import pekko.http.scaladsl.model.sse.ServerSentEvent
 import pekko.stream.scaladsl.Source
 
+import scala.concurrent.duration.FiniteDuration
+
 /**
  * Importing [[EventStreamMarshalling.toEventStream]] lets a source of [[ServerSentEvent]]s be marshalled to a
  * `HttpEntity` and hence as a `HttpResponse`.
@@ -41,4 +44,17 @@ trait EventStreamMarshalling {
     def marshal(messages: Source[ServerSentEvent, Any]) = HttpEntity(`text/event-stream`, messages.map(_.encode))
     Marshaller.withFixedContentType(`text/event-stream`)(marshal)
   }
+
+  /**
+   * Like [[toEventStream]], but instead of writing one chunk per event, events that are emitted shortly after each
+   * other are written together: the first event of a chunk waits at most `maxDelay` for more events until up to
+   * `maxBytes` bytes are collected. This reduces the number of writes for sources that emit many small events.
+   */
+  final def toBatchedEventStream(
+      maxDelay: FiniteDuration, maxBytes: Int): ToEntityMarshaller[Source[ServerSentEvent, Any]] = {
+    def marshal(messages: Source[ServerSentEvent, Any]) =
+      HttpEntity(`text/event-stream`,
+        messages.map(_.encode).via(StreamUtils.coalesceByteStrings(maxBytes, maxDelay)))
+    Marshaller.withFixedContentType(`text/event-stream`)(marshal)
+  }
 }
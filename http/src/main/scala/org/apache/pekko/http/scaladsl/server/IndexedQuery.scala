@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * license agreements; and to You under the Apache License, version 2.0:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * This file is part of the Apache Pekko project, derived from Akka.
+ */
+
+package org.apache.pekko.http.scaladsl.server
+
+import java.util
+
+import org.apache.pekko
+import pekko.annotation.InternalApi
+import pekko.http.scaladsl.model.Uri
+
+import scala.annotation.tailrec
+import scala.util.Try
+
+/**
+ * INTERNAL API
+ *
+ * A view of a parsed [[Uri.Query]] that answers lookups by key from a hash map instead of scanning the query
+ * for every parameter. Lookups return the same results as the respective methods on [[Uri.Query]].
+ */
+@InternalApi
+private[http] final class IndexedQuery(val query: Uri.Query) {
+  import IndexedQuery.Entry
+
+  private[this] val index: util.HashMap[String, Entry] = {
+    @tailrec def build(map: util.HashMap[String, Entry], q: Uri.Query): util.HashMap[String, Entry] =
+      if (q.isEmpty) map
+      else {
+        val entry = map.get(q.key)
+        if (entry eq null) map.put(q.key, new Entry(q.value))
+        else entry.all = q.value :: entry.all
+        build(map, q.tail)
+      }
+    build(new util.HashMap[String, Entry](), query)
+  }
+
+  /** The first value for the given key, like [[Uri.Query.get]]. */
+  def get(key: String): Option[String] = {
+    val entry = index.get(key)
+    if (entry eq null) None else Some(entry.first)
+  }
+
+  /** All values for the given key in reverse order of appearance, like [[Uri.Query.getAll]]. */
+  def getAll(key: String): List[String] = {
+    val entry = index.get(key)
+    if (entry eq null) Nil else entry.all
+  }
+
+  /** The last value for every key, like [[Uri.Query.toMap]]. */
+  lazy val toMap: Map[String, String] = toScalaMap(_.all.head)
+
+  /** All values for every key in order of appearance, like [[Uri.Query.toMultiMap]]. */
+  lazy val toMultiMap: Map[String, List[String]] = toScalaMap(_.all.reverse)
+
+  private def toScalaMap[T](f: Entry => T): Map[String, T] = {
+    val builder = Map.newBuilder[String, T]
+    val it = index.entrySet.iterator
+    while (it.hasNext) {
+      val e = it.next()
+      builder += e.getKey -> f(e.getValue)
+    }
+    builder.result()
+  }
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[http] object IndexedQuery {
+  private final class Entry(val first: String) {
+    var all: List[String] = first :: Nil
+  }
+
+  /**
+   * Returns the indexed query of the request in the given context. The index is built only once per request when
+   * the context is the default [[RequestContextImpl]]. A failure contains the reason why the query could not be parsed.
+   */
+  def apply(ctx: RequestContext): Try[IndexedQuery] = ctx match {
+    case impl: RequestContextImpl => impl.indexedQuery
+    case _                        => parse(ctx.request.uri)
+  }
+
+  def parse(uri: Uri): Try[IndexedQuery] = Try(new IndexedQuery(uri.query()))
+}
@@ -25,6 +25,7 @@ import pekko.http.scaladsl.util.FastFuture._
 import pekko.stream.Materializer
 
 import scala.concurrent.{ ExecutionContextExecutor, Future }
+import scala.util.Try
 
 /**
  * INTERNAL API
@@ -43,6 +44,14 @@ private[http] class RequestContextImpl(
       implicit ec: ExecutionContextExecutor, materializer: Materializer) =
     this(request, request.uri.path, ec, materializer, log, settings, parserSettings)
 
+  // built on first use, and carried over to copies of this context as long as the request uri stays the same
+  private var _indexedQuery: Try[IndexedQuery] = _
+
+  private[http] def indexedQuery: Try[IndexedQuery] = {
+    if (_indexedQuery eq null) _indexedQuery = IndexedQuery.parse(request.uri)
+    _indexedQuery
+  }
+
   def reconfigure(executionContext: ExecutionContextExecutor, materializer: Materializer, log: LoggingAdapter,
       settings: RoutingSettings): RequestContext =
     copy(executionContext = executionContext, materializer = materializer, log = log, routingSettings = settings)
@@ -122,8 +131,12 @@ private[http] class RequestContextImpl(
       materializer: Materializer = materializer,
       log: LoggingAdapter = log,
       routingSettings: RoutingSettings = settings,
-      parserSettings: ParserSettings = parserSettings) =
-    new RequestContextImpl(request, unmatchedPath, executionContext, materializer, log, routingSettings, parserSettings)
+      parserSettings: ParserSettings = parserSettings) = {
+    val ctx =
+      new RequestContextImpl(request, unmatchedPath, executionContext, materializer, log, routingSettings, parserSettings)
+    if (request.uri eq this.request.uri) ctx._indexedQuery = _indexedQuery
+    ctx
+  }
 
   override def toString: String =
     s"""RequestContext($request, $unmatchedPath, [more settings])"""
@@ -16,7 +16,7 @@ package org.apache.pekko.http.scaladsl.server
 import org.apache.pekko
 import pekko.NotUsed
 import pekko.actor.ClassicActorSystemProvider
-import pekko.http.scaladsl.model.{ HttpRequest, HttpResponse }
+import pekko.http.scaladsl.model.{ AttributeKeys, HttpRequest, HttpResponse }
 import pekko.http.scaladsl.server.directives.BasicDirectives
 import pekko.http.scaladsl.settings.{ ParserSettings, RoutingSettings }
 import pekko.http.scaladsl.util.FastFuture._
@@ -124,11 +124,14 @@ object Route {
       parserSettings: ParserSettings)(
       implicit ec: ExecutionContextExecutor, mat: Materializer): HttpRequest => Future[HttpResponse] = {
     request =>
-      sealedRoute(new RequestContextImpl(request, routingLog.requestLog(request), routingSettings, parserSettings)).fast
-        .map {
-          case RouteResult.Complete(response) => response
-          case RouteResult.Rejected(rejected) =>
-            throw new IllegalStateException(s"Unhandled rejections '$rejected', unsealed RejectionHandler?!")
-        }
+      val result =
+        sealedRoute(new RequestContextImpl(request, routingLog.requestLog(request), routingSettings, parserSettings))
+      // the attribute is only present if the server was configured to record the request timings
+      request.attribute(AttributeKeys.requestTimings).foreach(_.markRouted())
+      result.fast.map {
+        case RouteResult.Complete(response) => response
+        case RouteResult.Rejected(rejected) =>
+          throw new IllegalStateException(s"Unhandled rejections '$rejected', unsealed RejectionHandler?!")
+      }
   }
 }
@@ -14,9 +14,13 @@
 package org.apache.pekko.http.scaladsl.server
 package directives
 
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicReferenceArray
+
 import org.apache.pekko
 import pekko.http.scaladsl.model._
 import pekko.http.scaladsl.model.DateTime
+import pekko.util.ByteString
 import headers._
 import HttpMethods._
 import StatusCodes._
@@ -149,6 +153,68 @@ trait CacheConditionDirectives {
       }
     }
   }
+
+  /**
+   * Adds an `ETag` header derived from the entity bytes to `200 OK` responses with strict entities and answers
+   * `GET` and `HEAD` requests with `304 Not Modified` if their `If-None-Match` header matches it.
+   *
+   * The inner route still produces the complete response, but an unchanged entity is neither rendered nor sent.
+   * Responses that already have an `ETag` header are left alone. The tag of an entity that is completed with
+   * repeatedly, e.g. a precomputed `HttpEntity.Strict`, is only computed once.
+   *
+   * Note: the tag is derived from the entity as the inner route produces it, so this directive should be put
+   * *inside* of directives that change the entity, like `encodeResponse`.
+   *
+   * @group cachecondition
+   */
+  def autoETag: Directive0 =
+    extractRequest.flatMap { request =>
+      if (request.method == GET || request.method == HEAD) {
+        val ifNoneMatch = request.header[`If-None-Match`]
+        mapResponse { response =>
+          response.entity match {
+            case HttpEntity.Strict(_, data) if response.status == OK && response.header[ETag].isEmpty =>
+              val eTag = CacheConditionDirectives.strictETag(data)
+              if (ifNoneMatch.exists(inm => matchesRange(eTag, inm.m, weakComparison = true)))
+                HttpResponse(NotModified, ETag(eTag) +: response.headers)
+              else response.addHeader(ETag(eTag))
+            case _ => response
+          }
+        }
+      } else pass
+    }
 }
 
-object CacheConditionDirectives extends CacheConditionDirectives
+object CacheConditionDirectives extends CacheConditionDirectives {
+
+  private final class StrictETag(data: ByteString, val eTag: EntityTag) extends WeakReference[ByteString](data)
+
+  /** The tags of recently seen entities by the identity of their bytes */
+  private val strictETags = new AtomicReferenceArray[StrictETag](256)
+
+  private[directives] def strictETag(data: ByteString): EntityTag = {
+    val slot = System.identityHashCode(data) & (strictETags.length - 1)
+    val cached = strictETags.get(slot)
+    if ((cached ne null) && (cached.get eq data)) cached.eTag
+    else {
+      val eTag = EntityTag(java.lang.Long.toHexString(hash(data)) + "-" + java.lang.Integer.toHexString(data.length))
+      strictETags.set(slot, new StrictETag(data, eTag))
+      eTag
+    }
+  }
+
+  /** A fast non-cryptographic hash of the bytes, reading eight of them at a time */
+  private def hash(data: ByteString): Long = {
+    val buffer = data.compact.asByteBuffer
+    var h = 0xCBF29CE484222325L
+    while (buffer.remaining >= 8) h = mix(h, buffer.getLong)
+    while (buffer.hasRemaining) h = mix(h, buffer.get)
+    // final avalanche as in MurmurHash3
+    h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL
+    h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L
+    h ^ (h >>> 33)
+  }
+
+  private def mix(h: Long, k: Long): Long =
+    java.lang.Long.rotateLeft(h ^ (k * 0x9E3779B97F4A7C15L), 27) * 0xBF58476D1CE4E5B9L
+}
@@ -14,8 +14,10 @@
 package org.apache.pekko.http.scaladsl.server
 package directives
 
-import java.io.File
+import java.io.{ File, IOException }
 import java.net.{ URI, URL }
+import java.nio.file.{ Files, InvalidPathException }
+import java.nio.file.attribute.BasicFileAttributes
 
 import org.apache.pekko
 import pekko.http.javadsl.{ marshalling, model }
@@ -72,21 +74,36 @@ trait FileAndResourceDirectives {
    */
   def getFromFile(file: File, contentType: ContentType): Route =
     get {
-      if (file.isFile && file.canRead)
-        conditionalFor(file.length, file.lastModified) {
-          if (file.length > 0) {
-            withRangeSupportAndPrecompressedMediaTypeSupport {
-              complete(HttpEntity.Default(contentType, file.length, FileIO.fromPath(file.toPath)))
-            }
-          } else complete(HttpEntity.Empty)
-        }
-      else reject
+      readableFileAttributes(file) match {
+        case Some(attributes) =>
+          val length = attributes.size
+          conditionalFor(length, attributes.lastModifiedTime.toMillis, Option(attributes.fileKey)) {
+            if (length > 0) {
+              withRangeSupportAndPrecompressedMediaTypeSupport {
+                complete(HttpEntity.Default(contentType, length, FileIO.fromPath(file.toPath)))
+              }
+            } else complete(HttpEntity.Empty)
+          }
+        case None => reject
+      }
     }
 
-  private def conditionalFor(length: Long, lastModified: Long): Directive0 =
+  /**
+   * The tag is derived from the size, the modification time and, if available and enabled with the
+   * `file-get-etag-includes-file-key` setting, the identity of the file in the file system (e.g. its inode), so that
+   * replacing a file with one of the same size and time is noticed.
+   */
+  private def conditionalFor(length: Long, lastModified: Long, fileKey: Option[AnyRef]): Directive0 =
     extractSettings.flatMap(settings =>
       if (settings.fileGetConditional) {
-        val tag = java.lang.Long.toHexString(lastModified ^ java.lang.Long.reverse(length))
+        val tag = {
+          val sizeAndTime = java.lang.Long.toHexString(lastModified ^ java.lang.Long.reverse(length))
+          fileKey match {
+            case Some(key) if settings.fileGetETagIncludesFileKey =>
+              sizeAndTime + "-" + Integer.toHexString(key.hashCode)
+            case _ => sizeAndTime
+          }
+        }
         val lastModifiedDateTime = DateTime(math.min(lastModified, System.currentTimeMillis))
         conditional(EntityTag(tag), lastModifiedDateTime)
       } else pass)
@@ -112,7 +129,7 @@ trait FileAndResourceDirectives {
       get {
         Option(classLoader.getResource(resourceName)).flatMap(ResourceFile.apply) match {
           case Some(ResourceFile(url, length, lastModified)) =>
-            conditionalFor(length, lastModified) {
+            conditionalFor(length, lastModified, None) {
               if (length > 0) {
                 withRangeSupportAndPrecompressedMediaTypeSupport {
                   complete(HttpEntity.Default(contentType, length,
@@ -223,6 +240,18 @@ object FileAndResourceDirectives extends FileAndResourceDirectives {
     RangeDirectives.withRangeSupport &
     CodingDirectives.withPrecompressedMediaTypeSupport
 
+  /**
+   * Reads the size, modification time and identity of a file with one attributes call instead of one call each,
+   * None if it is not a readable regular file. Readability is still checked separately.
+   */
+  private def readableFileAttributes(file: File): Option[BasicFileAttributes] =
+    try {
+      val attributes = Files.readAttributes(file.toPath, classOf[BasicFileAttributes])
+      if (attributes.isRegularFile && file.canRead) Some(attributes) else None
+    } catch {
+      case _: IOException | _: InvalidPathException => None
+    }
+
   private def withTrailingSlash(path: String): String = if (path.endsWith("/")) path else path + '/'
 
   /**
@@ -16,7 +16,7 @@ package directives
 
 import scala.collection.immutable
 import scala.concurrent.Future
-import scala.util.{ Failure, Success, Try }
+import scala.util.{ Failure, Success }
 import org.apache.pekko
 import pekko.http.scaladsl.common._
 import pekko.http.impl.util._
@@ -74,13 +74,13 @@ object ParameterDirectives extends ParameterDirectives {
   import BasicDirectives._
 
   private val _parameterMap: Directive1[Map[String, String]] =
-    extract(_.request.uri.query().toMap)
+    extract(IndexedQuery(_).get.toMap)
 
   private val _parameterMultiMap: Directive1[Map[String, List[String]]] =
-    extract(_.request.uri.query().toMultiMap)
+    extract(IndexedQuery(_).get.toMultiMap)
 
   private val _parameterSeq: Directive1[immutable.Seq[(String, String)]] =
-    extract(_.request.uri.query().toSeq)
+    extract(IndexedQuery(_).get.query.toSeq)
 
   trait ParamSpec {
     type Out
@@ -232,7 +232,7 @@ object ParameterDirectives extends ParameterDirectives {
       extractRequestContext.flatMap { ctx =>
         import ctx.executionContext
         import ctx.materializer
-        Try(ctx.request.uri.query()) match {
+        IndexedQuery(ctx) match {
           case Success(query) => handleParamResult(paramName, fsou(query.get(paramName)))
           case Failure(t)     => reject(MalformedRequestContentRejection("The request's query string is invalid.", t))
         }
@@ -242,7 +242,7 @@ object ParameterDirectives extends ParameterDirectives {
       extractRequestContext.flatMap { ctx =>
         import ctx.executionContext
         import ctx.materializer
-        onComplete(fsou(ctx.request.uri.query().get(paramName))).flatMap {
+        onComplete(fsou(IndexedQuery(ctx).get.get(paramName))).flatMap {
           case Success(value) if value == requiredValue => pass
           case Success(value) =>
             reject(InvalidRequiredValueForQueryParamRejection(paramName, requiredValue.toString, value.toString))
@@ -254,7 +254,7 @@ object ParameterDirectives extends ParameterDirectives {
       extractRequestContext.flatMap { ctx =>
         import ctx.executionContext
         import ctx.materializer
-        handleParamResult(paramName, Future.sequence(ctx.request.uri.query().getAll(paramName).map(fsu.apply)))
+        handleParamResult(paramName, Future.sequence(IndexedQuery(ctx).get.getAll(paramName).map(fsu.apply)))
       }
 
     def handleParamResult[T](paramName: String, result: Future[T]): Directive1[T] =
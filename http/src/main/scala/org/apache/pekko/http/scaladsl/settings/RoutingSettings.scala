@@ -31,6 +31,7 @@ abstract class RoutingSettings private[pekko] () extends pekko.http.javadsl.sett
   def rangeCoalescingThreshold: Long
   def decodeMaxBytesPerChunk: Int
   def decodeMaxSize: Long
+  def fileGetETagIncludesFileKey: Boolean
   @deprecated(
     "binary compatibility method. Use `pekko.stream.materializer.blocking-io-dispatcher` to configure the dispatcher",
     since = "Akka HTTP 10.1.6")
@@ -44,6 +45,7 @@ abstract class RoutingSettings private[pekko] () extends pekko.http.javadsl.sett
   def getRangeCoalescingThreshold: Long = rangeCoalescingThreshold
   def getDecodeMaxBytesPerChunk: Int = decodeMaxBytesPerChunk
   def getDecodeMaxSize: Long = decodeMaxSize
+  def getFileGetETagIncludesFileKey: Boolean = fileGetETagIncludesFileKey
   @deprecated(
     "binary compatibility method. Use `pekko.stream.materializer.blocking-io-dispatcher` to configure the dispatcher",
     since = "Akka HTTP 10.1.6")
@@ -62,6 +64,8 @@ abstract class RoutingSettings private[pekko] () extends pekko.http.javadsl.sett
   override def withDecodeMaxBytesPerChunk(decodeMaxBytesPerChunk: Int): RoutingSettings =
     self.copy(decodeMaxBytesPerChunk = decodeMaxBytesPerChunk)
   override def withDecodeMaxSize(decodeMaxSize: Long): RoutingSettings = self.copy(decodeMaxSize = decodeMaxSize)
+  override def withFileGetETagIncludesFileKey(fileGetETagIncludesFileKey: Boolean): RoutingSettings =
+    self.copy(fileGetETagIncludesFileKey = fileGetETagIncludesFileKey)
   @deprecated(
     "binary compatibility method. Use `pekko.stream.materializer.blocking-io-dispatcher` to configure the dispatcher",
     since = "Akka HTTP 10.1.6")